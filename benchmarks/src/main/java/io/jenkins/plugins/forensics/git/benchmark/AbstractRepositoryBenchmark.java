@@ -0,0 +1,75 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.jenkins.plugins.forensics.git.benchmark.SyntheticRepository.Shape;
+
+/**
+ * Base class for benchmarks that run against a {@link SyntheticRepository}. The repository is generated once per
+ * trial using the parameters {@link #commits}, {@link #files}, {@link #lines}, and {@link #shape}. All parameters can
+ * be overridden on the command line, e.g. {@code -p commits=5000 -p shape=MERGES}.
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class AbstractRepositoryBenchmark {
+    /** The total number of commits of the generated history. */
+    @Param({"100", "1000"})
+    public int commits;
+
+    /** The number of files in the generated repository. */
+    @Param("100")
+    public int files;
+
+    /** The initial number of lines of each file. */
+    @Param({"200", "5000"})
+    public int lines;
+
+    /** The shape of the generated history. */
+    @Param({"LINEAR", "MERGES"})
+    public Shape shape;
+
+    private SyntheticRepository repository;
+
+    /**
+     * Generates the repository for the current parameters.
+     *
+     * @throws IOException
+     *         if the repository could not be created
+     */
+    @Setup(Level.Trial)
+    public void createRepository() throws IOException {
+        repository = SyntheticRepository.create(commits, files, lines, shape);
+    }
+
+    /**
+     * Deletes the repository of the current trial.
+     */
+    @TearDown(Level.Trial)
+    public void deleteRepository() {
+        repository.close();
+    }
+
+    protected SyntheticRepository getRepository() {
+        return repository;
+    }
+}
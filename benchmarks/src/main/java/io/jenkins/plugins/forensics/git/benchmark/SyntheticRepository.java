@@ -0,0 +1,306 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * A Git repository with a generated history that is used as input for the benchmarks. The repository is created in a
+ * temporary folder and is deleted when it is closed. The history is generated from a fixed random seed, so the same
+ * parameters always produce the same commits, trees, and blobs.
+ *
+ * <p>
+ * Each commit modifies about 10% of the files. In each modified file about 5% of the lines are replaced and a new line
+ * is appended. The authors rotate between a small set of identities. Depending on the {@link Shape} the history is
+ * either linear or contains short-lived branches that are merged back into the main line. Since the branch and the
+ * main line modify disjoint sets of files, the merges never conflict. After generation the repository is garbage
+ * collected, so all objects are stored in a pack file like in a cloned repository.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class SyntheticRepository implements AutoCloseable {
+    private static final String BRANCH = "master";
+    private static final long SEED = 4711L;
+    private static final int MERGE_ROUND_LENGTH = 3;
+    private static final int AUTHORS = 5;
+    private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+    /** The shape of the generated history. */
+    public enum Shape {
+        /** Each commit has exactly one parent. */
+        LINEAR,
+        /**
+         * Short-lived branches of {@value #MERGE_ROUND_LENGTH} commits are forked from the main line and merged back
+         * while the main line gets the same number of commits.
+         */
+        MERGES
+    }
+
+    private final File directory;
+    private final Git git;
+    private final List<String> files;
+    private final List<ObjectId> mainLine = new ArrayList<>();
+
+    private SyntheticRepository(final File directory, final Git git, final List<String> files) {
+        this.directory = directory;
+        this.git = git;
+        this.files = files;
+    }
+
+    /**
+     * Creates a new repository with a generated history.
+     *
+     * @param commits
+     *         the total number of commits (including merge commits)
+     * @param fileCount
+     *         the number of files in the repository
+     * @param lines
+     *         the initial number of lines of each file
+     * @param shape
+     *         the shape of the history
+     *
+     * @return the created repository
+     * @throws IOException
+     *         if the repository could not be written
+     */
+    public static SyntheticRepository create(final int commits, final int fileCount, final int lines,
+            final Shape shape) throws IOException {
+        var directory = Files.createTempDirectory("git-forensics-benchmark").toFile();
+        try {
+            var git = Git.init().setDirectory(directory).setInitialBranch(BRANCH).call();
+            List<String> files = new ArrayList<>();
+            for (int i = 0; i < fileCount; i++) {
+                files.add("src/module-%d/File%d.java".formatted(i % 10, i));
+            }
+            var repository = new SyntheticRepository(directory, git, files);
+            repository.generate(Math.max(1, commits), Math.max(1, lines), shape);
+            return repository;
+        }
+        catch (GitAPIException exception) {
+            FileUtils.deleteQuietly(directory);
+
+            throw new IOException(exception);
+        }
+    }
+
+    public Repository getRepository() {
+        return git.getRepository();
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns the head commit of the main line.
+     *
+     * @return the head commit
+     */
+    public ObjectId getHead() {
+        return mainLine.get(mainLine.size() - 1);
+    }
+
+    /**
+     * Returns the commit of the main line that is the specified number of first-parent steps behind the head commit. If
+     * the distance is larger than the main line, then the initial commit is returned.
+     *
+     * @param distance
+     *         the number of first-parent steps
+     *
+     * @return the commit
+     */
+    public ObjectId getAncestor(final int distance) {
+        return mainLine.get(Math.max(0, mainLine.size() - 1 - distance));
+    }
+
+    @Override
+    public void close() {
+        git.close();
+        FileUtils.deleteQuietly(directory);
+    }
+
+    private void generate(final int commits, final int lines, final Shape shape) throws IOException, GitAPIException {
+        var random = new Random(SEED);
+        var repository = getRepository();
+        try (var inserter = repository.newObjectInserter()) {
+            var history = new History(inserter, random);
+
+            var main = new Branch();
+            for (String file : files) {
+                List<String> content = new ArrayList<>(lines);
+                for (int line = 0; line < lines; line++) {
+                    content.add(createLine(random, 0, line));
+                }
+                main.update(file, content, inserter);
+            }
+            main.head = history.commit(main, List.of());
+            mainLine.add(main.head);
+
+            int created = 1;
+            while (created < commits) {
+                if (shape == Shape.MERGES && created + 2 * MERGE_ROUND_LENGTH + 1 <= commits) {
+                    var side = main.fork();
+                    for (int i = 0; i < MERGE_ROUND_LENGTH; i++) {
+                        history.modify(side, index -> index % 2 == 1);
+                        side.head = history.commit(side, List.of(side.head));
+
+                        history.modify(main, index -> index % 2 == 0);
+                        main.head = history.commit(main, List.of(main.head));
+                        mainLine.add(main.head);
+                    }
+                    main.merge(side, files, index -> index % 2 == 1);
+                    main.head = history.commit(main, List.of(main.head, side.head));
+                    mainLine.add(main.head);
+
+                    created += 2 * MERGE_ROUND_LENGTH + 1;
+                }
+                else {
+                    history.modify(main, index -> true);
+                    main.head = history.commit(main, List.of(main.head));
+                    mainLine.add(main.head);
+
+                    created++;
+                }
+            }
+            inserter.flush();
+        }
+
+        var update = repository.updateRef(Constants.R_HEADS + BRANCH);
+        update.setNewObjectId(getHead());
+        update.forceUpdate();
+
+        git.gc().call();
+    }
+
+    private static String createLine(final Random random, final int commit, final int line) {
+        return "    private int value%d = %d; // commit %d".formatted(line, random.nextInt(), commit);
+    }
+
+    /**
+     * Creates the commits of the generated history.
+     */
+    private final class History {
+        private final ObjectInserter inserter;
+        private final Random random;
+        private int count;
+
+        History(final ObjectInserter inserter, final Random random) {
+            this.inserter = inserter;
+            this.random = random;
+        }
+
+        void modify(final Branch branch, final IntPredicate allowedFiles) throws IOException {
+            int changes = Math.max(1, files.size() / 10);
+            for (int i = 0; i < changes; i++) {
+                int index = random.nextInt(files.size());
+                if (!allowedFiles.test(index)) {
+                    index = (index + 1) % files.size();
+                }
+                if (!allowedFiles.test(index)) {
+                    continue; // only possible for a single file
+                }
+                var file = files.get(index);
+                List<String> content = new ArrayList<>(branch.getContent(file));
+                int replaced = Math.max(1, content.size() / 20);
+                for (int j = 0; j < replaced; j++) {
+                    int line = random.nextInt(content.size());
+                    content.set(line, createLine(random, count + 1, line));
+                }
+                content.add(createLine(random, count + 1, content.size()));
+                branch.update(file, content, inserter);
+            }
+        }
+
+        ObjectId commit(final Branch branch, final List<ObjectId> parents) throws IOException {
+            var author = count % AUTHORS;
+            var time = START.plus(count, ChronoUnit.HOURS);
+            var ident = new PersonIdent("Author " + author, "author" + author + "@example.com", time,
+                    ZoneOffset.UTC);
+
+            var builder = new CommitBuilder();
+            builder.setTreeId(branch.writeTree(inserter));
+            builder.setParentIds(parents);
+            builder.setAuthor(ident);
+            builder.setCommitter(ident);
+            builder.setMessage("Commit " + count);
+            count++;
+            return inserter.insert(builder);
+        }
+    }
+
+    /**
+     * The state of a branch: the head commit and the content and blob of each file.
+     */
+    private static final class Branch {
+        private final Map<String, List<String>> contents = new HashMap<>();
+        private final Map<String, ObjectId> blobs = new TreeMap<>();
+        private ObjectId head = ObjectId.zeroId();
+
+        List<String> getContent(final String file) {
+            return contents.get(file);
+        }
+
+        void update(final String file, final List<String> content, final ObjectInserter inserter)
+                throws IOException {
+            contents.put(file, content);
+            blobs.put(file, inserter.insert(Constants.OBJ_BLOB,
+                    String.join("\n", content).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        Branch fork() {
+            var fork = new Branch();
+            fork.contents.putAll(contents);
+            fork.blobs.putAll(blobs);
+            fork.head = head;
+            return fork;
+        }
+
+        void merge(final Branch other, final List<String> files, final IntPredicate filesOfOther) {
+            for (int i = 0; i < files.size(); i++) {
+                if (filesOfOther.test(i)) {
+                    var file = files.get(i);
+                    contents.put(file, other.contents.get(file));
+                    blobs.put(file, other.blobs.get(file));
+                }
+            }
+        }
+
+        ObjectId writeTree(final ObjectInserter inserter) throws IOException {
+            var index = DirCache.newInCore();
+            var builder = index.builder();
+            for (Map.Entry<String, ObjectId> blob : blobs.entrySet()) {
+                var entry = new DirCacheEntry(blob.getKey());
+                entry.setFileMode(FileMode.REGULAR_FILE);
+                entry.setObjectId(blob.getValue());
+                builder.add(entry);
+            }
+            builder.finish();
+            return index.writeTree(inserter);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileLocations;
+import io.jenkins.plugins.forensics.git.benchmark.AbstractRepositoryBenchmark;
+import io.jenkins.plugins.forensics.git.blame.GitBlamer.BlameCallback;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+
+/**
+ * Measures {@link BlameCallback}: blames a number of lines in every file of the repository with the default
+ * {@link BlameOptions}, using platform threads or virtual threads.
+ *
+ * @author Ullrich Hafner
+ */
+public class BlameCallbackBenchmark extends AbstractRepositoryBenchmark {
+    /** The number of requested lines in each file, the lines are evenly distributed over the file. */
+    @Param({"1", "20"})
+    public int requestedLines;
+
+    /** Determines whether the files are blamed on virtual threads (requires Java 21). */
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private FileLocations locations;
+
+    /**
+     * Creates the locations to blame.
+     */
+    @Setup(Level.Trial)
+    public void createLocations() {
+        locations = new FileLocations();
+        int step = Math.max(1, lines / requestedLines);
+        for (String file : getRepository().getFiles()) {
+            for (int line = 1; line <= lines; line += step) {
+                locations.addLine(file, line);
+            }
+        }
+    }
+
+    /**
+     * Blames all locations.
+     *
+     * @return the blames
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public RemoteResultWrapper<?> blame() throws InterruptedException {
+        return new BlameCallback(locations, new Blames(), getRepository().getHead(),
+                new BlameOptions().setVirtualThreadsEnabled(virtualThreads))
+                .invoke(getRepository().getRepository(), null);
+    }
+}
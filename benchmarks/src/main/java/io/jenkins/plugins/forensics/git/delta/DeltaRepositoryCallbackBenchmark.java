@@ -0,0 +1,43 @@
+package io.jenkins.plugins.forensics.git.delta;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.io.IOException;
+
+import io.jenkins.plugins.forensics.delta.Delta;
+import io.jenkins.plugins.forensics.git.benchmark.AbstractRepositoryBenchmark;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+
+/**
+ * Measures {@link DeltaRepositoryCallback}: computes the delta between the head commit and a reference commit on the
+ * main line.
+ *
+ * @author Ullrich Hafner
+ */
+public class DeltaRepositoryCallbackBenchmark extends AbstractRepositoryBenchmark {
+    /** The number of first-parent steps between the head commit and the reference commit. */
+    @Param({"1", "50"})
+    public int distance;
+
+    /** Determines whether the changes of the files are computed on virtual threads (requires Java 21). */
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    /**
+     * Computes the delta.
+     *
+     * @return the delta
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public RemoteResultWrapper<Delta> computeDelta() throws IOException, InterruptedException {
+        return new DeltaRepositoryCallback(getRepository().getHead().getName(),
+                getRepository().getAncestor(distance).getName())
+                .withVirtualThreads(virtualThreads)
+                .invoke(getRepository().getRepository(), null);
+    }
+}
@@ -0,0 +1,58 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import io.jenkins.plugins.forensics.git.benchmark.AbstractRepositoryBenchmark;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.forensics.miner.CommitDiffItem;
+
+/**
+ * Measures {@link RepositoryStatisticsCallback}: mines the complete history (the initial mining of a job) and the
+ * latest commits (the incremental mining of a subsequent build), using platform threads or virtual threads.
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.LooseCoupling")
+public class RepositoryStatisticsCallbackBenchmark extends AbstractRepositoryBenchmark {
+    private static final int NEW_COMMITS = 10;
+
+    /** Determines whether the diffs of the commits are computed on virtual threads (requires Java 21). */
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    /**
+     * Mines all commits of the repository.
+     *
+     * @return the mined commits
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public RemoteResultWrapper<ArrayList<CommitDiffItem>> mineAll() throws IOException, InterruptedException {
+        return new RepositoryStatisticsCallback("")
+                .withVirtualThreads(virtualThreads)
+                .invoke(getRepository().getRepository(), null);
+    }
+
+    /**
+     * Mines the commits since the commit {@value #NEW_COMMITS} first-parent steps behind head.
+     *
+     * @return the mined commits
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public RemoteResultWrapper<ArrayList<CommitDiffItem>> mineIncrementally() throws IOException, InterruptedException {
+        return new RepositoryStatisticsCallback(getRepository().getAncestor(NEW_COMMITS).getName())
+                .withVirtualThreads(virtualThreads)
+                .invoke(getRepository().getRepository(), null);
+    }
+}
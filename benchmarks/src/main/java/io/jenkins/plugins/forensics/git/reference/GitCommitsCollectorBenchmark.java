@@ -0,0 +1,36 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.io.IOException;
+
+import io.jenkins.plugins.forensics.git.benchmark.AbstractRepositoryBenchmark;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+
+/**
+ * Measures {@link GitCommitsCollector}: collects the commits since a previously recorded commit on the main line.
+ *
+ * @author Ullrich Hafner
+ */
+public class GitCommitsCollectorBenchmark extends AbstractRepositoryBenchmark {
+    /**
+     * The number of first-parent steps between the head commit and the recorded commit. A negative value starts
+     * without a recorded commit.
+     */
+    @Param({"-1", "10", "50"})
+    public int distance;
+
+    /**
+     * Collects the commits.
+     *
+     * @return the collected commits
+     * @throws IOException
+     *         if the repository could not be read
+     */
+    @Benchmark
+    public RemoteResultWrapper<?> collectCommits() throws IOException {
+        var latestRecordedCommit = distance < 0 ? "" : getRepository().getAncestor(distance).getName();
+        return new GitCommitsCollector(latestRecordedCommit).invoke(getRepository().getRepository(), null);
+    }
+}
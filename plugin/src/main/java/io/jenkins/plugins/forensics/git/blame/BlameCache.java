@@ -0,0 +1,323 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import io.jenkins.plugins.forensics.blame.FileBlame;
+
+/**
+ * A persistent cache of blame results that is stored in the Git directory of a working tree. A cache entry is
+ * identified by the path of a file, the ID of the file content (i.e., the Git blob) at the blamed commit, and the
+ * requested lines. For each requested line the entry stores the author, email, commit ID, and commit time. The number
+ * of cached files is bounded: if the cache is full, then the least recently used entries will be evicted. The strings
+ * are stored with a length prefix, a missing value (e.g., a line without blame) is stored with a negative length. So
+ * every string value (including the placeholder {@code "-"} of {@link FileBlame}) is restored unchanged.
+ *
+ * <p>
+ * Note that a cached entry will be reused as long as the content of a file does not change. If a file has been
+ * changed and afterward reverted to the previous content, then the blame result of the old content will be used.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class BlameCache {
+    static final String FILE_NAME = "forensics-blame.cache";
+
+    private static final int MAGIC = 0x4742_4C43; // GBLC
+    private static final int VERSION = 2;
+    private static final int MISSING = -1;
+
+    /**
+     * Creates a cache that does not store any results.
+     *
+     * @return a disabled cache
+     */
+    static BlameCache disabled() {
+        return new BlameCache(null, 0);
+    }
+
+    /**
+     * Loads the cache from the Git directory of the specified repository. If there is no cache file yet or if the file
+     * cannot be read, then an empty cache will be returned.
+     *
+     * @param repository
+     *         the repository that contains the cache file
+     * @param maxSize
+     *         the maximum number of files in the cache
+     * @param log
+     *         the logger
+     *
+     * @return the loaded cache
+     */
+    static BlameCache load(final Repository repository, final int maxSize, final FilteredLog log) {
+        var cache = new BlameCache(new File(repository.getDirectory(), FILE_NAME), maxSize);
+        cache.read(log);
+        return cache;
+    }
+
+    /**
+     * Creates the key of a cache entry.
+     *
+     * @param path
+     *         the relative path of the file
+     * @param blob
+     *         the ID of the file content at the blamed commit
+     * @param lines
+     *         the requested lines
+     *
+     * @return the key
+     */
+    static String createKey(final String path, final AnyObjectId blob, final Set<Integer> lines) {
+        return path + '\0' + blob.name() + '\0' + lines.stream().sorted().map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    @CheckForNull
+    private final File file;
+    private final Map<String, List<CachedLine>> entries;
+    private boolean modified = false;
+    private int hits = 0;
+    private int misses = 0;
+
+    @SuppressWarnings("serial")
+    BlameCache(@CheckForNull final File file, final int maxSize) {
+        this.file = file;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Entry<String, List<CachedLine>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Returns the cached lines for the specified key.
+     *
+     * @param key
+     *         the key of the entry, see {@link #createKey(String, AnyObjectId, Set)}
+     *
+     * @return the cached lines, or an empty optional if there is no such entry
+     */
+    synchronized Optional<List<CachedLine>> get(final String key) {
+        var lines = entries.get(key);
+        if (lines == null) {
+            misses++;
+        }
+        else {
+            hits++;
+        }
+        return Optional.ofNullable(lines);
+    }
+
+    /**
+     * Stores the blame of the specified lines of a file in the cache.
+     *
+     * @param key
+     *         the key of the entry, see {@link #createKey(String, AnyObjectId, Set)}
+     * @param blame
+     *         the blame of the file
+     * @param lines
+     *         the lines to store
+     */
+    void put(final String key, final FileBlame blame, final Set<Integer> lines) {
+        if (!isEnabled()) {
+            return;
+        }
+        var blamedLines = blame.getLines();
+        List<CachedLine> cachedLines = lines.stream()
+                .sorted()
+                .map(line -> blamedLines.contains(line)
+                        ? new CachedLine(line, blame.getName(line), blame.getEmail(line), blame.getCommit(line),
+                                blame.getTime(line))
+                        : new CachedLine(line, null, null, null, 0))
+                .toList();
+        synchronized (this) {
+            entries.put(key, cachedLines);
+            modified = true;
+        }
+    }
+
+    /**
+     * Copies the cached lines into {@link FileBlame} instances.
+     *
+     * @param lines
+     *         the cached lines
+     * @param builder
+     *         the factory that creates a new {@link FileBlame} instance for each line
+     *
+     * @return the restored blames, one instance for each line
+     */
+    static List<FileBlame> restore(final List<CachedLine> lines, final Supplier<FileBlame> builder) {
+        List<FileBlame> blames = new ArrayList<>();
+        for (CachedLine cachedLine : lines) {
+            var blame = builder.get();
+            int line = cachedLine.line();
+            if (cachedLine.name() != null) {
+                blame.setName(line, cachedLine.name());
+            }
+            if (cachedLine.email() != null) {
+                blame.setEmail(line, cachedLine.email());
+            }
+            if (cachedLine.commit() != null) {
+                blame.setCommit(line, cachedLine.commit());
+                blame.setTime(line, cachedLine.time());
+            }
+            blames.add(blame);
+        }
+        return blames;
+    }
+
+    /**
+     * Writes the cache to the Git directory if it has been modified.
+     *
+     * @param log
+     *         the logger
+     */
+    synchronized void save(final FilteredLog log) {
+        if (file == null) {
+            return;
+        }
+        log.logInfo("-> blame cache: %d hits, %d misses, %d files cached", hits, misses, entries.size());
+        if (!modified) {
+            return;
+        }
+        try {
+            var directory = file.toPath().getParent();
+            var temporary = Files.createTempFile(directory, FILE_NAME, ".tmp");
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                write(output);
+            }
+            move(temporary, file.toPath());
+            modified = false;
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't write blame cache '%s'", file);
+        }
+    }
+
+    private void move(final Path from, final Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException exception) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void write(final DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(entries.size());
+        for (Entry<String, List<CachedLine>> entry : entries.entrySet()) {
+            writeString(output, entry.getKey());
+            output.writeInt(entry.getValue().size());
+            for (CachedLine line : entry.getValue()) {
+                output.writeInt(line.line());
+                writeString(output, line.name());
+                writeString(output, line.email());
+                writeString(output, line.commit());
+                output.writeInt(line.time());
+            }
+        }
+    }
+
+    private void read(final FilteredLog log) {
+        if (file == null || !file.isFile()) {
+            return;
+        }
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                log.logInfo("-> skipping blame cache '%s' with unknown format", file);
+                return;
+            }
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                var key = readString(input);
+                if (key == null) {
+                    throw new IllegalArgumentException("Missing cache key");
+                }
+                int count = input.readInt();
+                List<CachedLine> lines = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    lines.add(new CachedLine(input.readInt(), readString(input), readString(input),
+                            readString(input), input.readInt()));
+                }
+                entries.put(key, lines);
+            }
+        }
+        catch (IOException | IllegalArgumentException exception) {
+            entries.clear();
+            log.logInfo("-> skipping corrupt blame cache '%s': %s", file, exception.getMessage());
+        }
+    }
+
+    private static void writeString(final DataOutputStream output, @CheckForNull final String value)
+            throws IOException {
+        if (value == null) {
+            output.writeInt(MISSING);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @CheckForNull
+    private static String readString(final DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length == MISSING) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        return new String(input.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The blame of a single line: author name, email, commit ID, and commit time. If the line has not been blamed,
+     * then the values are {@code null}.
+     *
+     * @param line
+     *         the line number
+     * @param name
+     *         the author name
+     * @param email
+     *         the author email
+     * @param commit
+     *         the commit ID
+     * @param time
+     *         the commit time
+     */
+    record CachedLine(int line, @CheckForNull String name, @CheckForNull String email, @CheckForNull String commit,
+            int time) {
+    }
+}
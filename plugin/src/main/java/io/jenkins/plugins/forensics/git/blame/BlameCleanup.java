@@ -0,0 +1,111 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.remoting.VirtualChannel;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Discards the blames that have been stored for a build in the JVMs of the agents, see {@link BlameMemo} and
+ * {@link SpeculativeBlames}. The blames are stored in the JVM that computes the blames, i.e. the JVM of the agent that
+ * holds the working tree (or of the controller if the blamer has been invoked there). So the channels of these agents
+ * are registered when a blamer is created or a speculative blame is started for a build. As soon as the build has been
+ * completed (or has been aborted), the blames of the build are discarded on all registered agents and on the
+ * controller. Speculative blames that are still running will be cancelled.
+ *
+ * @author Ullrich Hafner
+ */
+public final class BlameCleanup {
+    private static final Map<String, Set<VirtualChannel>> CHANNELS = new HashMap<>();
+
+    /**
+     * Registers the agent of the specified working tree, so that the blames of the build will be discarded on this
+     * agent when the build has been completed.
+     *
+     * @param build
+     *         the build that stores blames on the agent
+     * @param workTree
+     *         the working tree on the agent
+     */
+    static void register(final Run<?, ?> build, final FilePath workTree) {
+        synchronized (CHANNELS) {
+            CHANNELS.computeIfAbsent(build.getExternalizableId(), id -> new HashSet<>()).add(workTree.getChannel());
+        }
+    }
+
+    /**
+     * Discards the blames of the specified build on the controller and on all agents that have been registered for
+     * this build.
+     *
+     * @param build
+     *         the ID of the build, see {@link Run#getExternalizableId()}
+     */
+    static void discard(final String build) {
+        Set<VirtualChannel> channels;
+        synchronized (CHANNELS) {
+            channels = CHANNELS.remove(build);
+        }
+        var discard = new Discard(build);
+        discard.call();
+        if (channels == null) {
+            return;
+        }
+        for (VirtualChannel channel : channels) {
+            try {
+                channel.callAsync(discard);
+            }
+            catch (IOException exception) {
+                // the agent has been disconnected, so its blames are gone as well
+            }
+        }
+    }
+
+    private BlameCleanup() {
+        // prevents instantiation
+    }
+
+    /**
+     * Discards the blames of a build in the JVM that runs this callable.
+     */
+    private static class Discard extends MasterToSlaveCallable<Void, RuntimeException> {
+        @Serial
+        private static final long serialVersionUID = -3178291736601484633L;
+
+        private final String build;
+
+        Discard(final String build) {
+            super();
+
+            this.build = build;
+        }
+
+        @Override
+        public Void call() {
+            BlameMemo.discard(build);
+            SpeculativeBlames.cancel(build);
+
+            return null;
+        }
+    }
+
+    /**
+     * Discards the blames of a build as soon as the build has been completed.
+     */
+    @Extension
+    public static class BuildListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            discard(run.getExternalizableId());
+        }
+    }
+}
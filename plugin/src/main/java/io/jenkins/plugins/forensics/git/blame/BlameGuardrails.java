@@ -0,0 +1,76 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Detects files that are too expensive to blame, e.g. minified or generated files that have been checked in. A file is
+ * too expensive if its size or its number of lines exceeds the configured limits, or if it has been touched by at
+ * least the configured number of commits. These files are not blamed at all: the caller attributes the requested lines
+ * to the last commit that touched the file. This class is stateless, so it can be shared by all blame workers.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameGuardrails {
+    private static final int KIB = 1024;
+
+    private final ObjectId headCommit;
+    private final BlameOptions options;
+
+    BlameGuardrails(final ObjectId headCommit, final BlameOptions options) {
+        this.headCommit = headCommit;
+        this.options = options;
+    }
+
+    /**
+     * Returns whether at least one of the limits is enabled.
+     *
+     * @return {@code true} if files are checked, {@code false} if all files are blamed
+     */
+    boolean isEnabled() {
+        return options.getMaxFileSize() > 0 || options.getMaxLines() > 0 || options.getMaxHistoryDepth() > 0;
+    }
+
+    /**
+     * Checks whether the specified file is too expensive to blame.
+     *
+     * @param reader
+     *         the reader to read the objects of the repository
+     * @param file
+     *         the file to check
+     *
+     * @return the reason why the file is too expensive, or an empty result if the file can be blamed
+     * @throws IOException
+     *         if the file or its history could not be read
+     */
+    Optional<String> check(final ObjectReader reader, final String file) throws IOException {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        var blob = FileProbe.findBlob(reader, headCommit, file);
+        if (blob.isEmpty()) {
+            return Optional.empty();
+        }
+        if (options.getMaxFileSize() > 0) {
+            long size = FileProbe.getSize(reader, blob.get());
+            if (size > (long) options.getMaxFileSize() * KIB) {
+                return Optional.of("size of %d KiB exceeds the limit of %d KiB".formatted(
+                        size / KIB, options.getMaxFileSize()));
+            }
+        }
+        if (options.getMaxLines() > 0) {
+            int lines = FileProbe.countLines(reader, blob.get());
+            if (lines > options.getMaxLines()) {
+                return Optional.of("%d lines exceed the limit of %d lines".formatted(lines, options.getMaxLines()));
+            }
+        }
+        if (options.getMaxHistoryDepth() > 0
+                && FileProbe.hasHistoryDepth(reader, headCommit, file, options.getMaxHistoryDepth())) {
+            return Optional.of("history reaches the limit of %d commits".formatted(options.getMaxHistoryDepth()));
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,271 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileBlame;
+import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
+import io.jenkins.plugins.forensics.blame.FileLocations;
+
+/**
+ * Memoizes the blames of the files within a build. A pipeline often blames the same files several times, e.g., when
+ * the warnings of several tools are recorded in parallel branches. A memoized blame is identified by the repository,
+ * the head commit, and the path of the file. If the blame of a file is requested while another blamer of the same build
+ * is still computing the blame of this file, then the request waits for the result of the other blamer instead of
+ * starting the same computation again. Subsequent requests are served from memory as long as the memoized blame
+ * contains all requested lines.
+ *
+ * <p>
+ * Since a {@link GitBlamer} might be invoked on an agent, the memoized blames are stored in the JVM that computes the
+ * blames. The blames of a build are discarded in this JVM when the build has been completed, see
+ * {@link BlameCleanup}. Additionally, the number of builds is bounded: if the limit is reached, then the blames of the
+ * least recently used build will be discarded.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class BlameMemo {
+    private static final int MAX_BUILDS = 8;
+
+    @SuppressWarnings("serial")
+    private static final Map<String, BlameMemo> BUILDS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Entry<String, BlameMemo> eldest) {
+            return size() > MAX_BUILDS;
+        }
+    };
+
+    /**
+     * Returns the memoized blames of the specified build.
+     *
+     * @param build
+     *         the ID of the build, see {@link Run#getExternalizableId()}
+     *
+     * @return the memoized blames of the build
+     */
+    static BlameMemo of(final String build) {
+        synchronized (BUILDS) {
+            return BUILDS.computeIfAbsent(build, id -> new BlameMemo());
+        }
+    }
+
+    /**
+     * Discards the memoized blames of the specified build.
+     *
+     * @param build
+     *         the ID of the build, see {@link Run#getExternalizableId()}
+     */
+    static void discard(final String build) {
+        synchronized (BUILDS) {
+            BUILDS.remove(build);
+        }
+    }
+
+    @CheckForNull
+    @VisibleForTesting
+    static BlameMemo find(final String build) {
+        synchronized (BUILDS) {
+            return BUILDS.get(build);
+        }
+    }
+
+    private final Map<Key, CompletableFuture<Optional<FileBlame>>> entries = new HashMap<>();
+
+    @VisibleForTesting
+    BlameMemo() {
+        // use factory method
+    }
+
+    /**
+     * Looks up the blames of the specified locations. Every requested file ends up in one of three groups:
+     * <ul>
+     *     <li>served: the file has already been blamed with all requested lines</li>
+     *     <li>pending: the file is currently blamed by another blamer</li>
+     *     <li>claimed: the file has not been blamed yet (or not with all requested lines), so the caller needs to
+     *     blame it and must report the result using {@link Lookup#complete(Blames)}</li>
+     * </ul>
+     *
+     * @param repository
+     *         the identifier of the repository
+     * @param headCommit
+     *         the head commit that is blamed
+     * @param locations
+     *         the locations to blame
+     *
+     * @return the result of the lookup
+     */
+    synchronized Lookup lookup(final String repository, final String headCommit, final FileLocations locations) {
+        var lookup = new Lookup();
+        for (String file : locations.getFiles()) {
+            var lines = locations.getLines(file);
+            var key = new Key(repository, headCommit, file);
+            var existing = entries.get(key);
+            if (existing != null && !existing.isDone()) {
+                lookup.futures.put(file, existing);
+                lines.forEach(line -> lookup.pending.addLine(file, line));
+            }
+            else {
+                var memoized = existing == null ? Optional.<FileBlame>empty() : existing.getNow(Optional.empty());
+                if (memoized.isPresent() && memoized.get().getLines().containsAll(lines)) {
+                    lookup.served.add(copy(file, lines, memoized.get()));
+                }
+                else {
+                    var claim = new CompletableFuture<Optional<FileBlame>>();
+                    entries.put(key, claim);
+                    lookup.claims.put(file, new Claim(claim, memoized));
+                    lines.forEach(line -> lookup.claimed.addLine(file, line));
+                }
+            }
+        }
+        return lookup;
+    }
+
+    private static FileBlame copy(final String file, final Set<Integer> lines, final FileBlame source) {
+        var copy = new FileBlameBuilder().build(file);
+        for (int line : lines) {
+            copy.setName(line, source.getName(line));
+            copy.setEmail(line, source.getEmail(line));
+            copy.setCommit(line, source.getCommit(line));
+            copy.setTime(line, source.getTime(line));
+        }
+        return copy;
+    }
+
+    /**
+     * The result of a lookup in the memoized blames.
+     */
+    static class Lookup {
+        private final Blames served = new Blames();
+        private final FileLocations claimed = new FileLocations();
+        private final FileLocations pending = new FileLocations();
+        private final Map<String, Claim> claims = new HashMap<>();
+        private final Map<String, CompletableFuture<Optional<FileBlame>>> futures = new HashMap<>();
+
+        /**
+         * Returns the blames that have already been computed by other blamers.
+         *
+         * @return the memoized blames
+         */
+        Blames getServed() {
+            return served;
+        }
+
+        /**
+         * Returns the locations that need to be blamed by the caller.
+         *
+         * @return the claimed locations
+         */
+        FileLocations getClaimed() {
+            return claimed;
+        }
+
+        /**
+         * Returns the locations that are currently blamed by other blamers.
+         *
+         * @return the pending locations
+         */
+        FileLocations getPending() {
+            return pending;
+        }
+
+        /**
+         * Memoizes the blames of the claimed files. Waiting blamers will be notified. Claimed files that have no
+         * blame in the specified results (e.g., since the computation failed) keep their previous state. This method
+         * must be called exactly once after the blames of the claimed locations have been computed, otherwise other
+         * blamers of the same build will wait forever.
+         *
+         * @param blames
+         *         the computed blames of the claimed locations
+         */
+        void complete(final Blames blames) {
+            claims.forEach((file, claim) -> claim.complete(file, blames));
+        }
+
+        /**
+         * Waits until the pending files have been blamed by the other blamers and adds their blames to the specified
+         * results. If another blamer did not provide a blame for all requested lines of a file, then the locations of
+         * this file are returned so that the caller can blame them on its own.
+         *
+         * @param results
+         *         the results to add the blames of the pending files to
+         *
+         * @return the locations that have not been blamed by other blamers
+         * @throws InterruptedException
+         *         if the current thread has been interrupted while waiting
+         */
+        FileLocations await(final Blames results) throws InterruptedException {
+            var missing = new FileLocations();
+            for (Entry<String, CompletableFuture<Optional<FileBlame>>> entry : futures.entrySet()) {
+                var file = entry.getKey();
+                var lines = pending.getLines(file);
+                var memoized = get(entry.getValue());
+                if (memoized.isPresent() && memoized.get().getLines().containsAll(lines)) {
+                    results.add(copy(file, lines, memoized.get()));
+                }
+                else {
+                    lines.forEach(line -> missing.addLine(file, line));
+                }
+            }
+            return missing;
+        }
+
+        private Optional<FileBlame> get(final CompletableFuture<Optional<FileBlame>> future)
+                throws InterruptedException {
+            try {
+                return future.get();
+            }
+            catch (ExecutionException exception) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * A file that has been claimed by a blamer. If the memoized blame of the file did not contain all requested lines,
+     * then the previous blame is merged with the new blame when the claim is completed.
+     *
+     * @param future
+     *         the future that will be completed with the blame of the file
+     * @param previous
+     *         the previously memoized blame of the file
+     */
+    private record Claim(CompletableFuture<Optional<FileBlame>> future, Optional<FileBlame> previous) {
+        void complete(final String file, final Blames blames) {
+            if (blames.contains(file)) {
+                var blame = blames.getBlame(file);
+                var merged = new FileBlameBuilder().build(file);
+                previous.ifPresent(old -> merged.merge(copy(file, old.getLines(), old)));
+                merged.merge(copy(file, blame.getLines(), blame));
+                future.complete(Optional.of(merged));
+            }
+            else {
+                future.complete(previous);
+            }
+        }
+    }
+
+    /**
+     * Identifies a memoized blame.
+     *
+     * @param repository
+     *         the identifier of the repository
+     * @param headCommit
+     *         the head commit that has been blamed
+     * @param path
+     *         the relative path of the file
+     */
+    private record Key(String repository, String headCommit, String path) {
+    }
+}
@@ -0,0 +1,299 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import io.jenkins.plugins.forensics.git.util.BlameBackend;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
+import io.jenkins.plugins.forensics.git.util.RenameDetection;
+
+/**
+ * Options that control how the {@link GitBlamer} computes the blames. The options are created on the controller and
+ * are transferred to the agent together with the blame callback.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameOptions implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 5324108409467286012L;
+
+    private boolean cacheEnabled = false;
+    private int cacheSize = GitForensicsConfiguration.DEFAULT_BLAME_CACHE_SIZE;
+    private boolean commitGraphWriteEnabled = false;
+    private boolean virtualThreadsEnabled = false;
+    private int timeBudget = 0;
+    private ObjectCacheOptions objectCache = new ObjectCacheOptions();
+    private BlameBackend backend = BlameBackend.JGIT;
+    private int cliFileSize = GitForensicsConfiguration.DEFAULT_CLI_BLAME_FILE_SIZE;
+    private int cliHistoryDepth = GitForensicsConfiguration.DEFAULT_CLI_BLAME_HISTORY_DEPTH;
+    private String gitExecutable = "git";
+    private int maxFileSize = 0;
+    private int maxLines = 0;
+    private int maxHistoryDepth = 0;
+    private int fileTimeout = 0;
+    private RenameDetection renameDetection = RenameDetection.SIMILARITY;
+    private int renameLimit = 0;
+
+    /**
+     * Creates the options from the global configuration of the plugin.
+     *
+     * @param configuration
+     *         the global configuration
+     *
+     * @return the created options
+     */
+    static BlameOptions from(final GitForensicsConfiguration configuration) {
+        return new BlameOptions()
+                .setCacheEnabled(configuration.isBlameCacheEnabled())
+                .setCacheSize(configuration.getBlameCacheSize())
+                .setCommitGraphWriteEnabled(configuration.isCommitGraphWriteEnabled())
+                .setVirtualThreadsEnabled(configuration.isVirtualThreadsEnabled())
+                .setTimeBudget(configuration.getBlameTimeBudget())
+                .setObjectCache(ObjectCacheOptions.from(configuration))
+                .setBackend(configuration.getBlameBackend())
+                .setCliFileSize(configuration.getCliBlameFileSize())
+                .setCliHistoryDepth(configuration.getCliBlameHistoryDepth())
+                .setMaxFileSize(configuration.getBlameMaxFileSize())
+                .setMaxLines(configuration.getBlameMaxLines())
+                .setMaxHistoryDepth(configuration.getBlameMaxHistoryDepth())
+                .setFileTimeout(configuration.getBlameFileTimeout())
+                .setRenameDetection(configuration.getBlameRenameDetection())
+                .setRenameLimit(configuration.getBlameRenameLimit());
+    }
+
+    BlameOptions setCacheEnabled(final boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+
+        return this;
+    }
+
+    boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    BlameOptions setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+
+        return this;
+    }
+
+    int getCacheSize() {
+        return cacheSize;
+    }
+
+    BlameOptions setCommitGraphWriteEnabled(final boolean commitGraphWriteEnabled) {
+        this.commitGraphWriteEnabled = commitGraphWriteEnabled;
+
+        return this;
+    }
+
+    boolean isCommitGraphWriteEnabled() {
+        return commitGraphWriteEnabled;
+    }
+
+    BlameOptions setVirtualThreadsEnabled(final boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+
+        return this;
+    }
+
+    boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * Sets the wall-clock time budget for blaming all files.
+     *
+     * @param timeBudget
+     *         the time budget in seconds, a value less than or equal to zero disables the budget
+     *
+     * @return this
+     */
+    BlameOptions setTimeBudget(final int timeBudget) {
+        this.timeBudget = Math.max(0, timeBudget);
+
+        return this;
+    }
+
+    int getTimeBudget() {
+        return timeBudget;
+    }
+
+    BlameOptions setObjectCache(final ObjectCacheOptions objectCache) {
+        this.objectCache = objectCache;
+
+        return this;
+    }
+
+    ObjectCacheOptions getObjectCache() {
+        return objectCache;
+    }
+
+    BlameOptions setBackend(final BlameBackend backend) {
+        this.backend = backend;
+
+        return this;
+    }
+
+    BlameBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Sets the file size that selects the command line Git if the backend is {@link BlameBackend#AUTO}.
+     *
+     * @param cliFileSize
+     *         the file size in KiB, a value less than or equal to zero disables this criterion
+     *
+     * @return this
+     */
+    BlameOptions setCliFileSize(final int cliFileSize) {
+        this.cliFileSize = Math.max(0, cliFileSize);
+
+        return this;
+    }
+
+    int getCliFileSize() {
+        return cliFileSize;
+    }
+
+    /**
+     * Sets the number of commits that selects the command line Git if the backend is {@link BlameBackend#AUTO}.
+     *
+     * @param cliHistoryDepth
+     *         the number of commits, a value less than or equal to zero disables this criterion
+     *
+     * @return this
+     */
+    BlameOptions setCliHistoryDepth(final int cliHistoryDepth) {
+        this.cliHistoryDepth = Math.max(0, cliHistoryDepth);
+
+        return this;
+    }
+
+    int getCliHistoryDepth() {
+        return cliHistoryDepth;
+    }
+
+    /**
+     * Sets the Git executable on the agent that is used by the command line backend.
+     *
+     * @param gitExecutable
+     *         the Git executable, e.g. 'git' or the name of the JGit tool
+     *
+     * @return this
+     */
+    BlameOptions setGitExecutable(final String gitExecutable) {
+        this.gitExecutable = gitExecutable;
+
+        return this;
+    }
+
+    String getGitExecutable() {
+        return gitExecutable;
+    }
+
+    /**
+     * Sets the file size that is too expensive to blame: larger files are attributed to their last commit.
+     *
+     * @param maxFileSize
+     *         the file size in KiB, a value less than or equal to zero disables this limit
+     *
+     * @return this
+     */
+    BlameOptions setMaxFileSize(final int maxFileSize) {
+        this.maxFileSize = Math.max(0, maxFileSize);
+
+        return this;
+    }
+
+    int getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * Sets the number of lines that is too expensive to blame: files with more lines are attributed to their last
+     * commit.
+     *
+     * @param maxLines
+     *         the number of lines, a value less than or equal to zero disables this limit
+     *
+     * @return this
+     */
+    BlameOptions setMaxLines(final int maxLines) {
+        this.maxLines = Math.max(0, maxLines);
+
+        return this;
+    }
+
+    int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Sets the number of commits that is too expensive to blame: files that have been touched by at least this number
+     * of commits are attributed to their last commit.
+     *
+     * @param maxHistoryDepth
+     *         the number of commits, a value less than or equal to zero disables this limit
+     *
+     * @return this
+     */
+    BlameOptions setMaxHistoryDepth(final int maxHistoryDepth) {
+        this.maxHistoryDepth = Math.max(0, maxHistoryDepth);
+
+        return this;
+    }
+
+    int getMaxHistoryDepth() {
+        return maxHistoryDepth;
+    }
+
+    /**
+     * Sets the time limit for blaming a single file with JGit. If the limit is exceeded, then the blame of the file is
+     * aborted and the file is marked as skipped.
+     *
+     * @param fileTimeout
+     *         the time limit in seconds, a value less than or equal to zero disables this limit
+     *
+     * @return this
+     */
+    BlameOptions setFileTimeout(final int fileTimeout) {
+        this.fileTimeout = Math.max(0, fileTimeout);
+
+        return this;
+    }
+
+    int getFileTimeout() {
+        return fileTimeout;
+    }
+
+    BlameOptions setRenameDetection(final RenameDetection renameDetection) {
+        this.renameDetection = renameDetection;
+
+        return this;
+    }
+
+    RenameDetection getRenameDetection() {
+        return renameDetection;
+    }
+
+    /**
+     * Sets the maximum number of added and deleted files that are compared to find renames with similar content.
+     *
+     * @param renameLimit
+     *         the rename limit, a value less than or equal to zero uses the setting of the repository
+     *
+     * @return this
+     */
+    BlameOptions setRenameLimit(final int renameLimit) {
+        this.renameLimit = Math.max(0, renameLimit);
+
+        return this;
+    }
+
+    int getRenameLimit() {
+        return renameLimit;
+    }
+}
@@ -0,0 +1,73 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+
+/**
+ * A {@link BlameSink} on the controller that merges the received batches incrementally into the blames of the build.
+ * The progress is reported in the log whenever another 10 percent of the requested files have been received.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameReceiver implements BlameSink {
+    private static final int PROGRESS_STEPS = 10;
+
+    private final Blames blames;
+    private final int total;
+    private final FilteredLog log;
+
+    private int files;
+    private int batches;
+    private int reported;
+
+    /**
+     * Creates a new receiver.
+     *
+     * @param blames
+     *         the blames to merge the received batches into
+     * @param total
+     *         the number of requested files
+     * @param log
+     *         the logger
+     */
+    BlameReceiver(final Blames blames, final int total, final FilteredLog log) {
+        this.blames = blames;
+        this.total = total;
+        this.log = log;
+    }
+
+    @Override
+    public synchronized void accept(final CompactBlames batch) {
+        if (batch.size() == 0) {
+            return;
+        }
+        batch.expandTo(blames);
+        files += batch.size();
+        batches++;
+
+        int step = total == 0 ? PROGRESS_STEPS : Math.min(PROGRESS_STEPS, files * PROGRESS_STEPS / total);
+        if (step > reported) {
+            reported = step;
+            log.logInfo("-> received blames of %d of %d files (%d%%)", files, total, step * 100 / PROGRESS_STEPS);
+        }
+    }
+
+    /**
+     * Returns the number of files that have been received so far.
+     *
+     * @return the number of files
+     */
+    synchronized int getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns the number of batches that have been received so far.
+     *
+     * @return the number of batches
+     */
+    synchronized int getBatches() {
+        return batches;
+    }
+}
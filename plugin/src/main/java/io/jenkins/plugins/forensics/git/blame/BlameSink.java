@@ -0,0 +1,19 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+/**
+ * Receives the blames of the files that have been blamed on the agent. The sink is created on the controller and is
+ * exported to the remoting channel of the agent, so each batch is transferred as soon as the agent has finished the
+ * corresponding files. The blames of a build therefore do not need to be held in memory on the agent until all files
+ * have been blamed. Remote proxies can be created for public interfaces only, so this interface is public.
+ *
+ * @author Ullrich Hafner
+ */
+public interface BlameSink {
+    /**
+     * Receives the blames of a batch of files. This method may be called concurrently by several blame workers.
+     *
+     * @param batch
+     *         the blames of the batch
+     */
+    void accept(CompactBlames batch);
+}
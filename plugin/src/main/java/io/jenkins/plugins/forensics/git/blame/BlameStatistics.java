@@ -0,0 +1,215 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Statistics of the blame computation for the individual files. For each blamed file the duration, the number of
+ * distinct commits that have been attributed to the requested lines, and the number of requested lines are
+ * recorded. Since a build might blame thousands of files, only a latency histogram and the slowest files are stored.
+ * Instances of this class are thread safe, so all workers can record their files concurrently.
+ *
+ * @author Ullrich Hafner
+ */
+@ExportedBean
+public class BlameStatistics implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 5023315718066914412L;
+
+    static final int SLOWEST_FILES_COUNT = 10;
+    private static final long[] UPPER_BOUNDS = {10, 100, 1_000, 10_000};
+    private static final String[] LABELS = {"< 10 ms", "< 100 ms", "< 1 s", "< 10 s", ">= 10 s"};
+
+    private final int[] histogram = new int[LABELS.length];
+    private final List<FileStatistics> slowestFiles = new ArrayList<>();
+    private int fileCount;
+    private long totalDuration;
+
+    /**
+     * Records the statistics of a blamed file.
+     *
+     * @param fileName
+     *         the file name
+     * @param duration
+     *         the duration of the blame in milliseconds
+     * @param attributedCommits
+     *         the number of commits that have been attributed to the requested lines
+     * @param lines
+     *         the number of requested lines
+     */
+    void record(final String fileName, final long duration, final int attributedCommits, final int lines) {
+        add(new FileStatistics(fileName, duration, attributedCommits, lines));
+    }
+
+    /**
+     * Adds all statistics of the specified other instance to this instance.
+     *
+     * @param other
+     *         the statistics to add
+     */
+    void merge(final BlameStatistics other) {
+        int[] otherHistogram;
+        List<FileStatistics> otherFiles;
+        int otherFileCount;
+        long otherDuration;
+        synchronized (other) {
+            otherHistogram = other.histogram.clone();
+            otherFiles = new ArrayList<>(other.slowestFiles);
+            otherFileCount = other.fileCount;
+            otherDuration = other.totalDuration;
+        }
+
+        synchronized (this) {
+            for (int bucket = 0; bucket < histogram.length; bucket++) {
+                histogram[bucket] += otherHistogram[bucket];
+            }
+            fileCount += otherFileCount;
+            totalDuration += otherDuration;
+            otherFiles.forEach(this::addSlowFile);
+        }
+    }
+
+    private synchronized void add(final FileStatistics statistics) {
+        histogram[getBucket(statistics.getDuration())]++;
+        fileCount++;
+        totalDuration += statistics.getDuration();
+        addSlowFile(statistics);
+    }
+
+    private void addSlowFile(final FileStatistics statistics) {
+        slowestFiles.add(statistics);
+        slowestFiles.sort(Comparator.comparingLong(FileStatistics::getDuration).reversed());
+        if (slowestFiles.size() > SLOWEST_FILES_COUNT) {
+            slowestFiles.remove(SLOWEST_FILES_COUNT);
+        }
+    }
+
+    private int getBucket(final long duration) {
+        for (int bucket = 0; bucket < UPPER_BOUNDS.length; bucket++) {
+            if (duration < UPPER_BOUNDS[bucket]) {
+                return bucket;
+            }
+        }
+        return UPPER_BOUNDS.length;
+    }
+
+    /**
+     * Returns the number of blamed files.
+     *
+     * @return the number of files
+     */
+    @Exported
+    public synchronized int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Returns the sum of the durations of all blamed files in milliseconds. Since the files are blamed concurrently,
+     * the total duration is typically larger than the elapsed time.
+     *
+     * @return the total duration
+     */
+    @Exported
+    public synchronized long getTotalDuration() {
+        return totalDuration;
+    }
+
+    /**
+     * Returns the latency histogram: maps the label of each duration range to the number of files.
+     *
+     * @return the histogram
+     */
+    @Exported
+    public synchronized Map<String, Integer> getHistogram() {
+        Map<String, Integer> buckets = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < LABELS.length; bucket++) {
+            buckets.put(LABELS[bucket], histogram[bucket]);
+        }
+        return buckets;
+    }
+
+    /**
+     * Returns the slowest files, sorted by duration (slowest first).
+     *
+     * @return the slowest files
+     */
+    @Exported
+    public synchronized List<FileStatistics> getSlowestFiles() {
+        return List.copyOf(slowestFiles);
+    }
+
+    /**
+     * Returns whether no files have been recorded.
+     *
+     * @return {@code true} if no files have been recorded, {@code false} otherwise
+     */
+    public synchronized boolean isEmpty() {
+        return fileCount == 0;
+    }
+
+    /**
+     * The statistics of a single blamed file.
+     */
+    @ExportedBean(defaultVisibility = 2)
+    public static class FileStatistics implements Serializable {
+        @Serial
+        private static final long serialVersionUID = -4166021698557151720L;
+
+        private final String fileName;
+        private final long duration;
+        private final int attributedCommits;
+        private final int lines;
+
+        FileStatistics(final String fileName, final long duration, final int attributedCommits, final int lines) {
+            this.fileName = fileName;
+            this.duration = duration;
+            this.attributedCommits = attributedCommits;
+            this.lines = lines;
+        }
+
+        @Exported
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Returns the duration of the blame in milliseconds.
+         *
+         * @return the duration
+         */
+        @Exported
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the number of distinct commits that have been attributed to the requested lines. This is not the
+         * number of commits that have been walked by the blame: commits that did not change any of the requested lines
+         * are not counted.
+         *
+         * @return the number of attributed commits
+         */
+        @Exported
+        public int getAttributedCommits() {
+            return attributedCommits;
+        }
+
+        @Exported
+        public int getLines() {
+            return lines;
+        }
+
+        @Override
+        public String toString() {
+            return "%s: %d ms, %d commits, %d lines".formatted(fileName, duration, attributedCommits, lines);
+        }
+    }
+}
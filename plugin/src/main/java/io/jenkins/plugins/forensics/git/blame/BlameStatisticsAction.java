@@ -0,0 +1,95 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+import hudson.model.Api;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Stores the {@link BlameStatistics} of a build: the latency histogram of the blamed files and the slowest files.
+ * The statistics are shown in the summary of the build and are available using the REST API of the build or the URL
+ * {@code blame-statistics/api/}. If the blames of several reports are computed in a build, then the statistics of
+ * all reports are summed up.
+ *
+ * @author Ullrich Hafner
+ */
+@ExportedBean
+@SuppressFBWarnings(value = "SE", justification = "transient field owner is restored using a Jenkins callback")
+public class BlameStatisticsAction implements RunAction2, Serializable {
+    @Serial
+    private static final long serialVersionUID = -2400263227916212617L;
+
+    static final String URL_NAME = "blame-statistics";
+
+    private transient Run<?, ?> owner;
+
+    private final BlameStatistics statistics = new BlameStatistics();
+
+    /**
+     * Adds the statistics of the specified blame computation to the statistics of the specified build.
+     *
+     * @param build
+     *         the build to attach the action to
+     * @param blameStatistics
+     *         the statistics to add
+     */
+    static void attach(final Run<?, ?> build, final BlameStatistics blameStatistics) {
+        synchronized (build) {
+            var action = build.getAction(BlameStatisticsAction.class);
+            if (action == null) {
+                action = new BlameStatisticsAction();
+                build.addAction(action);
+            }
+            action.statistics.merge(blameStatistics);
+        }
+    }
+
+    public Run<?, ?> getOwner() {
+        return owner;
+    }
+
+    @Exported(inline = true)
+    public BlameStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the remote API for the blame statistics.
+     *
+     * @return the remote API
+     */
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> run) {
+        this.owner = run;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> run) {
+        onAttached(run);
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.Action_DisplayName();
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+}
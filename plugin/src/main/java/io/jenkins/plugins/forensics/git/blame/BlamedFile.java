@@ -0,0 +1,40 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.Map;
+
+/**
+ * The blamed lines of a file. In contrast to a JGit {@link org.eclipse.jgit.blame.BlameResult}, only the attribution
+ * of the requested lines is stored: neither the contents of the file nor the attribution of the other lines are
+ * retained. So the memory required to store the blame of a file does not depend on the size of the file.
+ *
+ * @param lines
+ *         the blamed lines, mapped by the line number
+ * @param attributedCommits
+ *         the number of distinct commits that have been attributed to the blamed lines
+ *
+ * @author Ullrich Hafner
+ */
+record BlamedFile(Map<Integer, BlamedLine> lines, int attributedCommits) {
+    @CheckForNull
+    BlamedLine get(final int line) {
+        return lines.get(line);
+    }
+
+    /**
+     * The blame of a single line: author name, email, commit ID, and commit time. If the author or the commit is
+     * unknown, then the corresponding values are {@code null}.
+     *
+     * @param name
+     *         the author name
+     * @param email
+     *         the author email
+     * @param commit
+     *         the commit ID
+     * @param time
+     *         the commit time
+     */
+    record BlamedLine(@CheckForNull String name, @CheckForNull String email, @CheckForNull String commit, int time) {
+    }
+}
@@ -0,0 +1,299 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import io.jenkins.plugins.forensics.git.blame.BlamedFile.BlamedLine;
+import io.jenkins.plugins.forensics.git.util.BlameBackend;
+
+/**
+ * Computes the blames of a file using {@code git blame --porcelain} of the command line Git. The porcelain output is
+ * streamed and parsed line by line, only the requested lines are passed as {@code -L} ranges. This blamer is shared by
+ * all blame workers: all per-file state is local to the invocation. If the Git executable cannot be started, then the
+ * command line Git is disabled for all remaining files.
+ *
+ * @author Ullrich Hafner
+ */
+class CommandLineBlamer {
+    private static final Pattern HEADER = Pattern.compile("^([0-9a-f]{40}|[0-9a-f]{64}) \\d+ (\\d+)( \\d+)?$");
+    private static final int MAX_RANGES = 500;
+    private static final int KIB = 1024;
+
+    private final Repository repository;
+    private final ObjectId headCommit;
+    private final BlameOptions options;
+    private final AtomicInteger blamedFiles = new AtomicInteger();
+    private volatile boolean available;
+
+    CommandLineBlamer(final Repository repository, final ObjectId headCommit, final BlameOptions options) {
+        this.repository = repository;
+        this.headCommit = headCommit;
+        this.options = options;
+
+        available = options.getBackend() != BlameBackend.JGIT
+                && !StringUtils.startsWithIgnoreCase(options.getGitExecutable(), "jgit");
+    }
+
+    /**
+     * Returns the number of files that have been blamed successfully with the command line Git.
+     *
+     * @return the number of files
+     */
+    int getBlamedFiles() {
+        return blamedFiles.get();
+    }
+
+    /**
+     * Determines whether the specified file should be blamed with the command line Git.
+     *
+     * @param reader
+     *         the reader to read the objects of the repository
+     * @param file
+     *         the file to blame
+     *
+     * @return {@code true} if the command line Git should be used, {@code false} if JGit should be used
+     */
+    boolean isSelected(final ObjectReader reader, final String file) {
+        if (!available) {
+            return false;
+        }
+        if (options.getBackend() == BlameBackend.CLI) {
+            return true;
+        }
+        try {
+            return isLarge(reader, file) || hasLongHistory(reader, file);
+        }
+        catch (IOException exception) {
+            return false;
+        }
+    }
+
+    private boolean isLarge(final ObjectReader reader, final String file) throws IOException {
+        if (options.getCliFileSize() <= 0) {
+            return false;
+        }
+        var blob = FileProbe.findBlob(reader, headCommit, file);
+        return blob.isPresent() && FileProbe.getSize(reader, blob.get()) >= (long) options.getCliFileSize() * KIB;
+    }
+
+    private boolean hasLongHistory(final ObjectReader reader, final String file) throws IOException {
+        int threshold = options.getCliHistoryDepth();
+        return threshold > 0 && FileProbe.hasHistoryDepth(reader, headCommit, file, threshold);
+    }
+
+    /**
+     * Runs {@code git blame --porcelain} for the requested lines of the specified file.
+     *
+     * @param reader
+     *         the reader to read the objects of the repository
+     * @param file
+     *         the file to blame
+     * @param lines
+     *         the requested lines
+     * @param log
+     *         the logger
+     *
+     * @return the blamed lines, or an empty result if the command line Git failed
+     */
+    Optional<BlamedFile> run(final ObjectReader reader, final String file, final Set<Integer> lines,
+            final FilteredLog log) {
+        try {
+            var blob = FileProbe.findBlob(reader, headCommit, file);
+            if (blob.isEmpty()) {
+                return Optional.empty();
+            }
+            var ranges = createRanges(lines, FileProbe.countLines(reader, blob.get()));
+            if (ranges.isEmpty()) {
+                return Optional.of(new BlamedFile(Map.of(), 0));
+            }
+            var result = execute(file, ranges, log);
+            if (result.isPresent()) {
+                blamedFiles.incrementAndGet();
+            }
+            return result;
+        }
+        catch (IOException exception) {
+            log.logException(exception, "- can't run command line git blame on '%s', using JGit", file);
+            return Optional.empty();
+        }
+        catch (InterruptedException exception) { // Cancel request by user
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private Optional<BlamedFile> execute(final String file, final List<String> ranges, final FilteredLog log)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(options.getGitExecutable());
+        command.add("blame");
+        command.add("--porcelain");
+        for (String range : ranges) {
+            command.add("-L");
+            command.add(range);
+        }
+        command.add(headCommit.getName());
+        command.add("--");
+        command.add(file);
+
+        var errors = Files.createTempFile("git-blame", ".log");
+        try {
+            Process process;
+            try {
+                process = new ProcessBuilder(command)
+                        .directory(repository.getWorkTree())
+                        .redirectError(errors.toFile())
+                        .start();
+            }
+            catch (IOException exception) {
+                available = false;
+                log.logException(exception, "- can't start '%s', using JGit for all files",
+                        options.getGitExecutable());
+                return Optional.empty();
+            }
+            try (var output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                var blamedFile = parse(output);
+                if (process.waitFor() == 0) {
+                    return Optional.of(blamedFile);
+                }
+                log.logError("- command line git blame failed for '%s', using JGit: %s", file,
+                        Files.readString(errors, StandardCharsets.UTF_8).trim());
+                return Optional.empty();
+            }
+            finally {
+                process.destroy();
+            }
+        }
+        finally {
+            Files.deleteIfExists(errors);
+        }
+    }
+
+    /**
+     * Parses the porcelain output of {@code git blame}. Each group of lines starts with a header line that contains
+     * the commit ID, the original line number, and the final line number. The first group of each commit contains the
+     * author and committer details of the commit. Each group ends with the content of the line, prefixed by a tab.
+     *
+     * @param output
+     *         the porcelain output
+     *
+     * @return the blamed lines
+     * @throws IOException
+     *         if the output could not be read
+     */
+    @VisibleForTesting
+    static BlamedFile parse(final BufferedReader output) throws IOException {
+        Map<String, CommitDetails> commits = new HashMap<>();
+        Map<Integer, CommitDetails> linesToCommit = new HashMap<>();
+
+        CommitDetails current = null;
+        for (var line = output.readLine(); line != null; line = output.readLine()) {
+            var header = HEADER.matcher(line);
+            if (header.matches()) {
+                current = commits.computeIfAbsent(header.group(1), CommitDetails::new);
+                linesToCommit.put(Integer.parseInt(header.group(2)), current);
+            }
+            else if (current != null && !line.startsWith("\t")) {
+                current.parse(line);
+            }
+        }
+
+        Map<Integer, BlamedLine> blamedLines = new HashMap<>();
+        linesToCommit.forEach((line, commit) -> blamedLines.put(line, commit.toLine()));
+        return new BlamedFile(blamedLines, commits.size());
+    }
+
+    /**
+     * Creates the {@code -L} ranges for all requested lines that are part of the file. Adjacent lines are joined to a
+     * single range. If there are too many ranges, then the whole file is blamed.
+     *
+     * @param lines
+     *         the requested lines
+     * @param lineCount
+     *         the number of lines of the file
+     *
+     * @return the ranges, empty if no requested line is part of the file
+     */
+    @VisibleForTesting
+    static List<String> createRanges(final Set<Integer> lines, final int lineCount) {
+        int[] sorted = lines.stream()
+                .mapToInt(Integer::intValue)
+                .filter(line -> line > 0 && line <= lineCount)
+                .sorted()
+                .toArray();
+
+        List<String> ranges = new ArrayList<>();
+        int index = 0;
+        while (index < sorted.length) {
+            int start = sorted[index];
+            int end = start;
+            for (index++; index < sorted.length && sorted[index] <= end + 1; index++) {
+                end = sorted[index];
+            }
+            ranges.add(start + "," + end);
+        }
+        if (ranges.size() > MAX_RANGES) {
+            return List.of("1," + lineCount);
+        }
+        return ranges;
+    }
+
+    /**
+     * The details of a commit in the porcelain output.
+     */
+    private static class CommitDetails {
+        private final String commit;
+        private String author = StringUtils.EMPTY;
+        private String authorMail = StringUtils.EMPTY;
+        private String committer = StringUtils.EMPTY;
+        private String committerMail = StringUtils.EMPTY;
+        private int time;
+
+        CommitDetails(final String commit) {
+            this.commit = commit;
+        }
+
+        void parse(final String line) {
+            var key = StringUtils.substringBefore(line, " ");
+            var value = StringUtils.substringAfter(line, " ");
+            switch (key) {
+                case "author" -> author = value;
+                case "author-mail" -> authorMail = StringUtils.removeEnd(StringUtils.removeStart(value, "<"), ">");
+                case "committer" -> committer = value;
+                case "committer-mail" -> committerMail
+                        = StringUtils.removeEnd(StringUtils.removeStart(value, "<"), ">");
+                case "committer-time" -> time = Integer.parseInt(value);
+                default -> {
+                    // ignore all other details
+                }
+            }
+        }
+
+        BlamedLine toLine() {
+            if (StringUtils.isEmpty(author)) {
+                return new BlamedLine(committer, committerMail, commit, time);
+            }
+            return new BlamedLine(author, authorMail, commit, time);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileBlame;
+import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
+
+/**
+ * A compact representation of {@link Blames} that is used to transfer blame results over the remoting channel. In
+ * {@link Blames} every line of a {@link FileBlame} stores its own copies of the author name, email, and commit ID.
+ * Since most lines of a large analysis share a small number of authors and commits, this class stores each distinct
+ * string only once in a dictionary and references the entries of the dictionary by index. The line numbers, times,
+ * and dictionary indexes of all files are stored in primitive arrays. Values that are not set are stored with the index
+ * {@value #NOT_SET}, so every string (including the placeholder {@code -} of {@link FileBlame}) is transferred
+ * unchanged.
+ *
+ * <p>
+ * Note that the encoding reduces the size of the transferred data only: since the contract of
+ * {@link io.jenkins.plugins.forensics.blame.Blamer} returns {@link Blames}, the receiving side restores the blames of
+ * all files. These are added directly to the target blames using {@link #expandTo(Blames)}, so no intermediate copy of
+ * all files is created.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class CompactBlames implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -3452836384126950213L;
+
+    private static final int NOT_SET = -1;
+
+    private final String[] files;
+    private final int[] fileOffsets;
+    private final String[] dictionary;
+    private final int[] lines;
+    private final int[] names;
+    private final int[] emails;
+    private final int[] commits;
+    private final int[] times;
+    private final String[] skippedFiles;
+    private final BlameStatistics statistics;
+
+    /**
+     * Creates a compact representation of the specified blames.
+     *
+     * @param blames
+     *         the blames to compact
+     *
+     * @return the compact blames
+     */
+    static CompactBlames of(final Blames blames) {
+        return of(blames, List.of());
+    }
+
+    /**
+     * Creates a compact representation of the specified partial blames.
+     *
+     * @param blames
+     *         the blames to compact
+     * @param skippedFiles
+     *         the files that have not been blamed
+     *
+     * @return the compact blames
+     */
+    static CompactBlames of(final Blames blames, final Collection<String> skippedFiles) {
+        return of(blames, skippedFiles, new BlameStatistics());
+    }
+
+    /**
+     * Creates a compact representation of the specified partial blames.
+     *
+     * @param blames
+     *         the blames to compact
+     * @param skippedFiles
+     *         the files that have not been blamed
+     * @param statistics
+     *         the statistics of the blame computation
+     *
+     * @return the compact blames
+     */
+    static CompactBlames of(final Blames blames, final Collection<String> skippedFiles,
+            final BlameStatistics statistics) {
+        var fileNames = new ArrayList<>(blames.getFiles());
+        int lineCount = fileNames.stream().mapToInt(file -> blames.getBlame(file).getLines().size()).sum();
+
+        var encoder = new Encoder(fileNames.size(), lineCount);
+        for (String file : fileNames) {
+            encoder.add(blames.getBlame(file));
+        }
+        return encoder.build(skippedFiles, statistics);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private CompactBlames(final String[] files, final int[] fileOffsets, final String[] dictionary,
+            final int[] lines, final int[] names, final int[] emails, final int[] commits, final int[] times,
+            final String[] skippedFiles, final BlameStatistics statistics) {
+        this.files = files;
+        this.fileOffsets = fileOffsets;
+        this.dictionary = dictionary;
+        this.lines = lines;
+        this.names = names;
+        this.emails = emails;
+        this.commits = commits;
+        this.times = times;
+        this.skippedFiles = skippedFiles;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the number of files.
+     *
+     * @return the number of files
+     */
+    int size() {
+        return files.length;
+    }
+
+    /**
+     * Returns the number of distinct names, emails, and commit IDs.
+     *
+     * @return the size of the dictionary
+     */
+    int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * Returns the number of blamed lines in all files.
+     *
+     * @return the number of lines
+     */
+    int getLineCount() {
+        return lines.length;
+    }
+
+    /**
+     * Returns whether some files have not been blamed, e.g., since the time budget has been exhausted.
+     *
+     * @return {@code true} if the blames are incomplete, {@code false} otherwise
+     */
+    boolean isPartial() {
+        return skippedFiles.length > 0;
+    }
+
+    /**
+     * Returns the files that have not been blamed.
+     *
+     * @return the skipped files
+     */
+    List<String> getSkippedFiles() {
+        return List.of(skippedFiles);
+    }
+
+    /**
+     * Returns the statistics of the blame computation.
+     *
+     * @return the statistics
+     */
+    BlameStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Restores the {@link Blames} from this compact representation.
+     *
+     * @return the blames
+     */
+    Blames expand() {
+        var blames = new Blames();
+        expandTo(blames);
+        return blames;
+    }
+
+    /**
+     * Restores the blames of all files from this compact representation and adds them to the specified blames.
+     *
+     * @param blames
+     *         the blames to add the restored files to
+     */
+    void expandTo(final Blames blames) {
+        var builder = new FileBlameBuilder();
+        for (int file = 0; file < files.length; file++) {
+            var fileBlame = builder.build(files[file]);
+            for (int index = fileOffsets[file]; index < fileOffsets[file + 1]; index++) {
+                int line = lines[index];
+                if (names[index] != NOT_SET) {
+                    fileBlame.setName(line, dictionary[names[index]]);
+                }
+                if (emails[index] != NOT_SET) {
+                    fileBlame.setEmail(line, dictionary[emails[index]]);
+                }
+                if (commits[index] != NOT_SET) {
+                    fileBlame.setCommit(line, dictionary[commits[index]]);
+                    fileBlame.setTime(line, times[index]);
+                }
+            }
+            blames.add(fileBlame);
+        }
+    }
+
+    /**
+     * Encodes the blames of several files into the primitive arrays of a {@link CompactBlames} instance.
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final String[] files;
+        private final int[] fileOffsets;
+        private final int[] lines;
+        private final int[] names;
+        private final int[] emails;
+        private final int[] commits;
+        private final int[] times;
+        private int fileCount;
+        private int lineCount;
+
+        Encoder(final int fileSize, final int lineSize) {
+            files = new String[fileSize];
+            fileOffsets = new int[fileSize + 1];
+            lines = new int[lineSize];
+            names = new int[lineSize];
+            emails = new int[lineSize];
+            commits = new int[lineSize];
+            times = new int[lineSize];
+        }
+
+        void add(final FileBlame fileBlame) {
+            files[fileCount] = fileBlame.getFileName();
+            fileOffsets[fileCount] = lineCount;
+            for (int line : fileBlame.getLines()) {
+                lines[lineCount] = line;
+                names[lineCount] = indexOf(fileBlame.getName(line));
+                emails[lineCount] = indexOf(fileBlame.getEmail(line));
+                commits[lineCount] = indexOf(fileBlame.getCommit(line));
+                times[lineCount] = fileBlame.getTime(line);
+                lineCount++;
+            }
+            fileCount++;
+            fileOffsets[fileCount] = lineCount;
+        }
+
+        private int indexOf(@CheckForNull final String value) {
+            if (value == null) {
+                return NOT_SET;
+            }
+            return indexes.computeIfAbsent(value, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+
+        CompactBlames build(final Collection<String> skippedFiles, final BlameStatistics statistics) {
+            return new CompactBlames(files, fileOffsets, dictionary.toArray(new String[0]),
+                    lines, names, emails, commits, times, skippedFiles.toArray(new String[0]), statistics);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Determines the cost drivers of blaming a file without blaming it: the size of the file, the number of lines, and the
+ * number of commits that touched the file. These values are used to select the blame backend and to skip files that
+ * are too expensive to blame.
+ *
+ * @author Ullrich Hafner
+ */
+final class FileProbe {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private FileProbe() {
+        // prevents instantiation
+    }
+
+    /**
+     * Finds the blob of the specified file in the specified commit.
+     *
+     * @param reader
+     *         the reader to read the objects of the repository
+     * @param commit
+     *         the commit that contains the file
+     * @param file
+     *         the file
+     *
+     * @return the blob of the file, or an empty result if the file is not part of the commit
+     * @throws IOException
+     *         if the commit or tree could not be read
+     */
+    static Optional<ObjectId> findBlob(final ObjectReader reader, final ObjectId commit, final String file)
+            throws IOException {
+        try (var walk = new RevWalk(reader)) {
+            var tree = walk.parseCommit(commit).getTree();
+            try (var treeWalk = TreeWalk.forPath(reader, file, tree)) {
+                if (treeWalk == null) {
+                    return Optional.empty();
+                }
+                return Optional.of(treeWalk.getObjectId(0));
+            }
+        }
+    }
+
+    /**
+     * Returns the size of the specified blob.
+     *
+     * @param reader
+     *         the reader to read the objects of the repository
+     * @param blob
+     *         the blob
+     *
+     * @return the size in bytes
+     * @throws IOException
+     *         if the blob could not be read
+     */
+    static long getSize(final ObjectReader reader, final ObjectId blob) throws IOException {
+        return reader.getObjectSize(blob, Constants.OBJ_BLOB);
+    }
+
+    /**
+     * Counts the lines of the specified blob. The blob is streamed, so large files are not loaded into memory.
+     *
+     * @param reader
+     *         the reader to read the objects of the repository
+     * @param blob
+     *         the blob
+     *
+     * @return the number of lines
+     * @throws IOException
+     *         if the blob could not be read
+     */
+    static int countLines(final ObjectReader reader, final ObjectId blob) throws IOException {
+        int lines = 0;
+        int last = '\n';
+        try (var stream = reader.open(blob, Constants.OBJ_BLOB).openStream()) {
+            var buffer = new byte[BUFFER_SIZE];
+            for (int read = stream.read(buffer); read > 0; read = stream.read(buffer)) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                last = buffer[read - 1];
+            }
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+
+    /**
+     * Determines whether the specified file has been touched by at least the specified number of commits. The history
+     * is walked only until the threshold has been reached.
+     *
+     * @param reader
+     *         the reader to read the objects of the repository
+     * @param head
+     *         the commit to start the walk
+     * @param file
+     *         the file
+     * @param threshold
+     *         the number of commits
+     *
+     * @return {@code true} if the file has been touched by at least {@code threshold} commits
+     * @throws IOException
+     *         if the history could not be read
+     */
+    static boolean hasHistoryDepth(final ObjectReader reader, final ObjectId head, final String file,
+            final int threshold) throws IOException {
+        try (var walk = new RevWalk(reader)) {
+            walk.setTreeFilter(AndTreeFilter.create(PathFilter.create(file), TreeFilter.ANY_DIFF));
+            walk.markStart(walk.parseCommit(head));
+            int commits = 0;
+            while (walk.next() != null) {
+                commits++;
+                if (commits >= threshold) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
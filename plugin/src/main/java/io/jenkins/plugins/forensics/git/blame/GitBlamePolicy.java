@@ -0,0 +1,104 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Optional;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.Symbol;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import jenkins.model.OptionalJobProperty;
+
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
+import io.jenkins.plugins.forensics.git.util.RenameDetection;
+
+/**
+ * Defines the blame policy of a job: how the JGit blame follows the files through renames. Rename detection runs on
+ * every step of the history of a blamed file, so in repositories with frequent large moves it dominates the time to
+ * blame the files. Jobs without this property use the defaults of the {@link GitForensicsConfiguration}.
+ *
+ * @author Ullrich Hafner
+ */
+public class GitBlamePolicy extends OptionalJobProperty<Job<?, ?>> {
+    private RenameDetection renameDetection = RenameDetection.SIMILARITY;
+    private int renameLimit = 0;
+
+    /**
+     * Creates a new instance of {@link GitBlamePolicy}.
+     */
+    @DataBoundConstructor
+    public GitBlamePolicy() {
+        super();
+
+        // empty constructor required for Stapler
+    }
+
+    /**
+     * Finds the blame policy of the job of the specified build.
+     *
+     * @param build
+     *         the build to get the policy for
+     *
+     * @return the policy of the job, or an empty result if the job has no policy
+     */
+    static Optional<GitBlamePolicy> findFor(final Run<?, ?> build) {
+        return Optional.ofNullable(build.getParent().getProperty(GitBlamePolicy.class));
+    }
+
+    /**
+     * Selects how the JGit blame follows the files through renames.
+     *
+     * @param renameDetection
+     *         the rename detection
+     */
+    @DataBoundSetter
+    public void setRenameDetection(final RenameDetection renameDetection) {
+        this.renameDetection = renameDetection == null ? RenameDetection.SIMILARITY : renameDetection;
+    }
+
+    public RenameDetection getRenameDetection() {
+        return renameDetection;
+    }
+
+    /**
+     * Sets the maximum number of added and deleted files that are compared with each other to find renames with similar
+     * content.
+     *
+     * @param renameLimit
+     *         the rename limit, 0 uses the setting {@code diff.renameLimit} of the repository
+     */
+    @DataBoundSetter
+    public void setRenameLimit(final int renameLimit) {
+        this.renameLimit = Math.max(0, renameLimit);
+    }
+
+    public int getRenameLimit() {
+        return renameLimit;
+    }
+
+    /**
+     * Overrides the rename settings of the specified options with the settings of this policy.
+     *
+     * @param options
+     *         the options to change
+     */
+    void applyTo(final BlameOptions options) {
+        options.setRenameDetection(renameDetection).setRenameLimit(renameLimit);
+    }
+
+    /**
+     * Descriptor for this job property.
+     */
+    @Extension
+    @Symbol("gitBlamePolicy")
+    public static class DescriptorImpl extends OptionalJobPropertyDescriptor {
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.Policy_DisplayName();
+        }
+    }
+}
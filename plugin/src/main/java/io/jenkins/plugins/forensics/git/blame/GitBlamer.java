@@ -1,13 +1,28 @@
 package io.jenkins.plugins.forensics.git.blame;
 
-import org.eclipse.jgit.api.BlameCommand;
-import org.eclipse.jgit.api.Git;
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.JGitInternalException;
-import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.blame.BlameGenerator;
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.HashedSequence;
+import org.eclipse.jgit.diff.HashedSequenceComparator;
+import org.eclipse.jgit.diff.HistogramDiff;
+import org.eclipse.jgit.diff.Sequence;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.VisibleForTesting;
@@ -16,10 +31,30 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
 import java.io.Serial;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.jenkinsci.plugins.gitclient.GitClient;
+import hudson.model.Run;
 import hudson.plugins.git.GitException;
 import hudson.remoting.VirtualChannel;
 
@@ -28,8 +63,12 @@ import io.jenkins.plugins.forensics.blame.Blames;
 import io.jenkins.plugins.forensics.blame.FileBlame;
 import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
 import io.jenkins.plugins.forensics.blame.FileLocations;
+import io.jenkins.plugins.forensics.git.blame.BlamedFile.BlamedLine;
 import io.jenkins.plugins.forensics.git.util.AbstractRepositoryCallback;
+import io.jenkins.plugins.forensics.git.util.CommitGraphSupport;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.forensics.git.util.RenameDetection;
 
 /**
  * Assigns git blames to warnings. Based on the solution by John Gibson, see JENKINS-6748. This code is intended to run
@@ -42,18 +81,26 @@ import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
 // TODO: Whom should we blame if the whole file is marked? Or if a range is marked and multiple authors are in the range
 // TODO: Links in commits?
 // TODO: Check if we should also create new Jenkins users
-// TODO: Blame needs only run for new warnings
 @SuppressFBWarnings(value = "SE", justification = "GitClient implementation is Serializable")
-class GitBlamer extends Blamer {
+public class GitBlamer extends Blamer {
     @Serial
     private static final long serialVersionUID = -619059996626444900L;
 
     static final String NO_HEAD_ERROR = "Could not retrieve HEAD commit, aborting";
     static final String BLAME_ERROR = "Computing blame information failed with an exception:";
+    static final String BUDGET_EXHAUSTED = "Blame time budget exhausted: no blames for %d files";
 
     @SuppressWarnings("serial")
     private final GitClient git;
     private final String gitCommit;
+    private final BlameOptions options;
+    private BlameStatistics statistics = new BlameStatistics();
+    @CheckForNull
+    private transient Run<?, ?> build;
+    @CheckForNull
+    private String memoBuild;
+    @CheckForNull
+    private String memoRepository;
 
     /**
      * Creates a new blamer for Git.
@@ -64,14 +111,136 @@ class GitBlamer extends Blamer {
      *         content of environment variable GIT_COMMIT
      */
     GitBlamer(final GitClient git, final String gitCommit) {
+        this(git, gitCommit, new BlameOptions());
+    }
+
+    /**
+     * Creates a new blamer for Git.
+     *
+     * @param git
+     *         git client
+     * @param gitCommit
+     *         content of environment variable GIT_COMMIT
+     * @param options
+     *         the options that control the blame computation
+     */
+    GitBlamer(final GitClient git, final String gitCommit, final BlameOptions options) {
         super();
 
         this.git = git;
         this.gitCommit = gitCommit;
+        this.options = options;
+    }
+
+    /**
+     * Attaches the statistics of all subsequent blame computations to the specified build, see
+     * {@link BlameStatisticsAction}. Note that the build is not serialized: if this blamer is invoked on an agent, then
+     * the statistics are available in the log only.
+     *
+     * @param owner
+     *         the build to attach the statistics to
+     *
+     * @return this
+     */
+    GitBlamer attachStatisticsTo(final Run<?, ?> owner) {
+        build = owner;
+
+        return this;
+    }
+
+    /**
+     * Memoizes the blames of all subsequent blame computations within the specified build, see {@link BlameMemo}. All
+     * blamers of the same build and repository share the blames of the files that have been blamed at the same head
+     * commit.
+     *
+     * @param owner
+     *         the build that owns the memoized blames
+     * @param repository
+     *         the identifier of the repository
+     *
+     * @return this
+     */
+    GitBlamer memoizeWithin(final Run<?, ?> owner, final String repository) {
+        memoBuild = owner.getExternalizableId();
+        memoRepository = repository;
+
+        return this;
+    }
+
+    @VisibleForTesting
+    BlameOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns the statistics of the last blame computation: the latency histogram and the slowest files.
+     *
+     * @return the statistics
+     */
+    public BlameStatistics getStatistics() {
+        return statistics;
     }
 
     @Override
     public Blames blame(final FileLocations locations, final FilteredLog log) {
+        return blame(locations, log, callback -> { });
+    }
+
+    /**
+     * Computes the blames for the specified locations incrementally. The blames of the previous build are reused for
+     * all files that have not been touched since the previous commit: the lines of these files cannot have a different
+     * author or commit. Only the touched files (and the files that are not part of the previous blames) are blamed
+     * again. If the touched files cannot be determined (e.g., the previous commit is unknown), then all files will be
+     * blamed.
+     *
+     * @param locations
+     *         the locations to blame
+     * @param previousBlames
+     *         the blames of the previous build
+     * @param previousCommit
+     *         the commit that has been blamed in the previous build, see
+     *         {@link io.jenkins.plugins.forensics.git.reference.GitCommitsRecord#getLatestCommit()}
+     * @param log
+     *         the logger
+     *
+     * @return the blames
+     */
+    public Blames blame(final FileLocations locations, final Blames previousBlames, final String previousCommit,
+            final FilteredLog log) {
+        return blame(locations, log, callback -> callback.withPreviousBlames(previousBlames, previousCommit));
+    }
+
+    /**
+     * Computes the blames only for those locations that actually need an attribution: all files that have not been
+     * changed since the reference commit are skipped. The changed files are the files that have been touched by the
+     * commits since the merge base of the reference commit and the current commit. So for a pull request, only the
+     * files of the pull request will be blamed. If the changed files cannot be determined (e.g., the reference commit
+     * is unknown), then all files will be blamed.
+     *
+     * @param locations
+     *         the locations to blame
+     * @param referenceCommit
+     *         the commit of the reference build, see
+     *         {@link io.jenkins.plugins.forensics.git.reference.GitCommitsRecord#getLatestCommit()}
+     * @param log
+     *         the logger
+     *
+     * @return the blames of the changed files
+     */
+    public Blames blameChangedFiles(final FileLocations locations, final String referenceCommit,
+            final FilteredLog log) {
+        return blame(locations, log, callback -> callback.withReferenceCommit(referenceCommit));
+    }
+
+    private String describeRenameDetection() {
+        if (options.getRenameDetection() == RenameDetection.SIMILARITY && options.getRenameLimit() > 0) {
+            return "SIMILARITY with rename limit " + options.getRenameLimit();
+        }
+        return options.getRenameDetection().name();
+    }
+
+    private Blames blame(final FileLocations locations, final FilteredLog log,
+            final Consumer<BlameCallback> configuration) {
         var blames = new Blames();
         try {
             log.logInfo("Invoking Git blamer to create author and commit information for %d affected files",
@@ -83,14 +252,10 @@ class GitBlamer extends Blamer {
                 log.logError(NO_HEAD_ERROR);
                 return blames;
             }
-
-            long nano = System.nanoTime();
-
-            RemoteResultWrapper<Blames> wrapped = git.withRepository(new BlameCallback(locations, blames, headCommit));
-            wrapped.getInfoMessages().forEach(log::logInfo);
-
-            log.logInfo("Blaming of authors took %d seconds", 1 + (System.nanoTime() - nano) / 1_000_000_000L);
-            return wrapped.getResult();
+            if (memoBuild == null || memoRepository == null) {
+                return blame(locations, headCommit, log, configuration);
+            }
+            return blameWithMemo(BlameMemo.of(memoBuild), memoRepository, locations, headCommit, log, configuration);
         }
         catch (IOException exception) {
             log.logException(exception, BLAME_ERROR);
@@ -104,51 +269,437 @@ class GitBlamer extends Blamer {
         return blames;
     }
 
+    private Blames blameWithMemo(final BlameMemo memo, final String repository, final FileLocations locations,
+            final ObjectId headCommit, final FilteredLog log, final Consumer<BlameCallback> configuration)
+            throws IOException, InterruptedException {
+        var lookup = memo.lookup(repository, headCommit.name(), locations);
+        var blames = lookup.getServed();
+        if (blames.size() > 0) {
+            log.logInfo("-> reusing blames of %d files that have been computed by other blamers of this build",
+                    blames.size());
+        }
+
+        var computed = new Blames();
+        try {
+            if (lookup.getClaimed().size() > 0) {
+                computed = blame(lookup.getClaimed(), headCommit, log, configuration);
+            }
+        }
+        finally {
+            lookup.complete(computed);
+        }
+        blames.addAll(computed);
+
+        if (lookup.getPending().size() > 0) {
+            log.logInfo("-> waiting for blames of %d files that are computed by other blamers of this build",
+                    lookup.getPending().size());
+            var missing = lookup.await(blames);
+            if (missing.size() > 0) {
+                blames.addAll(blame(missing, headCommit, log, configuration));
+            }
+        }
+        return blames;
+    }
+
+    private Blames blame(final FileLocations locations, final ObjectId headCommit, final FilteredLog log,
+            final Consumer<BlameCallback> configuration) throws IOException, InterruptedException {
+        var blames = new Blames();
+        long nano = System.nanoTime();
+
+        var receiver = new BlameReceiver(blames, locations.size(), log);
+        var callback = new BlameCallback(locations, new Blames(), headCommit, options);
+        configuration.accept(callback);
+        var sink = new ReleasableSink(receiver);
+        var workTree = git.getWorkTree();
+        if (workTree != null) {
+            callback.withSink(workTree.getChannel().export(BlameSink.class, sink));
+        }
+        RemoteResultWrapper<CompactBlames> wrapped;
+        try {
+            wrapped = git.withRepository(callback);
+        }
+        finally {
+            sink.release();
+        }
+        wrapped.getInfoMessages().forEach(log::logInfo);
+
+        log.logInfo("Blaming of authors took %d seconds (rename detection %s)",
+                1 + (System.nanoTime() - nano) / 1_000_000_000L, describeRenameDetection());
+        var result = wrapped.getResult();
+        statistics = result.getStatistics();
+        if (build != null && !statistics.isEmpty()) {
+            BlameStatisticsAction.attach(build, statistics);
+        }
+        if (result.isPartial()) {
+            log.logError(BUDGET_EXHAUSTED, result.getSkippedFiles().size());
+        }
+        result.expandTo(blames);
+        return blames;
+    }
+
     /**
      * Starts the blame commands.
      */
-    static class BlameCallback extends AbstractRepositoryCallback<RemoteResultWrapper<Blames>> {
+    static class BlameCallback extends AbstractRepositoryCallback<RemoteResultWrapper<CompactBlames>> {
         @Serial
         private static final long serialVersionUID = 8794666938104738260L;
         private static final int WHOLE_FILE = 0;
+        private static final String ERRORS_TITLE = "Errors while running Git blame:";
+        private static final int BATCH_SIZE = 100;
 
         private final ObjectId headCommit;
         private final FileLocations locations;
         private final Blames blames;
+        private final BlameOptions options;
+        private CompactBlames previousBlames = CompactBlames.of(new Blames());
+        private String previousCommit = StringUtils.EMPTY;
+        private String referenceCommit = StringUtils.EMPTY;
+        @CheckForNull
+        @SuppressFBWarnings(value = "SE", justification = "The sink is a proxy that has been exported to the channel")
+        private BlameSink sink;
+        private boolean speculation;
 
         BlameCallback(final FileLocations locations, final Blames blames, final ObjectId headCommit) {
+            this(locations, blames, headCommit, new BlameOptions());
+        }
+
+        BlameCallback(final FileLocations locations, final Blames blames, final ObjectId headCommit,
+                final BlameOptions options) {
             super();
 
             this.locations = locations;
             this.blames = blames;
             this.headCommit = headCommit;
+            this.options = options;
+
+            withObjectCache(options.getObjectCache());
+            withVirtualThreads(options.isVirtualThreadsEnabled());
+        }
+
+        /**
+         * Reuses the blames of the previous build for all files that have not been touched since the previous commit.
+         *
+         * @param blamesOfPreviousBuild
+         *         the blames of the previous build
+         * @param commitOfPreviousBuild
+         *         the commit that has been blamed in the previous build
+         *
+         * @return this
+         */
+        BlameCallback withPreviousBlames(final Blames blamesOfPreviousBuild, final String commitOfPreviousBuild) {
+            previousBlames = CompactBlames.of(blamesOfPreviousBuild);
+            previousCommit = commitOfPreviousBuild;
+
+            return this;
+        }
+
+        /**
+         * Skips all files that have not been changed since the merge base of the reference commit and the head commit.
+         *
+         * @param commitOfReferenceBuild
+         *         the commit of the reference build
+         *
+         * @return this
+         */
+        BlameCallback withReferenceCommit(final String commitOfReferenceBuild) {
+            referenceCommit = commitOfReferenceBuild;
+
+            return this;
+        }
+
+        /**
+         * Streams the blames to the specified sink in batches of {@value #BATCH_SIZE} files, as soon as the files have
+         * been blamed. The returned result then contains only the skipped files and the statistics. Without a sink,
+         * the blames of all files are collected and returned as a whole.
+         *
+         * @param blameSink
+         *         the sink that receives the blames, typically exported to the remoting channel of the agent
+         *
+         * @return this
+         */
+        BlameCallback withSink(final BlameSink blameSink) {
+            sink = blameSink;
+
+            return this;
+        }
+
+        /**
+         * Marks this callback as speculative blame, see {@link SpeculativeBlameCallback}. A speculative blame does not
+         * reuse the results of other speculative blames.
+         *
+         * @return this
+         */
+        BlameCallback asSpeculation() {
+            speculation = true;
+
+            return this;
         }
 
-        @Override @SuppressWarnings("PMD.DoNotUseThreads")
-        public RemoteResultWrapper<Blames> invoke(final Repository repository, final VirtualChannel channel)
+        @Override
+        public RemoteResultWrapper<CompactBlames> invoke(final Repository repository, final VirtualChannel channel)
                 throws InterruptedException {
-            RemoteResultWrapper<Blames> log = new RemoteResultWrapper<>(blames, "Errors while running Git blame:");
+            var log = new FilteredLog(ERRORS_TITLE);
             log.logInfo("-> Git commit ID = '%s'", headCommit.getName());
             log.logInfo("-> Git working tree = '%s'", getWorkTree(repository));
 
-            var blameRunner = new BlameRunner(repository, headCommit);
-            var lastCommitRunner = new LastCommitRunner(repository);
+            var objectCache = installObjectCache(log);
+            try (var commitGraph = new CommitGraphSupport(repository)) {
+                commitGraph.enable(options.isCommitGraphWriteEnabled(), log);
 
+                return blame(repository, objectCache, log);
+            }
+        }
+
+        @SuppressWarnings("PMD.DoNotUseThreads")
+        private RemoteResultWrapper<CompactBlames> blame(final Repository repository,
+                final ObjectCacheOptions.Statistics objectCache, final FilteredLog log) throws InterruptedException {
+            var budget = new TimeBudget(Duration.ofSeconds(options.getTimeBudget()));
+            var transfer = new BlameTransfer(sink, blames);
+            var changedFiles = selectChangedFiles(repository, log);
+            var remaining = copyBlamesOfUntouchedFiles(repository, changedFiles, transfer, log);
+            if (!speculation) {
+                remaining = copySpeculativeBlames(repository, remaining, transfer, log);
+            }
+            if (budget.isLimited()) {
+                remaining = sortByPriority(remaining, locations);
+            }
+            var lastCommitRunner = new LastCommitRunner(repository, headCommit, remaining.stream()
+                    .filter(file -> locations.getLines(file).stream().anyMatch(line -> line <= WHOLE_FILE))
+                    .toList());
+            Queue<String> files = new ConcurrentLinkedQueue<>(remaining);
+            var cache = options.isCacheEnabled()
+                    ? BlameCache.load(repository, options.getCacheSize(), log)
+                    : BlameCache.disabled();
+
+            var statistics = new BlameStatistics();
+            var commandLine = new CommandLineBlamer(repository, headCommit, options);
+            var guardrails = new BlameGuardrails(headCommit, options);
+            Queue<String> expensiveFiles = new ConcurrentLinkedQueue<>();
+            try (var pool = createWorkerPool(files.size(), log)) {
+                log.logInfo("-> blaming %d files using %s", files.size(), pool.describe());
+                List<Future<FilteredLog>> results = new ArrayList<>();
+                for (int i = 0; i < pool.getWorkers(); i++) {
+                    results.add(pool.submit(new BlameWorker(repository, files, cache, lastCommitRunner,
+                            commandLine, guardrails, expensiveFiles, budget, statistics, transfer)));
+                }
+                for (Future<FilteredLog> result : results) {
+                    log.merge(getResultOf(result, log));
+                }
+            }
+            attributeToLastCommit(expensiveFiles, repository, lastCommitRunner, transfer, log);
+            cache.save(log);
+
+            log.logInfo("-> blamed authors of issues in %d files", transfer.getFiles());
+            if (commandLine.getBlamedFiles() > 0) {
+                log.logInfo("-> blamed %d files with command line git '%s'", commandLine.getBlamedFiles(),
+                        options.getGitExecutable());
+            }
+            logStatistics(statistics, log);
+            objectCache.log(log);
+
+            if (!files.isEmpty() && budget.isExhausted()) {
+                log.logInfo("-> time budget of %d seconds exhausted, skipped blaming of %d files",
+                        options.getTimeBudget(), files.size());
+            }
+            var compact = CompactBlames.of(blames, files, statistics);
+            if (sink == null) {
+                log.logInfo("-> transferring %d blamed lines with %d distinct authors, emails, and commits",
+                        compact.getLineCount(), compact.getDictionarySize());
+            }
+            else {
+                log.logInfo("-> streamed %d blamed lines of %d files in %d batches", transfer.getLines(),
+                        transfer.getFiles(), transfer.getBatches());
+            }
+            var result = new RemoteResultWrapper<>(compact, ERRORS_TITLE);
+            result.merge(log);
+            return result;
+        }
+
+        private void logStatistics(final BlameStatistics statistics, final FilteredLog log) {
+            if (statistics.isEmpty()) {
+                return;
+            }
+            log.logInfo("-> blame durations of %d files: %s", statistics.getFileCount(),
+                    statistics.getHistogram().entrySet().stream()
+                            .map(bucket -> bucket.getKey() + ": " + bucket.getValue())
+                            .collect(Collectors.joining(", ")));
+            log.logInfo("-> slowest files:");
+            statistics.getSlowestFiles().forEach(file -> log.logInfo("   %s", file));
+        }
+
+        /**
+         * Sorts the files by priority: files with more requested lines come first, files with the same number of lines
+         * are sorted by their path. So if the time budget will be exhausted, the most important files have been blamed
+         * already. The sort key is available without reading the repository, so sorting does not consume the budget.
+         *
+         * @param files
+         *         the files to sort
+         * @param locations
+         *         the requested lines of the files
+         *
+         * @return the sorted files
+         */
+        @VisibleForTesting
+        static List<String> sortByPriority(final Collection<String> files, final FileLocations locations) {
+            return files.stream()
+                    .sorted(Comparator.comparingInt((String file) -> locations.getLines(file).size()).reversed()
+                            .thenComparing(Comparator.naturalOrder()))
+                    .toList();
+        }
+
+        /**
+         * Selects the files that have been changed since the reference commit. If there is no reference commit, then
+         * all files will be selected.
+         *
+         * @param repository
+         *         the repository
+         * @param log
+         *         the logger
+         *
+         * @return the files that need to be blamed
+         */
+        private Collection<String> selectChangedFiles(final Repository repository, final FilteredLog log) {
+            Set<String> files = locations.getFiles();
+            if (StringUtils.isBlank(referenceCommit)) {
+                return files;
+            }
+
+            var changedFiles = new TouchedFilesCollector(repository)
+                    .collectSinceMergeBase(referenceCommit, headCommit, log);
+            if (changedFiles.isEmpty()) {
+                log.logInfo("-> changed files are unknown, blaming all files");
+                return files;
+            }
+
+            List<String> selected = files.stream().filter(changedFiles.get()::contains).toList();
+            log.logInfo("-> skipping %d of %d files that have not been changed since reference commit '%s'",
+                    files.size() - selected.size(), files.size(), referenceCommit);
+            return selected;
+        }
+
+        /**
+         * Copies the previous blames of all files that have not been touched since the previous commit.
+         *
+         * @param repository
+         *         the repository
+         * @param files
+         *         the files to blame
+         * @param transfer
+         *         the transfer that receives the copied blames
+         * @param log
+         *         the logger
+         *
+         * @return the files that still need to be blamed
+         */
+        private Collection<String> copyBlamesOfUntouchedFiles(final Repository repository,
+                final Collection<String> files, final BlameTransfer transfer, final FilteredLog log) {
+            if (previousBlames.size() == 0 || StringUtils.isBlank(previousCommit)) {
+                return files;
+            }
+
+            var touchedFiles = new TouchedFilesCollector(repository).collect(previousCommit, headCommit, log);
+            if (touchedFiles.isEmpty()) {
+                log.logInfo("-> skipping incremental blame, blaming all files");
+                return files;
+            }
+
+            var previous = previousBlames.expand();
             var builder = new FileBlameBuilder();
-            for (String file : locations.getFiles()) {
-                run(builder, file, blameRunner, lastCommitRunner, log);
+            var copied = new Blames();
+            List<String> remaining = new ArrayList<>();
+            for (String file : files) {
+                if (touchedFiles.get().contains(file) || !copyPreviousBlame(file, previous, builder, copied)) {
+                    remaining.add(file);
+                }
+            }
+            transfer.send(copied);
+            log.logInfo("-> reusing blames of %d untouched files from commit '%s' (%d files touched since then)",
+                    files.size() - remaining.size(), previousCommit, touchedFiles.get().size());
+            return remaining;
+        }
 
-                if (Thread.interrupted()) { // Cancel request by user
-                    var message = "Blaming has been interrupted while computing blame information";
-                    log.logInfo(message);
+        /**
+         * Copies the blames of all files that have been blamed speculatively right after the checkout, see
+         * {@link SpeculativeBlameCallback}. If the speculative blame is still running, then only the files that have
+         * been blamed so far are copied.
+         *
+         * @param repository
+         *         the repository
+         * @param files
+         *         the files to blame
+         * @param transfer
+         *         the transfer that receives the copied blames
+         * @param log
+         *         the logger
+         *
+         * @return the files that still need to be blamed
+         */
+        private Collection<String> copySpeculativeBlames(final Repository repository,
+                final Collection<String> files, final BlameTransfer transfer, final FilteredLog log) {
+            var speculative = SpeculativeBlames.find(repository.getDirectory(), headCommit);
+            if (speculative.isEmpty()) {
+                return files;
+            }
 
-                    throw new InterruptedException(message);
+            var blamed = speculative.get();
+            var builder = new FileBlameBuilder();
+            var copied = new Blames();
+            List<String> remaining = new ArrayList<>();
+            for (String file : files) {
+                var blame = blamed.get(file);
+                if (blame.isEmpty() || !copyBlame(file, blame.get(), builder, copied)) {
+                    remaining.add(file);
                 }
             }
+            transfer.send(copied);
+            log.logInfo("-> reusing speculative blames of %d files (%d of %d files blamed after checkout%s)",
+                    files.size() - remaining.size(), blamed.size(), blamed.getTotal(),
+                    blamed.isFinished() ? StringUtils.EMPTY : ", still running");
+            return remaining;
+        }
 
-            log.logInfo("-> blamed authors of issues in %d files", blames.size());
+        private boolean copyPreviousBlame(final String file, final Blames previousBlames,
+                final FileBlameBuilder builder, final Blames results) {
+            if (!previousBlames.contains(file)) {
+                return false;
+            }
+            return copyBlame(file, previousBlames.getBlame(file), builder, results);
+        }
 
-            return log;
+        private boolean copyBlame(final String file, final FileBlame previous, final FileBlameBuilder builder,
+                final Blames results) {
+            var lines = locations.getLines(file);
+            if (!previous.getLines().containsAll(lines)) {
+                return false;
+            }
+            for (int line : lines) {
+                var fileBlame = builder.build(file);
+                fileBlame.setName(line, previous.getName(line));
+                fileBlame.setEmail(line, previous.getEmail(line));
+                fileBlame.setCommit(line, previous.getCommit(line));
+                fileBlame.setTime(line, previous.getTime(line));
+                results.add(fileBlame);
+            }
+            return true;
+        }
+
+        private FilteredLog getResultOf(final Future<FilteredLog> result, final FilteredLog log)
+                throws InterruptedException {
+            try {
+                return result.get();
+            }
+            catch (InterruptedException exception) { // Cancel request by user
+                var message = "Blaming has been interrupted while computing blame information";
+                log.logInfo(message);
+
+                throw exception;
+            }
+            catch (ExecutionException exception) {
+                if (exception.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(exception.getCause());
+            }
         }
 
         /**
@@ -168,52 +719,126 @@ class GitBlamer extends Blamer {
         @VisibleForTesting
         void run(final FileBlameBuilder builder, final String relativePath, final BlameRunner blameRunner,
                 final LastCommitRunner lastCommitRunner, final FilteredLog log) {
+            run(builder, relativePath, blameRunner, lastCommitRunner, log, blames);
+        }
+
+        private boolean run(final FileBlameBuilder builder, final String relativePath, final BlameRunner blameRunner,
+                final LastCommitRunner lastCommitRunner, final FilteredLog log, final Blames results) {
             try {
                 var blame = blameRunner.run(relativePath);
                 if (blame == null) {
                     log.logError("- no blame results for file '%s'", relativePath);
+                    return false;
                 }
-                else {
-                    for (int line : locations.getLines(relativePath)) {
-                        var fileBlame = builder.build(relativePath);
-                        if (line <= 0) {
-                            fillWithLastCommit(relativePath, fileBlame, lastCommitRunner);
-                        }
-                        else if (line <= blame.getResultContents().size()) {
-                            fillWithBlameResult(relativePath, fileBlame, blame, line, log);
+                return fill(builder, relativePath, blame, lastCommitRunner, log, results);
+            }
+            catch (BlameTimeoutException exception) {
+                log.logError("- skipped blame of '%s', too expensive: %s", relativePath, exception.getMessage());
+                return false;
+            }
+            catch (GitAPIException | JGitInternalException exception) {
+                log.logException(exception, "- error running git blame on '%s' with revision '%s'",
+                        relativePath, headCommit);
+                return false;
+            }
+        }
+
+        private boolean fill(final FileBlameBuilder builder, final String relativePath, final BlamedFile blame,
+                final LastCommitRunner lastCommitRunner, final FilteredLog log, final Blames results) {
+            try {
+                for (int line : locations.getLines(relativePath)) {
+                    var fileBlame = builder.build(relativePath);
+                    if (line <= 0) {
+                        fillWithLastCommit(relativePath, fileBlame, lastCommitRunner);
+                    }
+                    else {
+                        var blamedLine = blame.get(line);
+                        if (blamedLine != null) {
+                            fillWithBlamedLine(relativePath, fileBlame, blamedLine, line, log);
                         }
-                        blames.add(fileBlame);
                     }
+                    results.add(fileBlame);
                 }
+                return true;
             }
             catch (GitAPIException | JGitInternalException exception) {
-                log.logException(exception, "- error running git blame on '%s' with revision '%s'",
+                log.logException(exception, "- error finding last commit of '%s' with revision '%s'",
                         relativePath, headCommit);
+                return false;
             }
         }
 
-        private void fillWithBlameResult(final String fileName, final FileBlame fileBlame, final BlameResult blame,
-                final int line, final FilteredLog log) {
-            int lineIndex = line - 1; // first line is index 0
-            var who = blame.getSourceAuthor(lineIndex);
-            if (who == null) {
-                who = blame.getSourceCommitter(lineIndex);
-            }
-            if (who == null) {
-                log.logError("- no author or committer information found for line %d in file %s",
-                        lineIndex, fileName);
+        private void fillWithBlamedLine(final String fileName, final FileBlame fileBlame,
+                final BlamedLine blamedLine, final int line, final FilteredLog log) {
+            if (blamedLine.name() == null) {
+                log.logError("- no author or committer information found for line %d in file %s", line, fileName);
             }
             else {
-                fileBlame.setName(line, who.getName());
-                fileBlame.setEmail(line, who.getEmailAddress());
+                fileBlame.setName(line, blamedLine.name());
+                fileBlame.setEmail(line, StringUtils.defaultString(blamedLine.email()));
             }
-            var commit = blame.getSourceCommit(lineIndex);
-            if (commit == null) {
-                log.logError("- no commit ID and time found for line %d in file %s", lineIndex, fileName);
+            if (blamedLine.commit() == null) {
+                log.logError("- no commit ID and time found for line %d in file %s", line, fileName);
             }
             else {
-                fileBlame.setCommit(line, commit.getName());
-                fileBlame.setTime(line, commit.getCommitTime());
+                fileBlame.setCommit(line, blamedLine.commit());
+                fileBlame.setTime(line, blamedLine.time());
+            }
+        }
+
+        /**
+         * Attributes all requested lines of the files that are too expensive to blame to the last commit that touched
+         * the corresponding file. The last commits of all these files are resolved in a single walk, unless they
+         * have been resolved by the specified runner already.
+         *
+         * @param files
+         *         the files (relative paths)
+         * @param repository
+         *         the repository
+         * @param lastCommitRunner
+         *         the runner that has been used to find the last commits of the other files
+         * @param transfer
+         *         the transfer that receives the blames
+         * @param log
+         *         the logger
+         */
+        private void attributeToLastCommit(final Collection<String> files, final Repository repository,
+                final LastCommitRunner lastCommitRunner, final BlameTransfer transfer, final FilteredLog log) {
+            if (files.isEmpty()) {
+                return;
+            }
+            var lastCommits = lastCommitRunner.containsAll(files)
+                    ? lastCommitRunner
+                    : new LastCommitRunner(repository, headCommit, files);
+            var builder = new FileBlameBuilder();
+            var results = new Blames();
+            try {
+                for (String file : files) {
+                    var lastCommit = lastCommits.run(file);
+                    for (int line : locations.getLines(file)) {
+                        var fileBlame = builder.build(file);
+                        lastCommit.ifPresent(commit -> fillWithCommit(fileBlame, line, commit));
+                        results.add(fileBlame);
+                    }
+                }
+            }
+            catch (GitAPIException | JGitInternalException exception) {
+                log.logException(exception, "- error finding last commits of %d files with revision '%s'",
+                        files.size(), headCommit);
+            }
+            transfer.send(results);
+        }
+
+        private void fillWithCommit(final FileBlame fileBlame, final int line, final RevCommit commit) {
+            var who = commit.getAuthorIdent();
+            if (who == null) {
+                who = commit.getCommitterIdent();
+            }
+            fileBlame.setCommit(line, commit.getName());
+            fileBlame.setTime(line, commit.getCommitTime());
+            if (who != null) {
+                fileBlame.setName(line, who.getName());
+                fileBlame.setEmail(line, who.getEmailAddress());
             }
         }
 
@@ -233,44 +858,634 @@ class GitBlamer extends Blamer {
                 }
             }
         }
+
+        /**
+         * Blames the files of a shared work queue. Each worker uses its own blame runner, object reader, log, and
+         * results, so no state is shared between the workers besides the queue, the cache, the last commit runner,
+         * the command line blamer, the guardrails, and the transfer. Depending on the blame backend, a file is blamed
+         * with the command line Git first: if that fails, then JGit is used as fallback. Files that are too expensive
+         * to blame are collected, so that they can be attributed to their last commit afterwards. The results are
+         * handed over to the transfer in batches of {@value #BATCH_SIZE} files. A worker stops polling new files when
+         * the time budget has been exhausted. The duration, the number of attributed commits, and the number of lines
+         * of each blamed file are recorded in the shared statistics.
+         */
+        private final class BlameWorker implements Callable<FilteredLog> {
+            private final Repository repository;
+            private final Queue<String> files;
+            private final BlameCache cache;
+            private final LastCommitRunner lastCommitRunner;
+            private final CommandLineBlamer commandLine;
+            private final BlameGuardrails guardrails;
+            private final Queue<String> expensiveFiles;
+            private final TimeBudget budget;
+            private final BlameStatistics statistics;
+            private final BlameTransfer transfer;
+
+            @SuppressWarnings("checkstyle:ParameterNumber")
+            BlameWorker(final Repository repository, final Queue<String> files, final BlameCache cache,
+                    final LastCommitRunner lastCommitRunner, final CommandLineBlamer commandLine,
+                    final BlameGuardrails guardrails, final Queue<String> expensiveFiles, final TimeBudget budget,
+                    final BlameStatistics statistics, final BlameTransfer transfer) {
+                this.repository = repository;
+                this.files = files;
+                this.cache = cache;
+                this.lastCommitRunner = lastCommitRunner;
+                this.commandLine = commandLine;
+                this.guardrails = guardrails;
+                this.expensiveFiles = expensiveFiles;
+                this.budget = budget;
+                this.statistics = statistics;
+                this.transfer = transfer;
+            }
+
+            @Override
+            public FilteredLog call() {
+                var log = new FilteredLog(ERRORS_TITLE);
+                var batch = new Blames();
+                try (var reader = repository.newObjectReader()) {
+                    var blameRunner = new BlameRunner(repository, headCommit, locations, options);
+                    var headTree = cache.isEnabled() ? findHeadTree(reader, log) : null;
+
+                    var builder = new FileBlameBuilder();
+                    for (var file = poll(); file != null; file = poll()) {
+                        var key = createCacheKey(reader, headTree, file);
+                        if (!restoreFromCache(key, file, builder, batch)
+                                && blame(builder, file, blameRunner, reader, batch, log)
+                                && key.isPresent()) {
+                            cache.put(key.get(), batch.getBlame(file), locations.getLines(file));
+                        }
+                        if (batch.size() >= BATCH_SIZE) {
+                            transfer.send(batch);
+                            batch = new Blames();
+                        }
+
+                        if (Thread.currentThread().isInterrupted()) { // Cancel request by user
+                            break;
+                        }
+                    }
+                }
+                transfer.send(batch);
+                return log;
+            }
+
+            private boolean blame(final FileBlameBuilder builder, final String file, final BlameRunner blameRunner,
+                    final ObjectReader reader, final Blames results, final FilteredLog log) {
+                if (isTooExpensive(reader, file, log)) {
+                    expensiveFiles.add(file);
+                    return false;
+                }
+                long nano = System.nanoTime();
+                if (commandLine.isSelected(reader, file)) {
+                    var blamedFile = commandLine.run(reader, file, locations.getLines(file), log);
+                    if (blamedFile.isPresent()
+                            && fill(builder, file, blamedFile.get(), lastCommitRunner, log, results)) {
+                        statistics.record(file, (System.nanoTime() - nano) / 1_000_000L,
+                                blamedFile.get().attributedCommits(), locations.getLines(file).size());
+                        return true;
+                    }
+                }
+                if (run(builder, file, blameRunner, lastCommitRunner, log, results)) {
+                    statistics.record(file, (System.nanoTime() - nano) / 1_000_000L, blameRunner.getAttributedCommits(),
+                            locations.getLines(file).size());
+                    return true;
+                }
+                return false;
+            }
+
+            private boolean isTooExpensive(final ObjectReader reader, final String file, final FilteredLog log) {
+                try {
+                    var reason = guardrails.check(reader, file);
+                    reason.ifPresent(message -> log.logInfo(
+                            "- attributing '%s' to its last commit, too expensive to blame: %s", file, message));
+                    return reason.isPresent();
+                }
+                catch (IOException exception) {
+                    log.logException(exception, "- can't check the blame limits of '%s'", file);
+                    return false;
+                }
+            }
+
+            @CheckForNull
+            private String poll() {
+                if (budget.isExhausted()) {
+                    return null;
+                }
+                return files.poll();
+            }
+
+            private boolean restoreFromCache(final Optional<String> key, final String file,
+                    final FileBlameBuilder builder, final Blames results) {
+                var cachedLines = key.flatMap(cache::get);
+                if (cachedLines.isPresent()) {
+                    BlameCache.restore(cachedLines.get(), () -> builder.build(file)).forEach(results::add);
+
+                    return true;
+                }
+                return false;
+            }
+
+            @CheckForNull
+            private RevTree findHeadTree(final ObjectReader reader, final FilteredLog log) {
+                try (var walk = new RevWalk(reader)) {
+                    return walk.parseCommit(headCommit).getTree();
+                }
+                catch (IOException exception) {
+                    log.logException(exception, "- can't read tree of commit '%s', skipping blame cache", headCommit);
+                    return null;
+                }
+            }
+
+            private Optional<String> createCacheKey(final ObjectReader reader, @CheckForNull final RevTree headTree,
+                    final String file) {
+                if (headTree == null) {
+                    return Optional.empty();
+                }
+                try (var treeWalk = TreeWalk.forPath(reader, file, headTree)) {
+                    if (treeWalk == null) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(BlameCache.createKey(file, treeWalk.getObjectId(0), locations.getLines(file)));
+                }
+                catch (IOException exception) {
+                    return Optional.empty();
+                }
+            }
+        }
     }
 
     /**
-     * Executes the Git blame command.
+     * Hands over the blames of the blame workers. If a {@link BlameSink} is available, then each batch is compacted
+     * and sent to the sink immediately, so the agent does not need to keep the blames of all files in memory.
+     * Otherwise, the batches are collected in the specified blames. This transfer is shared by all blame workers.
+     */
+    private static final class BlameTransfer {
+        @CheckForNull
+        private final BlameSink sink;
+        private final Blames blames;
+        private final AtomicInteger files = new AtomicInteger();
+        private final AtomicInteger lines = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+
+        BlameTransfer(@CheckForNull final BlameSink sink, final Blames blames) {
+            this.sink = sink;
+            this.blames = blames;
+        }
+
+        void send(final Blames batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            files.addAndGet(batch.size());
+            if (sink == null) {
+                synchronized (blames) {
+                    blames.addAll(batch);
+                }
+            }
+            else {
+                var compact = CompactBlames.of(batch);
+                lines.addAndGet(compact.getLineCount());
+                batches.incrementAndGet();
+                sink.accept(compact);
+            }
+        }
+
+        int getFiles() {
+            return files.get();
+        }
+
+        int getLines() {
+            return lines.get();
+        }
+
+        int getBatches() {
+            return batches.get();
+        }
+    }
+
+    /**
+     * A wall-clock time budget for the blame computation. The budget starts when it is created.
+     */
+    static class TimeBudget {
+        private final long deadline;
+        private final boolean limited;
+
+        TimeBudget(final Duration budget) {
+            limited = !budget.isZero() && !budget.isNegative();
+            deadline = System.nanoTime() + budget.toNanos();
+        }
+
+        boolean isLimited() {
+            return limited;
+        }
+
+        boolean isExhausted() {
+            return limited && System.nanoTime() - deadline >= 0;
+        }
+    }
+
+    /**
+     * Executes the Git blame command. Since only the requested lines of a file are of interest, the history is not
+     * walked for the whole file: the blame stops as soon as all requested lines have been attributed. The regions of
+     * the {@link BlameGenerator} are consumed directly, so only the attribution of the requested lines is recorded. In
+     * contrast to a {@link org.eclipse.jgit.blame.BlameResult}, neither the contents of the file nor the attribution
+     * of the other lines are retained after the file has been blamed. The runner counts the distinct commits that have
+     * been attributed to the requested lines of the last file. Since the blame stops early, this number is a lower
+     * bound of the commits that the blame generator has walked.
+     * If a time limit is set, then the blame of a file is aborted with a {@link BlameTimeoutException} as soon as the
+     * limit has been exceeded. The rename detection of the blame follows the {@link RenameDetection} of the options.
      */
     static class BlameRunner {
+        private static final int EXACT_RENAME_SCORE = 100;
+
         private final Repository repo;
         private final ObjectId headCommit;
+        private final FileLocations locations;
+        private final BlameOptions options;
+        private int attributedCommits;
+
+        BlameRunner(final Repository repo, final ObjectId headCommit, final FileLocations locations) {
+            this(repo, headCommit, locations, new BlameOptions());
+        }
 
-        BlameRunner(final Repository repo, final ObjectId headCommit) {
+        BlameRunner(final Repository repo, final ObjectId headCommit, final FileLocations locations,
+                final BlameOptions options) {
             this.repo = repo;
             this.headCommit = headCommit;
+            this.locations = locations;
+            this.options = options;
         }
 
         @CheckForNull
-        BlameResult run(final String fileName) throws GitAPIException {
-            var blame = new BlameCommand(repo);
-            blame.setFilePath(fileName);
-            blame.setStartCommit(headCommit);
-            return blame.call();
+        BlamedFile run(final String fileName) throws GitAPIException {
+            attributedCommits = 0;
+            try (var generator = new DeadlineBlameGenerator(repo, fileName,
+                    Duration.ofSeconds(options.getFileTimeout()))) {
+                configureRenameDetection(generator);
+                generator.push(null, headCommit);
+
+                var contents = generator.getResultContents();
+                if (contents == null) {
+                    return null;
+                }
+                var requested = computeRequestedLines(locations.getLines(fileName), contents.size());
+                Map<Integer, BlamedLine> lines = new HashMap<>();
+                Set<ObjectId> commits = new HashSet<>();
+                while (lines.size() < requested.size() && generator.next()) {
+                    var region = requested.subSet(generator.getResultStart() + 1, true,
+                            generator.getResultEnd(), true); // first line is index 0, end is exclusive
+                    if (!region.isEmpty()) {
+                        var commit = generator.getSourceCommit();
+                        var blamedLine = createLine(generator.getSourceAuthor(), generator.getSourceCommitter(),
+                                commit);
+                        region.forEach(line -> lines.put(line, blamedLine));
+                        if (commit != null) {
+                            commits.add(commit);
+                        }
+                    }
+                }
+                attributedCommits = commits.size();
+                return new BlamedFile(lines, attributedCommits);
+            }
+            catch (IOException exception) {
+                throw new JGitInternalException(exception.getMessage(), exception);
+            }
+        }
+
+        int getAttributedCommits() {
+            return attributedCommits;
+        }
+
+        /**
+         * Configures the rename detection of the blame generator. Exact renames are found by comparing the object IDs
+         * of the added and deleted files. In order to skip the expensive similarity detection, the rename score is set
+         * to 100 percent and the rename limit to a single pair of files.
+         *
+         * @param generator
+         *         the generator to configure
+         */
+        private void configureRenameDetection(final BlameGenerator generator) {
+            var mode = options.getRenameDetection();
+            generator.setFollowFileRenames(mode != RenameDetection.NONE);
+
+            var renameDetector = generator.getRenameDetector();
+            if (renameDetector != null) {
+                if (mode == RenameDetection.EXACT) {
+                    renameDetector.setRenameScore(EXACT_RENAME_SCORE);
+                    renameDetector.setRenameLimit(1);
+                }
+                else if (options.getRenameLimit() > 0) {
+                    renameDetector.setRenameLimit(options.getRenameLimit());
+                }
+            }
+        }
+
+        private NavigableSet<Integer> computeRequestedLines(final Set<Integer> lines, final int size) {
+            return lines.stream()
+                    .filter(line -> line > 0 && line <= size)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+
+        /**
+         * Creates the blame of a line from the attributed region of the blame generator. If the author is not known,
+         * then the committer is used.
+         *
+         * @param author
+         *         the author of the region
+         * @param committer
+         *         the committer of the region
+         * @param commit
+         *         the commit of the region
+         *
+         * @return the blame of the line
+         */
+        @VisibleForTesting
+        static BlamedLine createLine(@CheckForNull final PersonIdent author, @CheckForNull final PersonIdent committer,
+                @CheckForNull final RevCommit commit) {
+            var who = author == null ? committer : author;
+            return new BlamedLine(who == null ? null : who.getName(), who == null ? null : who.getEmailAddress(),
+                    commit == null ? null : commit.getName(), commit == null ? 0 : commit.getCommitTime());
+        }
+    }
+
+    /**
+     * A {@link BlameGenerator} that checks a time limit: if a time limit is set, then the limit is checked before each
+     * region is produced and before each diff that is computed by the generator.
+     */
+    private static class DeadlineBlameGenerator extends BlameGenerator {
+        private final Deadline deadline;
+
+        DeadlineBlameGenerator(final Repository repository, final String path, final Duration timeout) {
+            super(repository, path);
+
+            deadline = new Deadline(timeout);
+            if (deadline.isLimited()) {
+                setDiffAlgorithm(new DeadlineDiffAlgorithm(deadline));
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            deadline.check();
+
+            return super.next();
+        }
+    }
+
+    /**
+     * The deadline for blaming a single file.
+     */
+    private static class Deadline {
+        private final Duration timeout;
+        private final long end;
+
+        Deadline(final Duration timeout) {
+            this.timeout = timeout;
+            end = System.nanoTime() + timeout.toNanos();
+        }
+
+        boolean isLimited() {
+            return !timeout.isZero() && !timeout.isNegative();
+        }
+
+        void check() {
+            if (isLimited() && System.nanoTime() - end > 0) {
+                throw new BlameTimeoutException(timeout);
+            }
+        }
+    }
+
+    /**
+     * A {@link HistogramDiff} that aborts the blame if the deadline has been exceeded. The diffs between the revisions
+     * of a file are the most expensive part of a blame, so the deadline is checked before each diff.
+     */
+    private static class DeadlineDiffAlgorithm extends DiffAlgorithm {
+        private final DiffAlgorithm delegate = new HistogramDiff();
+        private final Deadline deadline;
+
+        DeadlineDiffAlgorithm(final Deadline deadline) {
+            super();
+
+            this.deadline = deadline;
+        }
+
+        @Override
+        public <S extends Sequence> void diffNonCommon(final EditList edits, final HashedSequenceComparator<S> cmp,
+                final HashedSequence<S> a, final HashedSequence<S> b, final Edit region) {
+            deadline.check();
+            delegate.diffNonCommon(edits, cmp, a, b, region);
         }
     }
 
     /**
-     * Executes the Git log command for a given file.
+     * Thrown if blaming a single file exceeded the configured time limit.
+     */
+    static class BlameTimeoutException extends JGitInternalException {
+        @Serial
+        private static final long serialVersionUID = 3563434006315347032L;
+
+        BlameTimeoutException(final Duration timeout) {
+            super("time limit of %d seconds exceeded".formatted(timeout.toSeconds()));
+        }
+    }
+
+    /**
+     * Finds the last commit that touched a file. The commits of all requested files (e.g., the files that are marked
+     * as a whole with a line number less than or equal to zero) are resolved in bulk: the history is walked only once
+     * for all these files, and the walk stops as soon as the last commit of each file has been found. The commits are
+     * resolved when the first file is requested, so this runner can be shared by several workers.
+     *
+     * <p>
+     * The history of each file is simplified in the same way as {@code git log -- file}: if a merge commit took a file
+     * unchanged from one of its parents, then only this parent is followed for the file. So a file is never attributed
+     * to a commit on a side of a merge that has been discarded.
+     * </p>
      */
     static class LastCommitRunner {
-        private final Repository repo;
+        private final Repository repository;
+        private final ObjectId headCommit;
+        private final Set<String> files;
+        @CheckForNull
+        private Map<String, RevCommit> lastCommits;
 
-        LastCommitRunner(final Repository repo) {
-            this.repo = repo;
+        LastCommitRunner(final Repository repository, final ObjectId headCommit, final Collection<String> files) {
+            this.repository = repository;
+            this.headCommit = headCommit;
+            this.files = Set.copyOf(files);
         }
 
-        Optional<RevCommit> run(final String fileName) throws GitAPIException {
-            try (var git = new Git(repo)) {
-                Iterable<RevCommit> commits = git.log().addPath(fileName).call();
+        boolean containsAll(final Collection<String> fileNames) {
+            return files.containsAll(fileNames);
+        }
+
+        synchronized Optional<RevCommit> run(final String fileName) throws GitAPIException {
+            if (lastCommits == null) {
+                try {
+                    lastCommits = resolveLastCommits();
+                }
+                catch (IOException exception) {
+                    throw new JGitInternalException(exception.getMessage(), exception);
+                }
+            }
+            return Optional.ofNullable(lastCommits.get(fileName));
+        }
+
+        /**
+         * Resolves the last commits of the files. Starting with HEAD, each visited commit carries the files whose last
+         * commit is still unknown on its line of history. A file that differs from all parents has been touched by the
+         * commit. Otherwise, the file is handed over to the first parent that has the same file, so the same parent is
+         * followed as by the history simplification of Git. The commits are visited in the order of their commit time,
+         * a commit that receives files after it has been visited is visited again.
+         *
+         * @return the last commits of the files
+         * @throws IOException
+         *         if the commits could not be read
+         */
+        private Map<String, RevCommit> resolveLastCommits() throws IOException {
+            Map<String, RevCommit> commits = new HashMap<>();
+            try (var walk = new RevWalk(repository); var treeWalk = new TreeWalk(walk.getObjectReader())) {
+                var head = walk.parseCommit(headCommit);
+                Set<String> remaining = findExistingFiles(treeWalk, head);
+                if (remaining.isEmpty()) {
+                    return commits;
+                }
+
+                Map<RevCommit, PendingFiles> pending = new HashMap<>();
+                Queue<RevCommit> queue = new PriorityQueue<>(
+                        Comparator.comparingInt(RevCommit::getCommitTime).reversed());
+                pending.put(head, new PendingFiles(remaining));
+                queue.add(head);
+                while (!queue.isEmpty()) {
+                    var commit = queue.poll();
+                    var files = pending.remove(commit);
+                    if (files == null) {
+                        continue;
+                    }
+                    var parentFiles = assignFiles(walk, treeWalk, commit, files, commits);
+                    for (int i = 0; i < parentFiles.size(); i++) {
+                        var parent = walk.parseCommit(commit.getParent(i));
+                        var handedOver = parentFiles.get(i);
+                        if (handedOver != null) {
+                            var existing = pending.putIfAbsent(parent, handedOver);
+                            if (existing == null) {
+                                queue.add(parent);
+                            }
+                            else {
+                                pending.put(parent, existing.merge(handedOver));
+                            }
+                        }
+                    }
+                }
+            }
+            return commits;
+        }
+
+        /**
+         * Assigns the pending files of a commit: files that differ from all parents are attributed to the commit, all
+         * other files are handed over to the first parent with the same file.
+         *
+         * @return the files that are handed over to each parent, {@code null} for parents that get no files
+         */
+        private List<PendingFiles> assignFiles(final RevWalk walk, final TreeWalk treeWalk, final RevCommit commit,
+                final PendingFiles files, final Map<String, RevCommit> commits) throws IOException {
+            int parentCount = commit.getParentCount();
+            treeWalk.reset();
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(files.getFilter());
+            if (parentCount == 0) {
+                treeWalk.addTree(new EmptyTreeIterator());
+            }
+            for (RevCommit parent : commit.getParents()) {
+                treeWalk.addTree(walk.parseCommit(parent).getTree());
+            }
+            int commitIndex = treeWalk.addTree(commit.getTree());
+
+            List<Set<String>> handedOver = new ArrayList<>();
+            for (int i = 0; i < parentCount; i++) {
+                handedOver.add(new HashSet<>());
+            }
+            Set<String> changed = new HashSet<>();
+            while (treeWalk.next()) {
+                var path = treeWalk.getPathString();
+                changed.add(path);
+                if (TouchedFilesCollector.differsFromAllParents(treeWalk, commitIndex)) {
+                    commits.put(path, commit);
+                }
+                else {
+                    handedOver.get(findSameParent(treeWalk, commitIndex)).add(path);
+                }
+            }
+
+            List<PendingFiles> parentFiles = new ArrayList<>();
+            if (parentCount == 0) {
+                return parentFiles;
+            }
+            if (changed.isEmpty()) {
+                parentFiles.add(files); // the first parent has the same files, so the filter can be reused
+            }
+            else {
+                var unchanged = new HashSet<>(files.getFiles());
+                unchanged.removeAll(changed);
+                handedOver.get(0).addAll(unchanged);
+            }
+            for (int i = parentFiles.size(); i < parentCount; i++) {
+                var parentSet = handedOver.get(i);
+                parentFiles.add(parentSet.isEmpty() ? null : new PendingFiles(parentSet));
+            }
+            return parentFiles;
+        }
+
+        private int findSameParent(final TreeWalk treeWalk, final int commitIndex) {
+            for (int parent = 0; parent < commitIndex; parent++) {
+                if (treeWalk.idEqual(parent, commitIndex)) {
+                    return parent;
+                }
+            }
+            throw new IllegalStateException("No parent with the same file: " + treeWalk.getPathString());
+        }
+
+        private Set<String> findExistingFiles(final TreeWalk treeWalk, final RevCommit head) throws IOException {
+            Set<String> existing = new HashSet<>();
+            if (files.isEmpty()) {
+                return existing;
+            }
+
+            treeWalk.reset(head.getTree());
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(PathFilterGroup.createFromStrings(files));
+            while (treeWalk.next()) {
+                existing.add(treeWalk.getPathString());
+            }
+            return existing;
+        }
+
+        /**
+         * The files that are pending for a commit, together with the path filter of these files. The filter is
+         * created on demand and reused as long as the files are handed over unchanged.
+         */
+        private static class PendingFiles {
+            private final Set<String> files;
+            @CheckForNull
+            private TreeFilter filter;
+
+            PendingFiles(final Set<String> files) {
+                this.files = files;
+            }
+
+            Set<String> getFiles() {
+                return files;
+            }
+
+            TreeFilter getFilter() {
+                if (filter == null) {
+                    filter = AndTreeFilter.create(PathFilterGroup.createFromStrings(files), TreeFilter.ANY_DIFF);
+                }
+                return filter;
+            }
 
-                return StreamSupport.stream(commits.spliterator(), false).findFirst();
+            PendingFiles merge(final PendingFiles other) {
+                Set<String> merged = new HashSet<>(files);
+                merged.addAll(other.files);
+                return new PendingFiles(merged);
             }
         }
     }
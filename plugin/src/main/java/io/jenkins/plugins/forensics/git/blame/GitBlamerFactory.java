@@ -2,8 +2,10 @@ package io.jenkins.plugins.forensics.git.blame;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
+import edu.hm.hafner.util.VisibleForTesting;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import hudson.Extension;
 import hudson.FilePath;
@@ -13,6 +15,8 @@ import hudson.scm.SCM;
 
 import io.jenkins.plugins.forensics.blame.Blamer;
 import io.jenkins.plugins.forensics.blame.BlamerFactory;
+import io.jenkins.plugins.forensics.git.util.BlameBackend;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
 
 /**
@@ -22,6 +26,22 @@ import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
  */
 @Extension
 public class GitBlamerFactory extends BlamerFactory {
+    private final Supplier<GitForensicsConfiguration> configuration;
+
+    /**
+     * Creates a new instance of {@link GitBlamerFactory}.
+     */
+    public GitBlamerFactory() {
+        this(GitForensicsConfiguration::getInstance);
+    }
+
+    @VisibleForTesting
+    GitBlamerFactory(final Supplier<GitForensicsConfiguration> configuration) {
+        super();
+
+        this.configuration = configuration;
+    }
+
     @Override
     public Optional<Blamer> createBlamer(final SCM scm, final Run<?, ?> build,
             final FilePath workTree, final TaskListener listener, final FilteredLog logger) {
@@ -30,9 +50,36 @@ public class GitBlamerFactory extends BlamerFactory {
             var client = validator.createClient();
             logger.logInfo("-> Git blamer successfully created in working tree '%s'",
                     new PathUtil().getAbsolutePath(client.getWorkTree().getRemote()));
-            return Optional.of(new GitBlamer(client, validator.getHead()));
+            var options = createOptions(configuration.get(), build, validator);
+            BlameCleanup.register(build, workTree);
+            return Optional.of(new GitBlamer(client, validator.getHead(), options)
+                    .attachStatisticsTo(build)
+                    .memoizeWithin(build, scm.getKey()));
         }
         logger.logInfo("-> Git blamer could not be created for SCM '%s' in working tree '%s'", scm, workTree);
         return Optional.empty();
     }
+
+    /**
+     * Creates the blame options for the specified build: the options of the global configuration are overridden by
+     * the {@link GitBlamePolicy} of the job.
+     *
+     * @param configuration
+     *         the global configuration
+     * @param build
+     *         the build to blame
+     * @param validator
+     *         the validator of the Git repository
+     *
+     * @return the options
+     */
+    static BlameOptions createOptions(final GitForensicsConfiguration configuration, final Run<?, ?> build,
+            final GitRepositoryValidator validator) {
+        var options = BlameOptions.from(configuration);
+        GitBlamePolicy.findFor(build).ifPresent(policy -> policy.applyTo(options));
+        if (options.getBackend() != BlameBackend.JGIT) {
+            options.setGitExecutable(validator.getGitExecutable());
+        }
+        return options;
+    }
 }
@@ -0,0 +1,38 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * A {@link BlameSink} that forwards the received batches to another sink until it has been released. The remoting
+ * channel keeps an exported object until the proxy on the agent has been garbage collected. So only this thin sink is
+ * exported: when the blame callback returns, the sink is released and neither the receiver nor the blames of the build
+ * are referenced by the channel anymore. Batches that arrive after the release are ignored.
+ *
+ * @author Ullrich Hafner
+ */
+class ReleasableSink implements BlameSink {
+    @CheckForNull
+    private BlameSink delegate;
+
+    ReleasableSink(final BlameSink delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void accept(final CompactBlames batch) {
+        if (delegate != null) {
+            delegate.accept(batch);
+        }
+    }
+
+    /**
+     * Releases the sink, i.e. stops forwarding batches.
+     */
+    synchronized void release() {
+        delegate = null;
+    }
+
+    synchronized boolean isReleased() {
+        return delegate == null;
+    }
+}
@@ -0,0 +1,149 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import hudson.remoting.VirtualChannel;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileLocations;
+import io.jenkins.plugins.forensics.git.blame.GitBlamer.BlameCallback;
+import io.jenkins.plugins.forensics.git.util.AbstractRepositoryCallback;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+
+/**
+ * Starts a speculative blame of all files that have been touched by the new commits of a build. The callback collects
+ * the touched files and returns immediately: the files are blamed in the background on the agent, all lines of each
+ * file are blamed. The results are stored in {@link SpeculativeBlames} so that a subsequent {@link GitBlamer} can
+ * reuse them. The background blame is cancelled when the build that has triggered it has been completed.
+ *
+ * @author Ullrich Hafner
+ */
+class SpeculativeBlameCallback extends AbstractRepositoryCallback<RemoteResultWrapper<Integer>> {
+    @Serial
+    private static final long serialVersionUID = 3265001452397468516L;
+    private static final String ERRORS_TITLE = "Errors while starting the speculative Git blame:";
+
+    static final int MAX_FILES = 500;
+
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "Speculative Git blame");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String build;
+    private final ObjectId headCommit;
+    private final List<String> commits;
+    private final BlameOptions options;
+
+    SpeculativeBlameCallback(final String build, final ObjectId headCommit, final List<String> commits,
+            final BlameOptions options) {
+        super();
+
+        this.build = build;
+        this.headCommit = headCommit;
+        this.commits = new ArrayList<>(commits);
+        this.options = options;
+
+        withObjectCache(options.getObjectCache());
+    }
+
+    @Override
+    public RemoteResultWrapper<Integer> invoke(final Repository repository, final VirtualChannel channel) {
+        var log = new FilteredLog(ERRORS_TITLE);
+        var result = new RemoteResultWrapper<>(start(repository, channel, log), ERRORS_TITLE);
+        result.merge(log);
+        return result;
+    }
+
+    private int start(final Repository repository, final VirtualChannel channel, final FilteredLog log) {
+        var touchedFiles = new TouchedFilesCollector(repository).collectOf(commits, log);
+        if (touchedFiles.isEmpty()) {
+            log.logInfo("-> skipping speculative blame, the touched files cannot be determined");
+            return 0;
+        }
+        if (touchedFiles.get().size() > MAX_FILES) {
+            log.logInfo("-> skipping speculative blame, %d files have been touched (limit is %d files)",
+                    touchedFiles.get().size(), MAX_FILES);
+            return 0;
+        }
+        var locations = createLocations(repository, touchedFiles.get(), log);
+        if (locations.size() == 0) {
+            log.logInfo("-> skipping speculative blame, no existing files have been touched");
+            return 0;
+        }
+
+        var registered = SpeculativeBlames.register(build, repository.getDirectory(), headCommit, locations.size());
+        if (registered.isEmpty()) {
+            log.logInfo("-> skipping speculative blame, commit '%s' is already blamed", headCommit.getName());
+            return 0;
+        }
+
+        var blames = registered.get();
+        repository.incrementOpen(); // the repository will be closed by the background task or on cancellation
+        blames.start(EXECUTOR, repository, open -> blame(open, channel, locations, blames));
+        log.logInfo("-> started speculative blame of %d files touched by %d new commits",
+                locations.size(), commits.size());
+        return locations.size();
+    }
+
+    /**
+     * Creates the locations of all lines of the specified files. Files that do not exist in the head commit (since they
+     * have been deleted or renamed) are skipped.
+     *
+     * @param repository
+     *         the repository
+     * @param files
+     *         the touched files
+     * @param log
+     *         the logger
+     *
+     * @return the locations to blame
+     */
+    private FileLocations createLocations(final Repository repository, final Set<String> files,
+            final FilteredLog log) {
+        var locations = new FileLocations();
+        try (var reader = repository.newObjectReader()) {
+            for (String file : new TreeSet<>(files)) {
+                var blob = FileProbe.findBlob(reader, headCommit, file);
+                if (blob.isPresent()) {
+                    int lineCount = FileProbe.countLines(reader, blob.get());
+                    for (int line = 1; line <= lineCount; line++) {
+                        locations.addLine(file, line);
+                    }
+                }
+            }
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't read the touched files of commit '%s'", headCommit.getName());
+            return new FileLocations();
+        }
+        return locations;
+    }
+
+    private void blame(final Repository repository, final VirtualChannel channel, final FileLocations locations,
+            final SpeculativeBlames blames) {
+        try {
+            new BlameCallback(locations, new Blames(), headCommit, options)
+                    .asSpeculation()
+                    .withSink(blames)
+                    .invoke(repository, channel);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.SCMListener;
+import hudson.scm.SCM;
+import hudson.scm.SCMRevisionState;
+
+import io.jenkins.plugins.forensics.git.reference.GitCommitsRecord;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
+import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.util.LogHandler;
+
+/**
+ * Starts a speculative blame of the files that have been touched by the new commits of a build, see
+ * {@link SpeculativeBlameCallback}. The new commits are taken from the {@link GitCommitsRecord} that has been recorded
+ * by the {@link io.jenkins.plugins.forensics.git.reference.GitCheckoutListener}, so this listener has a lower ordinal
+ * and runs afterward. The speculative blame is opt-in, see
+ * {@link GitForensicsConfiguration#isSpeculativeBlameEnabled()}.
+ *
+ * @author Ullrich Hafner
+ */
+@Extension(ordinal = -100)
+public class SpeculativeBlameListener extends SCMListener {
+    private final Supplier<GitForensicsConfiguration> configuration;
+
+    /**
+     * Creates a new instance of {@link SpeculativeBlameListener}.
+     */
+    public SpeculativeBlameListener() {
+        this(GitForensicsConfiguration::getInstance);
+    }
+
+    @VisibleForTesting
+    SpeculativeBlameListener(final Supplier<GitForensicsConfiguration> configuration) {
+        super();
+
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void onCheckout(final Run<?, ?> build, final SCM scm, final FilePath workspace,
+            final TaskListener listener, final File changelogFile, final SCMRevisionState pollingBaseline) {
+        var globalConfiguration = configuration.get();
+        if (!globalConfiguration.isSpeculativeBlameEnabled()) {
+            return;
+        }
+
+        var logger = new FilteredLog("Speculative blame errors:");
+        var record = GitCommitsRecord.findRecordForScm(build, scm.getKey());
+        if (record.isEmpty()) {
+            logger.logInfo("Skipping speculative blame, no commits have been recorded for SCM '%s'", scm.getKey());
+        }
+        else if (record.get().isFirstBuild() || record.get().isMaxCommitsReached() || record.get().isEmpty()) {
+            logger.logInfo("Skipping speculative blame, the new commits of SCM '%s' are unknown", scm.getKey());
+        }
+        else {
+            var validator = new GitRepositoryValidator(scm, build, workspace, listener, logger);
+            if (validator.isFullGitRepository()) {
+                BlameCleanup.register(build, workspace);
+                startBlame(build, record.get(), validator, GitBlamerFactory.createOptions(globalConfiguration, build,
+                        validator), logger);
+            }
+        }
+
+        var logHandler = new LogHandler(listener, "SpeculativeBlameListener");
+        logHandler.log(logger);
+    }
+
+    private void startBlame(final Run<?, ?> build, final GitCommitsRecord record,
+            final GitRepositoryValidator validator, final BlameOptions options, final FilteredLog logger) {
+        try {
+            logger.logInfo("Starting speculative blame of the files touched by %d new commits", record.size());
+            RemoteResultWrapper<Integer> result = validator.createClient().withRepository(
+                    new SpeculativeBlameCallback(build.getExternalizableId(),
+                            ObjectId.fromString(record.getLatestCommit()), record.getCommits(), options));
+            logger.merge(result);
+        }
+        catch (IOException | InterruptedException | IllegalArgumentException exception) {
+            logger.logException(exception, "Unable to start speculative blame of git repository '%s'",
+                    validator.getId());
+        }
+    }
+}
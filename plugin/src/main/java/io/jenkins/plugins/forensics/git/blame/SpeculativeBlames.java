@@ -0,0 +1,232 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import io.jenkins.plugins.forensics.blame.FileBlame;
+
+/**
+ * The blames that are computed speculatively in the background right after the checkout, see
+ * {@link SpeculativeBlameCallback}. The blames are stored in the JVM of the agent and are identified by the Git
+ * directory of the working tree and the blamed head commit. The blames of the files are received in batches, so
+ * subsequent blame computations can reuse all files that have been blamed so far, even if the speculative blame is
+ * still running. The speculative blame belongs to the build that has triggered it: when this build has been completed,
+ * then the background task is cancelled, the repository is closed, and the blames are discarded, see
+ * {@link BlameCleanup}. Additionally, the number of stored speculative blames is bounded: if the limit is reached, then
+ * the least recently used blames will be discarded and their background task will be cancelled.
+ *
+ * @author Ullrich Hafner
+ */
+class SpeculativeBlames implements BlameSink {
+    private static final int MAX_ENTRIES = 4;
+
+    @SuppressWarnings("serial")
+    private static final Map<String, SpeculativeBlames> ENTRIES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Entry<String, SpeculativeBlames> eldest) {
+            if (size() > MAX_ENTRIES) {
+                eldest.getValue().cancel();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Registers new speculative blames for the specified working tree and head commit. If there are already
+     * speculative blames registered, then these will be returned instead.
+     *
+     * @param build
+     *         the ID of the build that triggers the speculative blame, see
+     *         {@link hudson.model.Run#getExternalizableId()}
+     * @param gitDirectory
+     *         the Git directory of the working tree
+     * @param headCommit
+     *         the head commit that will be blamed
+     * @param total
+     *         the number of files that will be blamed
+     *
+     * @return the registered blames, or an empty optional if blames already have been registered
+     */
+    static Optional<SpeculativeBlames> register(final String build, final File gitDirectory,
+            final AnyObjectId headCommit, final int total) {
+        synchronized (ENTRIES) {
+            var key = createKey(gitDirectory, headCommit);
+            if (ENTRIES.containsKey(key)) {
+                return Optional.empty();
+            }
+            var blames = new SpeculativeBlames(build, total);
+            ENTRIES.put(key, blames);
+            return Optional.of(blames);
+        }
+    }
+
+    /**
+     * Cancels the speculative blames of the specified build and discards their results.
+     *
+     * @param build
+     *         the ID of the build, see {@link hudson.model.Run#getExternalizableId()}
+     */
+    static void cancel(final String build) {
+        List<SpeculativeBlames> cancelled = new ArrayList<>();
+        synchronized (ENTRIES) {
+            var iterator = ENTRIES.values().iterator();
+            while (iterator.hasNext()) {
+                var blames = iterator.next();
+                if (blames.build.equals(build)) {
+                    cancelled.add(blames);
+                    iterator.remove();
+                }
+            }
+        }
+        cancelled.forEach(SpeculativeBlames::cancel);
+    }
+
+    /**
+     * Finds the speculative blames for the specified working tree and head commit.
+     *
+     * @param gitDirectory
+     *         the Git directory of the working tree
+     * @param headCommit
+     *         the blamed head commit
+     *
+     * @return the speculative blames, or an empty optional if there are no such blames
+     */
+    static Optional<SpeculativeBlames> find(final File gitDirectory, final AnyObjectId headCommit) {
+        synchronized (ENTRIES) {
+            return Optional.ofNullable(ENTRIES.get(createKey(gitDirectory, headCommit)));
+        }
+    }
+
+    private static String createKey(final File gitDirectory, final AnyObjectId headCommit) {
+        return gitDirectory.getAbsolutePath() + '\0' + headCommit.name();
+    }
+
+    private final Map<String, FileBlame> blames = new ConcurrentHashMap<>();
+    private final String build;
+    private final int total;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean finished;
+    @CheckForNull
+    private Repository repository;
+    @CheckForNull
+    private Future<?> task;
+
+    SpeculativeBlames(final String build, final int total) {
+        this.build = build;
+        this.total = total;
+    }
+
+    /**
+     * Starts the speculative blame in the background. The ownership of the repository is transferred to these blames:
+     * the repository will be closed when the blame has been finished or when the blame has been cancelled.
+     *
+     * @param executor
+     *         the executor that runs the blame
+     * @param openRepository
+     *         the repository to blame, the caller must have incremented the open count
+     * @param blame
+     *         the blame computation
+     */
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    synchronized void start(final ExecutorService executor, final Repository openRepository,
+            final Consumer<Repository> blame) {
+        repository = openRepository;
+        task = executor.submit(() -> {
+            if (started.compareAndSet(false, true)) {
+                try (openRepository) {
+                    blame.accept(openRepository);
+                }
+                finally {
+                    finish();
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels the speculative blame. A running blame will be interrupted, a blame that has not been started yet will
+     * not be started anymore. In both cases the repository will be closed.
+     */
+    void cancel() {
+        Future<?> running;
+        Repository open;
+        synchronized (this) {
+            running = task;
+            open = repository;
+        }
+        if (running != null) {
+            running.cancel(true);
+        }
+        if (started.compareAndSet(false, true)) {
+            if (open != null) {
+                open.close();
+            }
+            finish();
+        }
+    }
+
+    @Override
+    public void accept(final CompactBlames batch) {
+        var expanded = batch.expand();
+        for (String file : expanded.getFiles()) {
+            blames.put(file, expanded.getBlame(file));
+        }
+    }
+
+    /**
+     * Marks the speculative blame as finished. Files that have not been received until now will not be blamed anymore.
+     */
+    void finish() {
+        finished = true;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the number of files that should be blamed speculatively.
+     *
+     * @return the number of files
+     */
+    int getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the number of files that have been blamed so far.
+     *
+     * @return the number of files
+     */
+    int size() {
+        return blames.size();
+    }
+
+    /**
+     * Returns the blame of the specified file, if the file has been blamed already.
+     *
+     * @param file
+     *         the relative path of the file
+     *
+     * @return the blame of the file, or an empty optional if the file has not been blamed (yet)
+     */
+    Optional<FileBlame> get(final String file) {
+        return Optional.ofNullable(blames.get(file));
+    }
+}
@@ -0,0 +1,198 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Collects the files that have been touched since a start commit. A file is touched if its content in the tree of the
+ * head commit differs from its content in the tree of the start commit, i.e., if it has been added, modified, or
+ * deleted. The files are determined by a single diff of these two trees, so merge commits in between are handled
+ * correctly and the commits in between are not walked at all. The files that have been touched by individual commits
+ * can be collected as well, then merge commits touch only those files that differ from all parents.
+ *
+ * @author Ullrich Hafner
+ */
+class TouchedFilesCollector {
+    private final Repository repository;
+
+    TouchedFilesCollector(final Repository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Returns the files that differ between the trees of the start commit and the head commit.
+     *
+     * @param start
+     *         the start revision
+     * @param head
+     *         the head commit
+     * @param log
+     *         the logger
+     *
+     * @return the touched files, or an empty optional if the files cannot be determined, e.g., if the start commit
+     *         is unknown
+     */
+    Optional<Set<String>> collect(final String start, final ObjectId head, final FilteredLog log) {
+        try (var walk = new RevWalk(repository); var treeWalk = createTreeWalk(walk.getObjectReader())) {
+            var startId = repository.resolve(start + "^{commit}");
+            if (startId == null) {
+                log.logInfo("-> previous commit '%s' is not part of the repository", start);
+                return Optional.empty();
+            }
+            treeWalk.addTree(walk.parseCommit(startId).getTree());
+            treeWalk.addTree(walk.parseCommit(head).getTree());
+
+            Set<String> touched = new HashSet<>();
+            while (treeWalk.next()) {
+                touched.add(treeWalk.getPathString());
+            }
+            return Optional.of(touched);
+        }
+        catch (MissingObjectException exception) {
+            log.logInfo("-> previous commit '%s' is not part of the repository", start);
+            return Optional.empty();
+        }
+        catch (IOException | RevisionSyntaxException exception) {
+            log.logException(exception, "Can't determine the files touched since commit '%s'", start);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the files that have been touched by the commits since the merge base of the reference commit and the
+     * head commit. For a pull request or feature branch, these are all files that have been changed in the branch.
+     *
+     * @param reference
+     *         the reference revision, e.g., the latest commit of the target branch
+     * @param head
+     *         the head commit
+     * @param log
+     *         the logger
+     *
+     * @return the touched files, or an empty optional if the files cannot be determined, e.g., if the reference commit
+     *         is unknown or has no common history with the head commit
+     */
+    Optional<Set<String>> collectSinceMergeBase(final String reference, final ObjectId head, final FilteredLog log) {
+        try (var walk = new RevWalk(repository)) {
+            var referenceId = repository.resolve(reference + "^{commit}");
+            if (referenceId == null) {
+                log.logInfo("-> reference commit '%s' is not part of the repository", reference);
+                return Optional.empty();
+            }
+            walk.setRevFilter(RevFilter.MERGE_BASE);
+            walk.markStart(walk.parseCommit(referenceId));
+            walk.markStart(walk.parseCommit(head));
+            var mergeBase = walk.next();
+            if (mergeBase == null) {
+                log.logInfo("-> reference commit '%s' has no common history with commit '%s'",
+                        reference, head.getName());
+                return Optional.empty();
+            }
+            log.logInfo("-> merge base of reference commit '%s' is '%s'", reference, mergeBase.getName());
+            return collect(mergeBase.getName(), head, log);
+        }
+        catch (MissingObjectException exception) {
+            log.logInfo("-> reference commit '%s' is not part of the repository", reference);
+            return Optional.empty();
+        }
+        catch (IOException | RevisionSyntaxException exception) {
+            log.logException(exception, "Can't determine the merge base of reference commit '%s'", reference);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the files that have been touched by the specified commits.
+     *
+     * @param commits
+     *         the IDs of the commits
+     * @param log
+     *         the logger
+     *
+     * @return the touched files, or an empty optional if the files cannot be determined, e.g., if one of the commits
+     *         is unknown
+     */
+    Optional<Set<String>> collectOf(final Collection<String> commits, final FilteredLog log) {
+        Set<String> touched = new HashSet<>();
+        try (var reader = repository.newObjectReader();
+                var walk = new RevWalk(reader);
+                var treeWalk = createTreeWalk(reader)) {
+            for (String commit : commits) {
+                addTouchedFiles(walk, treeWalk, walk.parseCommit(ObjectId.fromString(commit)), touched);
+            }
+            return Optional.of(touched);
+        }
+        catch (MissingObjectException exception) {
+            log.logInfo("-> commit '%s' is not part of the repository", exception.getObjectId().getName());
+            return Optional.empty();
+        }
+        catch (IOException | IllegalArgumentException exception) {
+            log.logException(exception, "Can't determine the files touched by %d commits", commits.size());
+            return Optional.empty();
+        }
+    }
+
+    private TreeWalk createTreeWalk(final ObjectReader reader) {
+        var treeWalk = new TreeWalk(reader);
+        treeWalk.setRecursive(true);
+        treeWalk.setFilter(TreeFilter.ANY_DIFF);
+        return treeWalk;
+    }
+
+    private void addTouchedFiles(final RevWalk walk, final TreeWalk treeWalk, final RevCommit commit,
+            final Set<String> touched) throws IOException {
+        treeWalk.reset();
+        int parentCount = commit.getParentCount();
+        if (parentCount == 0) {
+            treeWalk.addTree(new EmptyTreeIterator());
+        }
+        for (RevCommit parent : commit.getParents()) {
+            treeWalk.addTree(walk.parseCommit(parent).getTree());
+        }
+        treeWalk.addTree(commit.getTree());
+
+        int commitIndex = Math.max(1, parentCount);
+        while (treeWalk.next()) {
+            if (differsFromAllParents(treeWalk, commitIndex)) {
+                touched.add(treeWalk.getPathString());
+            }
+        }
+    }
+
+    /**
+     * Returns whether the current entry of the specified tree walk differs from all parents. The trees of the parents
+     * must be added first to the tree walk, followed by the tree of the commit.
+     *
+     * @param treeWalk
+     *         the tree walk
+     * @param commitIndex
+     *         the index of the tree of the commit
+     *
+     * @return {@code true} if the entry of the commit differs from the entries of all parents
+     */
+    static boolean differsFromAllParents(final TreeWalk treeWalk, final int commitIndex) {
+        for (int parent = 0; parent < commitIndex; parent++) {
+            if (treeWalk.idEqual(parent, commitIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -8,6 +8,7 @@ import org.eclipse.jgit.diff.RawTextComparator;
 import org.eclipse.jgit.errors.LargeObjectException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevWalk;
 
@@ -15,13 +16,19 @@ import edu.hm.hafner.util.FilteredLog;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serial;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import hudson.remoting.VirtualChannel;
 
@@ -62,7 +69,7 @@ public class DeltaRepositoryCallback extends AbstractRepositoryCallback<RemoteRe
 
     @Override
     public RemoteResultWrapper<Delta> invoke(final Repository repository, final VirtualChannel channel)
-            throws IOException {
+            throws IOException, InterruptedException {
         return calculateDelta(repository);
     }
 
@@ -76,44 +83,54 @@ public class DeltaRepositoryCallback extends AbstractRepositoryCallback<RemoteRe
      * @return a serializable wrapper containing the delta
      * @throws IOException
      *         if communicating with Git failed
+     * @throws InterruptedException
+     *         if the computation has been interrupted by the user
      */
-    private RemoteResultWrapper<Delta> calculateDelta(final Repository repository) throws IOException {
+    private RemoteResultWrapper<Delta> calculateDelta(final Repository repository)
+            throws IOException, InterruptedException {
         var title = "Errors while computing Git delta in %s:".formatted(repository.getIdentifier());
         try (var walk = new RevWalk(repository)) {
             var currentCommit = walk.parseCommit(ObjectId.fromString(currentCommitId));
             var referenceCommit = walk.parseCommit(ObjectId.fromString(referenceCommitId));
 
-            var diffStream = new ByteArrayOutputStream();
-
             FilteredLog log = new FilteredLog(title);
+            var objectCache = installObjectCache(log);
             log.logInfo("-> Start scanning for differences between commits...");
 
-            try (var diffFormatter = new DiffFormatter(diffStream)) {
-                diffFormatter.setDiffComparator(RawTextComparator.WS_IGNORE_ALL);
-                diffFormatter.setRepository(repository);
-                // enabling rename detection requires a set repository
-                diffFormatter.setDetectRenames(true);
-
+            try (var diffFormatter = createDiffFormatter(OutputStream.nullOutputStream(), repository)) {
                 final List<DiffEntry> diffEntries = diffFormatter.scan(referenceCommit, currentCommit);
-                final Map<String, FileChanges> fileChangesMap = new HashMap<>();
-
                 log.logInfo("-> %d files contain changes", diffEntries.size());
 
-                for (DiffEntry diffEntry : diffEntries) {
-                    var fileEditType = getFileEditType(diffEntry.getChangeType());
-                    var fileChanges = createFileChanges(fileEditType, diffEntry, diffFormatter, repository);
+                var fileChanges = new FileChanges[diffEntries.size()];
+                var diffs = new String[diffEntries.size()];
+                try (var pool = createWorkerPool(diffEntries.size(), log)) {
+                    log.logInfo("-> Computing the changes of the files using %s", pool.describe());
+                    var next = new AtomicInteger();
+                    List<Future<Void>> results = new ArrayList<>();
+                    for (int i = 0; i < pool.getWorkers(); i++) {
+                        results.add(pool.submit(
+                                new DiffWorker(repository, diffEntries, next, fileChanges, diffs)));
+                    }
+                    for (Future<Void> result : results) {
+                        getResultOf(result);
+                    }
+                }
 
-                    var fileId = getFileId(diffEntry, fileEditType);
-                    fileChangesMap.put(fileId, fileChanges);
+                final Map<String, FileChanges> fileChangesMap = new HashMap<>();
+                var diffFile = new StringBuilder();
+                for (int i = 0; i < diffEntries.size(); i++) {
+                    var diffEntry = diffEntries.get(i);
+                    fileChangesMap.put(getFileId(diffEntry, getFileEditType(diffEntry.getChangeType())),
+                            fileChanges[i]);
+                    diffFile.append(diffs[i]);
                 }
 
                 log.logInfo("-> Creating the Git diff file");
-                var diffFile = diffStream.toString(StandardCharsets.UTF_8);
-
-                var delta = new GitDelta(currentCommitId, referenceCommitId, fileChangesMap, diffFile);
+                var delta = new GitDelta(currentCommitId, referenceCommitId, fileChangesMap, diffFile.toString());
                 RemoteResultWrapper<Delta> wrapper = new RemoteResultWrapper<>(delta, title);
 
                 log.logInfo("-> Git code delta successfully calculated");
+                objectCache.log(log);
                 wrapper.merge(log);
 
                 return wrapper;
@@ -129,6 +146,30 @@ public class DeltaRepositoryCallback extends AbstractRepositoryCallback<RemoteRe
         }
     }
 
+    private static DiffFormatter createDiffFormatter(final OutputStream diffStream, final Repository repository) {
+        var diffFormatter = new DiffFormatter(diffStream);
+        diffFormatter.setDiffComparator(RawTextComparator.WS_IGNORE_ALL);
+        diffFormatter.setRepository(repository);
+        // enabling rename detection requires a set repository
+        diffFormatter.setDetectRenames(true);
+        return diffFormatter;
+    }
+
+    private void getResultOf(final Future<Void> result) throws IOException, InterruptedException {
+        try {
+            result.get();
+        }
+        catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
     /**
      * Gets the ID of the edited file, which is represented by the passed {@link DiffEntry}. If it is a deleted file,
      * the old ID before the edit is taken in order to provide always unique IDs.
@@ -159,21 +200,21 @@ public class DeltaRepositoryCallback extends AbstractRepositoryCallback<RemoteRe
      *         The wrapper created by Git which contains the made changes to a specific file
      * @param diffFormatter
      *         The Git formatter for a patch script
-     * @param repository
-     *         The Git repository
+     * @param reader
+     *         The reader for the objects of the Git repository
      *
      * @return the information about changes made to a specific file
      * @throws IOException
      *         if accessing Git resources failed
      */
     private FileChanges createFileChanges(final FileEditType fileEditType, final DiffEntry diffEntry,
-            final DiffFormatter diffFormatter, final Repository repository)
+            final DiffFormatter diffFormatter, final ObjectReader reader)
             throws IOException {
         String filePath;
         String oldFilePath;
         String fileContent;
         if (fileEditType == FileEditType.DELETE) {
-            fileContent = getFileContent(diffEntry.getOldId().toObjectId(), repository);
+            fileContent = getFileContent(diffEntry.getOldId().toObjectId(), reader);
             oldFilePath = diffEntry.getOldPath();
             filePath = "";
         }
@@ -184,7 +225,7 @@ public class DeltaRepositoryCallback extends AbstractRepositoryCallback<RemoteRe
             else {
                 oldFilePath = diffEntry.getOldPath();
             }
-            fileContent = getFileContent(diffEntry.getNewId().toObjectId(), repository);
+            fileContent = getFileContent(diffEntry.getNewId().toObjectId(), reader);
             filePath = diffEntry.getNewPath();
         }
 
@@ -205,16 +246,16 @@ public class DeltaRepositoryCallback extends AbstractRepositoryCallback<RemoteRe
      *
      * @param fileId
      *         The file id
-     * @param repository
-     *         The Git repository
+     * @param reader
+     *         The reader for the objects of the Git repository
      *
      * @return the file content
      * @throws IOException
      *         if reading failed
      */
-    private String getFileContent(final ObjectId fileId, final Repository repository) throws IOException {
-        try (var objectDatabase = repository.getObjectDatabase()) {
-            var objectLoader = objectDatabase.open(fileId);
+    private String getFileContent(final ObjectId fileId, final ObjectReader reader) throws IOException {
+        try {
+            var objectLoader = reader.open(fileId);
             if (objectLoader.isLarge()) {
                 return new String(objectLoader.getCachedBytes(1000),
                         StandardCharsets.UTF_8);
@@ -291,4 +332,47 @@ public class DeltaRepositoryCallback extends AbstractRepositoryCallback<RemoteRe
         }
         return Optional.empty();
     }
+
+    /**
+     * Computes the changes of the files in parallel. Each worker takes the next file from the list of changed files
+     * and uses its own diff formatter and object reader. The results are stored at the index of the file, so the diff
+     * file is created in the same order as the list of changed files.
+     */
+    private final class DiffWorker implements Callable<Void> {
+        private final Repository repository;
+        private final List<DiffEntry> diffEntries;
+        private final AtomicInteger next;
+        private final FileChanges[] fileChanges;
+        private final String[] diffs;
+
+        DiffWorker(final Repository repository, final List<DiffEntry> diffEntries, final AtomicInteger next,
+                final FileChanges[] fileChanges, final String[] diffs) {
+            this.repository = repository;
+            this.diffEntries = diffEntries;
+            this.next = next;
+            this.fileChanges = fileChanges;
+            this.diffs = diffs;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            var diffStream = new ByteArrayOutputStream();
+            try (var diffFormatter = createDiffFormatter(diffStream, repository);
+                    var reader = repository.newObjectReader()) {
+                for (int index = next.getAndIncrement(); index < diffEntries.size(); index = next.getAndIncrement()) {
+                    var diffEntry = diffEntries.get(index);
+                    diffStream.reset();
+                    fileChanges[index] = createFileChanges(getFileEditType(diffEntry.getChangeType()), diffEntry,
+                            diffFormatter, reader);
+                    diffFormatter.flush();
+                    diffs[index] = diffStream.toString(StandardCharsets.UTF_8);
+
+                    if (Thread.currentThread().isInterrupted()) { // Cancel request by user
+                        break;
+                    }
+                }
+            }
+            return null;
+        }
+    }
 }
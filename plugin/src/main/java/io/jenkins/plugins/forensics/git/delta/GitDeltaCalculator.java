@@ -16,6 +16,7 @@ import io.jenkins.plugins.forensics.delta.Delta;
 import io.jenkins.plugins.forensics.delta.DeltaCalculator;
 import io.jenkins.plugins.forensics.git.reference.GitCommitsRecord;
 import io.jenkins.plugins.forensics.git.util.GitCommitTextDecorator;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
 
 /**
@@ -35,6 +36,8 @@ public class GitDeltaCalculator extends DeltaCalculator {
     @SuppressWarnings("serial")
     private final GitClient git;
     private final String scmKey;
+    private final ObjectCacheOptions objectCache;
+    private boolean virtualThreads = false;
 
     /**
      * Constructor for an instance of {@link DeltaCalculator} which can be used for Git.
@@ -45,10 +48,40 @@ public class GitDeltaCalculator extends DeltaCalculator {
      *         the key of the SCM repository (substring that must be part of the SCM key)
      */
     public GitDeltaCalculator(final GitClient git, final String scmKey) {
+        this(git, scmKey, new ObjectCacheOptions());
+    }
+
+    /**
+     * Constructor for an instance of {@link DeltaCalculator} which can be used for Git.
+     *
+     * @param git
+     *         The {@link GitClient}
+     * @param scmKey
+     *         the key of the SCM repository (substring that must be part of the SCM key)
+     * @param objectCache
+     *         the options of the JGit object cache
+     */
+    public GitDeltaCalculator(final GitClient git, final String scmKey, final ObjectCacheOptions objectCache) {
         super();
 
         this.git = git;
         this.scmKey = scmKey;
+        this.objectCache = objectCache;
+    }
+
+    /**
+     * Determines whether the changes of the files should be computed on virtual threads, see
+     * {@link io.jenkins.plugins.forensics.git.util.WorkerPool}.
+     *
+     * @param enabled
+     *         {@code true} if virtual threads should be used if the JVM of the agent supports them
+     *
+     * @return this
+     */
+    GitDeltaCalculator withVirtualThreads(final boolean enabled) {
+        virtualThreads = enabled;
+
+        return this;
     }
 
     @Override
@@ -68,7 +101,9 @@ public class GitDeltaCalculator extends DeltaCalculator {
                         git.getWorkTree().getRemote());
                 try {
                     RemoteResultWrapper<Delta> wrapped = git.withRepository(
-                            new DeltaRepositoryCallback(currentCommit, referenceCommit));
+                            new DeltaRepositoryCallback(currentCommit, referenceCommit)
+                                    .withObjectCache(objectCache)
+                                    .withVirtualThreads(virtualThreads));
                     wrapped.getInfoMessages().forEach(log::logInfo);
                     wrapped.getErrorMessages().forEach(log::logError);
                     return Optional.of(wrapped.getResult());
@@ -2,8 +2,10 @@ package io.jenkins.plugins.forensics.git.delta;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
+import edu.hm.hafner.util.VisibleForTesting;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import hudson.Extension;
 import hudson.FilePath;
@@ -13,7 +15,9 @@ import hudson.scm.SCM;
 
 import io.jenkins.plugins.forensics.delta.DeltaCalculator;
 import io.jenkins.plugins.forensics.delta.DeltaCalculatorFactory;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 
 /**
  * A {@link DeltaCalculatorFactory} for Git.
@@ -22,6 +26,22 @@ import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
  */
 @Extension
 public class GitDeltaCalculatorFactory extends DeltaCalculatorFactory {
+    private final Supplier<GitForensicsConfiguration> configuration;
+
+    /**
+     * Creates a new instance of {@link GitDeltaCalculatorFactory}.
+     */
+    public GitDeltaCalculatorFactory() {
+        this(GitForensicsConfiguration::getInstance);
+    }
+
+    @VisibleForTesting
+    GitDeltaCalculatorFactory(final Supplier<GitForensicsConfiguration> configuration) {
+        super();
+
+        this.configuration = configuration;
+    }
+
     @Override
     public Optional<DeltaCalculator> createDeltaCalculator(final SCM scm, final Run<?, ?> run, final FilePath workspace,
             final TaskListener listener, final FilteredLog logger) {
@@ -30,7 +50,9 @@ public class GitDeltaCalculatorFactory extends DeltaCalculatorFactory {
             var client = validator.createClient();
             logger.logInfo("-> Git delta calculator successfully created for SCM '%s' in working tree '%s'",
                     scm, new PathUtil().getAbsolutePath(client.getWorkTree().getRemote()));
-            return Optional.of(new GitDeltaCalculator(client, scm.getKey()));
+            return Optional.of(new GitDeltaCalculator(client, scm.getKey(),
+                    ObjectCacheOptions.from(configuration.get()))
+                    .withVirtualThreads(configuration.get().isVirtualThreadsEnabled()));
         }
         logger.logInfo("-> Git Delta Calculator could not be created for SCM '%s' in working tree '%s'", scm,
                 workspace);
@@ -1,84 +1,383 @@
 package io.jenkins.plugins.forensics.git.miner;
 
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.treewalk.AbstractTreeIterator;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.TreeStringBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
+import io.jenkins.plugins.forensics.git.util.WorkerPool;
 import io.jenkins.plugins.forensics.miner.CommitDiffItem;
 
 /**
  * Analyzes the new Git repository commits since a previous commit ID and creates {@link CommitDiffItem} instances for all
  * changes.
  *
+ * <p>
+ * The diffs of the commits are independent of each other, so they are computed in parallel. The new commits are
+ * partitioned into chunks of consecutive commits, each worker takes the next chunk and processes it in its own
+ * {@link MiningSession}. The created {@link CommitDiffItem} instances are returned in the order of the
+ * new commits.
+ * </p>
+ *
+ * <p>
+ * If the mining has been bounded by a {@link MiningWindow} and older commits are missing, then the start commit of the
+ * bounded walk and the oldest mined commit are provided. Subsequent builds use these commits to analyze the next older
+ * commits, see {@link #runBackfill(Repository, String, String, PathGlobs, int, FilteredLog)}.
+ * </p>
+ *
  * @author Giulia Del Bravo
  * @author Ullrich Hafner
  */
 class CommitAnalyzer {
-    List<CommitDiffItem> run(final Repository repository, final Git git,
-            final String latestCommitOfPreviousBuild,
-            final FilteredLog logger) throws IOException, GitAPIException {
-        List<RevCommit> newRevCommits = new CommitCollector().findAllCommits(
-                repository, git, latestCommitOfPreviousBuild, logger);
+    private static final String ERRORS_TITLE = "Errors while mining the Git repository:";
+    static final int CHUNK_SIZE = 64;
+
+    private final BiFunction<Integer, FilteredLog, WorkerPool> workerPools;
+    private boolean truncated;
+    private String startCommitId = StringUtils.EMPTY;
+    private String oldestCommitId = StringUtils.EMPTY;
+
+    CommitAnalyzer() {
+        this((tasks, log) -> WorkerPool.create(false, tasks, log));
+    }
+
+    CommitAnalyzer(final BiFunction<Integer, FilteredLog, WorkerPool> workerPools) {
+        this.workerPools = workerPools;
+    }
+
+    List<CommitDiffItem> run(final Repository repository, final String latestCommitOfPreviousBuild,
+            final FilteredLog logger) throws IOException, InterruptedException {
+        return run(repository, latestCommitOfPreviousBuild, new PathGlobs(), logger);
+    }
+
+    List<CommitDiffItem> run(final Repository repository, final String latestCommitOfPreviousBuild,
+            final PathGlobs paths, final FilteredLog logger) throws IOException, InterruptedException {
+        return run(repository, latestCommitOfPreviousBuild, paths, new MiningWindow(), logger);
+    }
+
+    List<CommitDiffItem> run(final Repository repository, final String latestCommitOfPreviousBuild,
+            final PathGlobs paths, final MiningWindow window, final FilteredLog logger)
+            throws IOException, InterruptedException {
+        resetBoundary();
+        var filter = paths.createTreeFilter();
+        if (!paths.isEmpty()) {
+            logger.logInfo("Mining only the files that match the path globs (%s)", paths);
+        }
+        if (window.isBounded()) {
+            logger.logInfo("Mining only %s", window);
+        }
+        var now = Instant.now();
+        List<RevCommit> newRevCommits = new CommitCollector().findAllCommits(repository,
+                latestCommitOfPreviousBuild, filter, window.createRevFilter(now), logger);
         if (newRevCommits.isEmpty()) {
+            if (window.isBounded() && hasCommitsOutsideOf(repository, window.createRevFilter(now))) {
+                markTruncated(repository.resolve(Constants.HEAD), StringUtils.EMPTY);
+            }
             logger.logInfo("No commits found since previous commit '%s'", latestCommitOfPreviousBuild);
+
+            return List.of();
         }
         logger.logInfo("Found %d commits", newRevCommits.size());
 
+        var oldestCommit = newRevCommits.get(newRevCommits.size() - 1);
+        var previousCommit = findPreviousCommit(repository, latestCommitOfPreviousBuild, logger);
+        if (previousCommit == null) {
+            previousCommit = findFirstParent(repository, oldestCommit, logger);
+            if (window.isBounded() && hasCommitsOutsideOf(repository, window.createRevFilter(now))) {
+                markTruncated(repository.resolve(Constants.HEAD), oldestCommit.getName());
+            }
+        }
+        return computeDiffs(repository, newRevCommits, previousCommit, filter, logger);
+    }
+
+    /**
+     * Analyzes the commits that are older than the commits of a bounded mining. The bounded walk is repeated from its
+     * start commit, all commits up to the oldest mined commit are skipped, and at most {@code limit} of the following
+     * commits are analyzed. If even older commits exist, then the analyzed commits are marked as truncated again, and
+     * the oldest analyzed commit is provided for the next run.
+     *
+     * @param repository
+     *         the repository
+     * @param start
+     *         the start commit of the bounded walk
+     * @param oldest
+     *         the oldest commit that has been mined so far, empty if no commit has been mined yet
+     * @param paths
+     *         the globs that select the mined files
+     * @param limit
+     *         the maximum number of commits to analyze
+     * @param logger
+     *         the logger
+     *
+     * @return the diffs of the older commits, the newest commit first
+     * @throws IOException
+     *         if the commits could not be read
+     * @throws InterruptedException
+     *         if the user canceled the analysis
+     */
+    List<CommitDiffItem> runBackfill(final Repository repository, final String start, final String oldest,
+            final PathGlobs paths, final int limit, final FilteredLog logger)
+            throws IOException, InterruptedException {
+        resetBoundary();
+        logger.logInfo("Mining at most %d commits older than commit '%s'", limit,
+                StringUtils.defaultIfEmpty(oldest, start));
+        var filter = paths.createTreeFilter();
+        var olderCommits = new CommitCollector().findOlderCommits(repository, start, oldest, filter, limit, logger);
+        if (olderCommits.isEmpty() || olderCommits.get().isEmpty()) {
+            logger.logInfo("No older commits found");
+
+            return List.of();
+        }
+
+        var commits = olderCommits.get();
+        if (commits.size() > limit) {
+            commits = commits.subList(0, limit);
+        }
+        logger.logInfo("Found %d older commits", commits.size());
+
+        var oldestCommit = commits.get(commits.size() - 1);
+        RevCommit previousCommit = null;
+        if (olderCommits.get().size() > limit) {
+            markTruncated(ObjectId.fromString(start), oldestCommit.getName());
+            previousCommit = findFirstParent(repository, oldestCommit, logger);
+        }
+        return computeDiffs(repository, commits, previousCommit, filter, logger);
+    }
+
+    /**
+     * Returns the files of the specified commits that still exist in the HEAD commit.
+     *
+     * @param repository
+     *         the repository
+     * @param commits
+     *         the commits with the files to look for
+     *
+     * @return the existing files
+     * @throws IOException
+     *         if the HEAD commit could not be read
+     */
+    Set<String> findExistingFiles(final Repository repository, final List<CommitDiffItem> commits)
+            throws IOException {
+        var fileNames = commits.stream()
+                .filter(commit -> !commit.isDelete())
+                .map(CommitDiffItem::getNewPath)
+                .collect(Collectors.toSet());
+        var head = repository.resolve(Constants.HEAD);
+        if (head == null || fileNames.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> existingFiles = new HashSet<>();
+        try (var walk = new RevWalk(repository); var treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(walk.parseCommit(head).getTree());
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(PathFilterGroup.createFromStrings(fileNames));
+            while (treeWalk.next()) {
+                existingFiles.add(treeWalk.getPathString());
+            }
+        }
+        return existingFiles;
+    }
+
+    private List<CommitDiffItem> computeDiffs(final Repository repository, final List<RevCommit> newRevCommits,
+            @CheckForNull final RevCommit previousCommit, final TreeFilter filter, final FilteredLog logger)
+            throws InterruptedException {
         var fileNameBuilder = new TreeStringBuilder();
-        List<CommitDiffItem> commitsOfBuild = new ArrayList<>();
-        for (int i = 0; i < newRevCommits.size(); i++) {
-            var toTree = createTreeIteratorToCompareTo(
-                    repository, newRevCommits, i, latestCommitOfPreviousBuild, logger);
-            var commit = createFromRevCommit(newRevCommits.get(i));
-            commitsOfBuild.addAll(new DiffsCollector().getDiffsForCommit(
-                    repository, git, commit, toTree, fileNameBuilder, logger));
+        var diffs = new AtomicReferenceArray<List<CommitDiffItem>>(newRevCommits.size());
+        int chunks = (newRevCommits.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        try (var pool = workerPools.apply(chunks, logger)) {
+            logger.logInfo("-> Computing the diffs of the commits using %s", pool.describe());
+            var next = new AtomicInteger();
+            List<Future<FilteredLog>> results = new ArrayList<>();
+            for (int i = 0; i < pool.getWorkers(); i++) {
+                results.add(pool.submit(new DiffWorker(repository, newRevCommits, previousCommit,
+                        filter, next, fileNameBuilder, diffs)));
+            }
+            for (Future<FilteredLog> result : results) {
+                logger.merge(getResultOf(result));
+            }
         }
         fileNameBuilder.dedup();
 
+        List<CommitDiffItem> commitsOfBuild = new ArrayList<>();
+        for (int i = 0; i < diffs.length(); i++) {
+            commitsOfBuild.addAll(Objects.requireNonNullElse(diffs.get(i), List.of()));
+        }
         return commitsOfBuild;
     }
 
-    private CommitDiffItem createFromRevCommit(final RevCommit newCommit) {
-        return new CommitDiffItem(newCommit.getName(), getAuthor(newCommit), newCommit.getCommitTime());
+    private void resetBoundary() {
+        truncated = false;
+        startCommitId = StringUtils.EMPTY;
+        oldestCommitId = StringUtils.EMPTY;
     }
 
-    private String getAuthor(final RevCommit commit) {
-        var author = commit.getAuthorIdent();
-        if (author != null) {
-            return Objects.toString(author.getEmailAddress(), author.getName());
+    private void markTruncated(@CheckForNull final ObjectId start, final String oldest) {
+        if (start == null) {
+            return;
         }
-        var committer = commit.getCommitterIdent();
-        if (committer != null) {
-            return Objects.toString(committer.getEmailAddress(), committer.getName());
+        truncated = true;
+        startCommitId = start.getName();
+        oldestCommitId = oldest;
+    }
+
+    /**
+     * Returns whether the last run has been bounded by its mining window, so that older commits have not been mined.
+     *
+     * @return {@code true} if older commits have not been mined, {@code false} otherwise
+     */
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns the start commit of the bounded walk of the last run, if the last run has been truncated.
+     *
+     * @return the start commit, empty if the last run has not been truncated
+     */
+    String getStartCommitId() {
+        return startCommitId;
+    }
+
+    /**
+     * Returns the oldest commit that has been analyzed in the bounded walk of the last run, if the last run has been
+     * truncated.
+     *
+     * @return the oldest analyzed commit, empty if no commit has been analyzed or the last run has not been truncated
+     */
+    String getOldestCommitId() {
+        return oldestCommitId;
+    }
+
+    private FilteredLog getResultOf(final Future<FilteredLog> result) throws InterruptedException {
+        try {
+            return result.get();
+        }
+        catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(exception.getCause());
         }
-        return StringUtils.EMPTY;
     }
 
-    private AbstractTreeIterator createTreeIteratorToCompareTo(final Repository repository,
-            final List<RevCommit> newCommits, final int index, final String latestCommitOfPreviousBuild,
-            final FilteredLog logger) throws IOException {
-        int compareIndex = index + 1;
-        if (compareIndex < newCommits.size()) { // compare with another commit in the list
-            return createTreeIteratorFor(newCommits.get(compareIndex).getName(), repository, logger);
+    @CheckForNull
+    private RevCommit findPreviousCommit(final Repository repository, final String latestCommitOfPreviousBuild,
+            final FilteredLog logger) {
+        if (StringUtils.isBlank(latestCommitOfPreviousBuild)) {
+            return null;
+        }
+        try (var walk = new RevWalk(repository)) {
+            var resolve = repository.resolve(latestCommitOfPreviousBuild);
+            if (resolve == null) {
+                logger.logError("No commit found with ID " + latestCommitOfPreviousBuild);
+                return null;
+            }
+            return walk.parseCommit(resolve);
+        }
+        catch (IOException | RevisionSyntaxException exception) {
+            logger.logException(exception, "Could not find previous commit " + latestCommitOfPreviousBuild);
+
+            return null;
+        }
+    }
+
+    /**
+     * Returns the first parent of the oldest collected commit. If the walk has been bounded, then the oldest commit is
+     * not a root commit and needs to be compared with its parent rather than with the empty tree.
+     *
+     * @param repository
+     *         the repository
+     * @param oldestCommit
+     *         the oldest collected commit
+     * @param logger
+     *         the logger
+     *
+     * @return the first parent, or {@code null} if the oldest commit is a root commit
+     */
+    @CheckForNull
+    private RevCommit findFirstParent(final Repository repository, final RevCommit oldestCommit,
+            final FilteredLog logger) {
+        if (oldestCommit.getParentCount() == 0) {
+            return null;
+        }
+        try (var walk = new RevWalk(repository)) {
+            return walk.parseCommit(oldestCommit.getParent(0));
         }
-        if (StringUtils.isNotBlank(latestCommitOfPreviousBuild)) {
-            return createTreeIteratorFor(latestCommitOfPreviousBuild, repository, logger);
+        catch (IOException exception) {
+            logger.logException(exception, "Could not find parent of commit " + oldestCommit.getName());
+
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the history of HEAD contains commits that are rejected by the specified window. The commits are
+     * walked without a path filter, so commits that do not touch the selected paths count as well.
+     *
+     * @param repository
+     *         the repository
+     * @param window
+     *         the filter of the mining window
+     *
+     * @return {@code true} if a parent of a commit in the window is outside the window, {@code false} if the window
+     *         covers the whole history
+     * @throws IOException
+     *         if the commits could not be read
+     */
+    private boolean hasCommitsOutsideOf(final Repository repository, final RevFilter window) throws IOException {
+        var head = repository.resolve(Constants.HEAD);
+        if (head == null) {
+            return false;
+        }
+        try (var walk = new RevWalk(repository)) {
+            walk.markStart(walk.parseCommit(head));
+            walk.setRevFilter(window);
+
+            List<RevCommit> commits = new ArrayList<>();
+            Set<ObjectId> ids = new HashSet<>();
+            for (RevCommit commit : walk) {
+                commits.add(commit);
+                ids.add(commit.getId());
+            }
+            if (commits.isEmpty()) {
+                return true; // even HEAD is outside the window
+            }
+            return commits.stream()
+                    .map(RevCommit::getParents)
+                    .flatMap(Arrays::stream)
+                    .anyMatch(parent -> !ids.contains(parent.getId()));
         }
-        return new EmptyTreeIterator();
     }
 
     static AbstractTreeIterator createTreeIteratorFor(final String commitId, final Repository repository,
@@ -105,4 +404,60 @@ class CommitAnalyzer {
             return new EmptyTreeIterator();
         }
     }
+
+    /**
+     * Computes the diffs of the new commits in parallel. Each worker takes the next chunk of consecutive commits and
+     * processes them in its own {@link MiningSession}. The results are stored at the index of the commit, so the diffs
+     * are returned in the same order as the new commits.
+     */
+    private static final class DiffWorker implements Callable<FilteredLog> {
+        private final Repository repository;
+        private final List<RevCommit> newCommits;
+        @CheckForNull
+        private final RevCommit previousCommit;
+        private final TreeFilter paths;
+        private final AtomicInteger next;
+        private final TreeStringBuilder fileNameBuilder;
+        private final AtomicReferenceArray<List<CommitDiffItem>> diffs;
+
+        DiffWorker(final Repository repository, final List<RevCommit> newCommits,
+                @CheckForNull final RevCommit previousCommit, final TreeFilter paths, final AtomicInteger next,
+                final TreeStringBuilder fileNameBuilder, final AtomicReferenceArray<List<CommitDiffItem>> diffs) {
+            this.repository = repository;
+            this.newCommits = newCommits;
+            this.previousCommit = previousCommit;
+            this.paths = paths;
+            this.next = next;
+            this.fileNameBuilder = fileNameBuilder;
+            this.diffs = diffs;
+        }
+
+        @Override
+        public FilteredLog call() {
+            var log = new FilteredLog(ERRORS_TITLE);
+            try (var session = new MiningSession(repository, fileNameBuilder, paths)) {
+                for (int chunk = next.getAndIncrement(); chunk * CHUNK_SIZE < newCommits.size();
+                        chunk = next.getAndIncrement()) {
+                    int end = Math.min(newCommits.size(), (chunk + 1) * CHUNK_SIZE);
+                    for (int index = chunk * CHUNK_SIZE; index < end; index++) {
+                        diffs.set(index, session.diff(newCommits.get(index), getCommitToCompareTo(index), log));
+                    }
+
+                    if (Thread.currentThread().isInterrupted()) { // Cancel request by user
+                        break;
+                    }
+                }
+            }
+            return log;
+        }
+
+        @CheckForNull
+        private RevCommit getCommitToCompareTo(final int index) {
+            int compareIndex = index + 1;
+            if (compareIndex < newCommits.size()) { // compare with another commit in the list
+                return newCommits.get(compareIndex);
+            }
+            return previousCommit;
+        }
+    }
 }
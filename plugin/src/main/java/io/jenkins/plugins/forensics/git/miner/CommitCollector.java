@@ -1,38 +1,154 @@
 package io.jenkins.plugins.forensics.git.miner;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import edu.hm.hafner.util.FilteredLog;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
-import one.util.streamex.StreamEx;
+import java.util.Optional;
 
 /**
- * Collects all commits for a git repository up to a given commit ID. The collected commits will be sorted ascending,
- * i.e., the list starts with the given commit ID up to the current HEAD.
+ * Collects all commits for a git repository up to a given commit ID. The collected commits will be sorted descending,
+ * i.e., the list starts with the current HEAD and ends with the first commit after the given commit ID.
+ *
+ * <p>
+ * The given commit is marked as uninteresting in the revision walk. So the walk visits exactly the commits that are
+ * reachable from HEAD but not from the given commit, even if the given commit is reachable only through the second
+ * parent of a merge. The walk stops as soon as all remaining commits are reachable from the given commit. If the given
+ * commit is not part of the repository, then the whole history is collected.
+ * </p>
+ *
+ * <p>
+ * If a path filter is given, then the walk skips all commits that do not touch any of the selected paths. If a
+ * commit filter is given (see {@link MiningWindow}), then the walk stops as soon as this filter rejects the remaining
+ * commits.
+ * </p>
+ *
+ * <p>
+ * If the mining has been bounded, then the older commits can be collected afterward: the bounded walk is repeated
+ * without bounds from its start commit, the commits up to the oldest mined commit are skipped, and the following
+ * commits are collected up to a limit. Since walking the commits is cheap compared to computing the diffs, only the
+ * collected commits need to be analyzed.
+ * </p>
  *
  * @author Giulia Del Bravo
  * @author Ullrich Hafner
  */
 class CommitCollector {
-    List<RevCommit> findAllCommits(final Repository repository, final Git git, final String latestCommitId,
-            final FilteredLog logger) throws IOException, GitAPIException {
+    List<RevCommit> findAllCommits(final Repository repository, final String latestCommitId,
+            final FilteredLog logger) throws IOException {
+        return findAllCommits(repository, latestCommitId, TreeFilter.ALL, logger);
+    }
+
+    List<RevCommit> findAllCommits(final Repository repository, final String latestCommitId,
+            final TreeFilter paths, final FilteredLog logger) throws IOException {
+        return findAllCommits(repository, latestCommitId, paths, RevFilter.ALL, logger);
+    }
+
+    List<RevCommit> findAllCommits(final Repository repository, final String latestCommitId,
+            final TreeFilter paths, final RevFilter window, final FilteredLog logger) throws IOException {
         var head = repository.resolve(Constants.HEAD);
         if (head == null) {
             logger.logError("No HEAD commit found in " + repository);
             return Collections.emptyList();
         }
-        Iterator<RevCommit> commits = git.log().add(head).call().iterator();
 
-        return StreamEx.of(commits)
-                .takeWhile(commit -> !latestCommitId.equals(commit.getName()))
-                .toList();
+        try (var walk = new RevWalk(repository)) {
+            walk.markStart(walk.parseCommit(head));
+            markUninteresting(walk, latestCommitId, logger);
+            if (paths != TreeFilter.ALL) {
+                walk.setTreeFilter(AndTreeFilter.create(paths, TreeFilter.ANY_DIFF));
+            }
+            walk.setRevFilter(window);
+
+            List<RevCommit> commits = new ArrayList<>();
+            for (RevCommit commit : walk) {
+                commits.add(commit);
+            }
+            return commits;
+        }
+    }
+
+    /**
+     * Collects the commits that follow the oldest mined commit in the walk from the start commit.
+     *
+     * @param repository
+     *         the repository
+     * @param startCommitId
+     *         the start commit of the bounded walk
+     * @param oldestCommitId
+     *         the oldest commit that has been mined so far, empty if no commit has been mined yet
+     * @param paths
+     *         the path filter of the walk
+     * @param limit
+     *         the maximum number of commits to collect
+     * @param logger
+     *         the logger
+     *
+     * @return the older commits (at most {@code limit + 1}, so the caller can detect whether even older commits
+     *         exist), or an empty optional if the start commit or the oldest commit is not part of the history anymore
+     * @throws IOException
+     *         if the commits could not be read
+     */
+    Optional<List<RevCommit>> findOlderCommits(final Repository repository, final String startCommitId,
+            final String oldestCommitId, final TreeFilter paths, final int limit, final FilteredLog logger)
+            throws IOException {
+        try (var walk = new RevWalk(repository)) {
+            walk.markStart(walk.parseCommit(ObjectId.fromString(startCommitId)));
+            if (paths != TreeFilter.ALL) {
+                walk.setTreeFilter(AndTreeFilter.create(paths, TreeFilter.ANY_DIFF));
+            }
+
+            var commit = walk.next();
+            if (ObjectId.isId(oldestCommitId)) {
+                var oldest = ObjectId.fromString(oldestCommitId);
+                while (commit != null && !commit.getId().equals(oldest)) {
+                    commit = walk.next();
+                }
+                if (commit == null) {
+                    logger.logInfo("Oldest mined commit '%s' is not part of the history of commit '%s'",
+                            oldestCommitId, startCommitId);
+                    return Optional.empty();
+                }
+                commit = walk.next();
+            }
+
+            List<RevCommit> commits = new ArrayList<>();
+            for (; commit != null && commits.size() <= limit; commit = walk.next()) {
+                commits.add(commit);
+            }
+            return Optional.of(commits);
+        }
+        catch (MissingObjectException | IncorrectObjectTypeException exception) {
+            logger.logInfo("Start commit '%s' of the partial statistics is not part of the repository",
+                    startCommitId);
+            return Optional.empty();
+        }
+    }
+
+    private void markUninteresting(final RevWalk walk, final String latestCommitId, final FilteredLog logger)
+            throws IOException {
+        if (latestCommitId == null || !ObjectId.isId(latestCommitId)) {
+            return; // initial mining: collect the whole history
+        }
+        try {
+            walk.markUninteresting(walk.parseCommit(ObjectId.fromString(latestCommitId)));
+        }
+        catch (MissingObjectException | IncorrectObjectTypeException exception) {
+            logger.logInfo("Previous commit '%s' is not part of the repository, collecting the whole history",
+                    latestCommitId);
+        }
     }
 }
@@ -30,7 +30,9 @@ import jenkins.tasks.SimpleBuildStep;
 
 import io.jenkins.plugins.forensics.git.reference.GitCommitsRecord;
 import io.jenkins.plugins.forensics.git.util.GitCommitTextDecorator;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
 import io.jenkins.plugins.forensics.miner.CommitDiffItem;
 import io.jenkins.plugins.forensics.miner.CommitStatistics;
@@ -62,6 +64,8 @@ public class CommitStatisticsStep extends Recorder implements SimpleBuildStep {
     private static final GitCommitTextDecorator RENDERER = new GitCommitTextDecorator();
 
     private String scm = StringUtils.EMPTY;
+    private String includes = StringUtils.EMPTY;
+    private String excludes = StringUtils.EMPTY;
 
     /**
      * Creates a new instance of {@link  CommitStatisticsStep}.
@@ -89,6 +93,38 @@ public class CommitStatisticsStep extends Recorder implements SimpleBuildStep {
         return scm;
     }
 
+    /**
+     * Sets the globs of the files that should be included in the statistics. Only commits that touch at least one of
+     * these files will be analyzed. The globs are matched against the path of a file relative to the repository root,
+     * e.g. {@code services/payments/**}.
+     *
+     * @param includes
+     *         comma separated globs of the files to include, empty to include all files
+     */
+    @DataBoundSetter
+    public void setIncludes(final String includes) {
+        this.includes = StringUtils.stripToEmpty(includes);
+    }
+
+    public String getIncludes() {
+        return includes;
+    }
+
+    /**
+     * Sets the globs of the files that should be excluded from the statistics. Excludes take precedence over includes.
+     *
+     * @param excludes
+     *         comma separated globs of the files to exclude
+     */
+    @DataBoundSetter
+    public void setExcludes(final String excludes) {
+        this.excludes = StringUtils.stripToEmpty(excludes);
+    }
+
+    public String getExcludes() {
+        return excludes;
+    }
+
     @Override
     public void perform(@NonNull final Run<?, ?> run, @NonNull final FilePath workspace, @NonNull final EnvVars env,
             @NonNull final Launcher launcher, @NonNull final TaskListener listener) throws InterruptedException {
@@ -191,8 +227,11 @@ public class CommitStatisticsStep extends Recorder implements SimpleBuildStep {
     @SuppressWarnings("PMD.LooseCoupling")
     private void extractStats(final Run<?, ?> run, final SCM repository, final GitClient gitClient,
             final FilteredLog logger, final String ancestor) throws IOException, InterruptedException {
+        var configuration = GitForensicsConfiguration.getInstance();
         RemoteResultWrapper<ArrayList<CommitDiffItem>> wrapped = gitClient.withRepository(
-                new RepositoryStatisticsCallback(ancestor));
+                new RepositoryStatisticsCallback(ancestor, PathGlobs.from(getIncludes(), getExcludes()))
+                        .withObjectCache(ObjectCacheOptions.from(configuration))
+                        .withVirtualThreads(configuration.isVirtualThreadsEnabled()));
         List<CommitDiffItem> commits = wrapped.getResult();
         logger.merge(wrapped);
         CommitStatistics.logCommits(commits, logger);
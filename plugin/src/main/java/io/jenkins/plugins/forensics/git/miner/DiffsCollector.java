@@ -1,15 +1,11 @@
 package io.jenkins.plugins.forensics.git.miner;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.Edit;
 import org.eclipse.jgit.diff.RenameDetector;
-import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.treewalk.AbstractTreeIterator;
-import org.eclipse.jgit.util.io.DisabledOutputStream;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.TreeStringBuilder;
@@ -27,25 +23,43 @@ import io.jenkins.plugins.forensics.miner.CommitDiffItem;
  * @author Ullrich Hafner
  */
 public class DiffsCollector {
-    List<CommitDiffItem> getDiffsForCommit(
-            final Repository repository, final Git git,
-            final CommitDiffItem fromCommit, final AbstractTreeIterator toTree,
+    /**
+     * Computes the diffs of the specified commit. The diff formatter and rename detector should be reused for all
+     * commits that are processed by the same thread.
+     *
+     * @param formatter
+     *         the diff formatter that computes the edits of the changed files
+     * @param renames
+     *         the rename detector that detects moved files
+     * @param fromCommit
+     *         the commit to compute the diffs for
+     * @param fromTree
+     *         the tree of the commit
+     * @param toTree
+     *         the tree to compare the commit with
+     * @param fileNameBuilder
+     *         the builder that interns the file names, this builder is shared by all threads
+     * @param logger
+     *         the logger
+     *
+     * @return the diffs of all changed files of the commit
+     */
+    List<CommitDiffItem> getDiffsForCommit(final DiffFormatter formatter, final RenameDetector renames,
+            final CommitDiffItem fromCommit, final AbstractTreeIterator fromTree, final AbstractTreeIterator toTree,
             final TreeStringBuilder fileNameBuilder, final FilteredLog logger) {
         List<CommitDiffItem> commits = new ArrayList<>();
-        try (var formatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-            formatter.setRepository(repository);
-            List<DiffEntry> diffEntries = git.diff()
-                    .setNewTree(CommitAnalyzer.createTreeIteratorFor(fromCommit.getId(), repository, logger))
-                    .setOldTree(toTree)
-                    .call();
-            var renames = new RenameDetector(repository);
+        try {
+            List<DiffEntry> diffEntries = formatter.scan(toTree, fromTree);
+            renames.reset();
             renames.addAll(diffEntries);
 
             for (DiffEntry entry : renames.compute()) {
                 var commit = new CommitDiffItem(fromCommit);
-                commit.setNewPath(fileNameBuilder.intern(entry.getNewPath()));
-                if (isDeleteOrRename(entry)) {
-                    commit.setOldPath(fileNameBuilder.intern(entry.getOldPath()));
+                synchronized (fileNameBuilder) {
+                    commit.setNewPath(fileNameBuilder.intern(entry.getNewPath()));
+                    if (isDeleteOrRename(entry)) {
+                        commit.setOldPath(fileNameBuilder.intern(entry.getOldPath()));
+                    }
                 }
                 for (Edit edit : formatter.toFileHeader(entry).toEditList()) {
                     commit.addLines(edit.getLengthB());
@@ -54,7 +68,7 @@ public class DiffsCollector {
                 commits.add(commit);
             }
         }
-        catch (IOException | GitAPIException exception) {
+        catch (IOException exception) {
             logger.logException(exception, "Can't compute diffs for commit " + fromCommit);
         }
         return commits;
@@ -1,8 +1,10 @@
 package io.jenkins.plugins.forensics.git.miner;
 
 import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import hudson.Extension;
 import hudson.FilePath;
@@ -10,7 +12,9 @@ import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.scm.SCM;
 
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 import io.jenkins.plugins.forensics.miner.MinerFactory;
 import io.jenkins.plugins.forensics.miner.RepositoryMiner;
 
@@ -21,6 +25,22 @@ import io.jenkins.plugins.forensics.miner.RepositoryMiner;
  */
 @Extension
 public class GitMinerFactory extends MinerFactory {
+    private final Supplier<GitForensicsConfiguration> configuration;
+
+    /**
+     * Creates a new instance of {@link GitMinerFactory}.
+     */
+    public GitMinerFactory() {
+        this(GitForensicsConfiguration::getInstance);
+    }
+
+    @VisibleForTesting
+    GitMinerFactory(final Supplier<GitForensicsConfiguration> configuration) {
+        super();
+
+        this.configuration = configuration;
+    }
+
     @Override
     public Optional<RepositoryMiner> createMiner(final SCM scm, final Run<?, ?> build, final FilePath workTree,
             final TaskListener listener, final FilteredLog logger) {
@@ -28,7 +48,14 @@ public class GitMinerFactory extends MinerFactory {
         if (validator.isFullGitRepository()) {
             logger.logInfo("-> Git miner successfully created in working tree '%s'", workTree);
 
-            return Optional.of(new GitRepositoryMiner(validator.createClient()));
+            var globalConfiguration = configuration.get();
+            return Optional.of(new GitRepositoryMiner(validator.createClient(),
+                    ObjectCacheOptions.from(globalConfiguration), globalConfiguration.isVirtualThreadsEnabled(),
+                    globalConfiguration.isCommitGraphWriteEnabled(),
+                    PathGlobs.from(globalConfiguration.getMinerIncludes(), globalConfiguration.getMinerExcludes()),
+                    new MiningWindow(globalConfiguration.getInitialMiningDays(),
+                            globalConfiguration.getInitialMiningCommits()),
+                    build));
         }
         logger.logInfo("-> Git miner could not be created for SCM '%s' in working tree '%s'", scm, workTree);
         return Optional.empty();
@@ -1,6 +1,9 @@
 package io.jenkins.plugins.forensics.git.miner;
 
+import org.apache.commons.lang3.StringUtils;
+
 import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
@@ -8,10 +11,12 @@ import java.io.Serial;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.jenkinsci.plugins.gitclient.GitClient;
+import hudson.model.Run;
 
-import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 import io.jenkins.plugins.forensics.miner.CommitDiffItem;
 import io.jenkins.plugins.forensics.miner.CommitStatistics;
 import io.jenkins.plugins.forensics.miner.RepositoryMiner;
@@ -20,6 +25,19 @@ import io.jenkins.plugins.forensics.miner.RepositoryStatistics;
 /**
  * Mines a Git repository and creates statistics for all available files.
  *
+ * <p>
+ * The initial mining of a repository can be bounded by a {@link MiningWindow}. Then the statistics contain only the
+ * commits of this window and are marked as partial using a {@link MinedHistoryAction}. Each subsequent build mines the
+ * new commits and continues the bounded walk: the commits that are older than the oldest mined commit are mined in
+ * portions of {@link MiningWindow#getBackfillLimit()} commits and merged into the previous statistics, until the
+ * statistics contain the whole history. Afterward, the builds mine only the new commits.
+ * </p>
+ *
+ * <p>
+ * The {@link PathGlobs} of the mining are recorded in the {@link MinedHistoryAction} as well. If the globs of a build
+ * differ from the globs of the previous statistics, then the repository is mined from scratch.
+ * </p>
+ *
  * @author Giulia Del Bravo
  * @author Ullrich Hafner
  * @see io.jenkins.plugins.forensics.miner.RepositoryStatistics
@@ -33,41 +51,60 @@ public class GitRepositoryMiner extends RepositoryMiner {
 
     @SuppressWarnings("serial")
     private final GitClient gitClient;
+    private final ObjectCacheOptions objectCache;
+    private final boolean virtualThreads;
+    private final boolean commitGraphWrite;
+    private final PathGlobs paths;
+    private final MiningWindow window;
+    @CheckForNull
+    private final transient Run<?, ?> build;
 
     GitRepositoryMiner(final GitClient gitClient) {
+        this(gitClient, new ObjectCacheOptions(), false, false, new PathGlobs(), new MiningWindow(), null);
+    }
+
+    GitRepositoryMiner(final GitClient gitClient, final ObjectCacheOptions objectCache,
+            final boolean virtualThreads, final boolean commitGraphWrite, final PathGlobs paths,
+            final MiningWindow window, @CheckForNull final Run<?, ?> build) {
         super();
 
         this.gitClient = gitClient;
+        this.objectCache = objectCache;
+        this.virtualThreads = virtualThreads;
+        this.commitGraphWrite = commitGraphWrite;
+        this.paths = paths;
+        this.window = window;
+        this.build = build;
     }
 
     @Override
-    @SuppressWarnings("PMD.LooseCoupling")
     public RepositoryStatistics mine(final RepositoryStatistics previous, final FilteredLog logger)
             throws InterruptedException {
         try {
             long nano = System.nanoTime();
             logger.logInfo("Analyzing the commit log of the Git repository '%s'",
                     gitClient.getWorkTree());
-            RemoteResultWrapper<ArrayList<CommitDiffItem>> wrapped = gitClient.withRepository(
-                    new RepositoryStatisticsCallback(previous.getLatestCommitId()));
-            logger.merge(wrapped);
 
-            List<CommitDiffItem> commits = wrapped.getResult();
-            logger.logInfo("-> Created report in %d seconds", 1 + (System.nanoTime() - nano) / 1_000_000_000L);
-            CommitStatistics.logCommits(commits, logger);
-
-            String latestCommitId;
-            if (commits.isEmpty()) {
-                latestCommitId = previous.getLatestCommitId();
+            var previousCommitId = previous.getLatestCommitId();
+            var previousHistory = findPreviousHistory(previousCommitId);
+            var previousPaths = previousHistory.map(MinedHistoryAction::getPaths).orElseGet(PathGlobs::new);
+            if (haveGlobsChanged(previousCommitId, previousPaths)) {
+                logger.logInfo("-> The globs of the previous statistics differ from %s, mining from scratch", paths);
+                return mine(new RepositoryStatistics(), StringUtils.EMPTY,
+                        createCallback(StringUtils.EMPTY, window), nano, logger);
             }
-            else {
-                latestCommitId = commits.get(0).getId();
+            if (StringUtils.isBlank(previousCommitId)) {
+                return mine(previous, previousCommitId, createCallback(previousCommitId, window), nano, logger);
             }
-            var current = new RepositoryStatistics(latestCommitId);
-            current.addAll(previous);
-            Collections.reverse(commits); // make sure that we start with old commits to preserve the history
-            current.addAll(commits);
-            return current;
+            var callback = createCallback(previousCommitId, new MiningWindow());
+            if (previousHistory.isPresent() && previousHistory.get().isPartial()) {
+                var history = previousHistory.get();
+                logger.logInfo("-> The statistics of the previous build are partial, adding at most %d older commits",
+                        window.getBackfillLimit());
+                callback.withBackfill(history.getStartCommitId(), history.getOldestCommitId(),
+                        window.getBackfillLimit());
+            }
+            return mine(previous, previousCommitId, callback, nano, logger);
         }
         catch (IOException exception) {
             logger.logException(exception,
@@ -75,4 +112,84 @@ public class GitRepositoryMiner extends RepositoryMiner {
             return new RepositoryStatistics();
         }
     }
+
+    private RepositoryStatistics mine(final RepositoryStatistics previous, final String previousCommitId,
+            final RepositoryStatisticsCallback callback, final long nano, final FilteredLog logger)
+            throws IOException, InterruptedException {
+        var mined = gitClient.withRepository(callback);
+        logger.merge(mined);
+
+        List<CommitDiffItem> commits = mined.getResult();
+        logger.logInfo("-> Created report in %d seconds", 1 + (System.nanoTime() - nano) / 1_000_000_000L);
+        CommitStatistics.logCommits(commits, logger);
+
+        String latestCommitId = commits.isEmpty() ? previousCommitId : commits.get(0).getId();
+        if (mined.isTruncated()) {
+            if (StringUtils.isEmpty(mined.getOldestCommitId())) {
+                logger.logInfo("-> The statistics are partial: no commits found in %s", window);
+            }
+            else {
+                logger.logInfo("-> The statistics are partial: the history of commit '%s' is missing",
+                        mined.getOldestCommitId());
+            }
+            recordHistory(new MinedHistoryAction(latestCommitId, paths,
+                    mined.getStartCommitId(), mined.getOldestCommitId()));
+        }
+        else {
+            recordHistory(new MinedHistoryAction(latestCommitId, paths));
+        }
+
+        var current = new RepositoryStatistics(latestCommitId);
+        current.addAll(previous);
+        // make sure that we start with old commits to preserve the history
+        List<CommitDiffItem> reversed = new ArrayList<>(commits);
+        Collections.reverse(reversed);
+        current.addAll(reversed);
+
+        var olderCommits = mined.getOlderCommits();
+        if (olderCommits.isEmpty()) {
+            return current;
+        }
+        logger.logInfo("-> Added %d older commits to the statistics", olderCommits.size());
+        return new HistoryMerger().merge(current, olderCommits, mined.getExistingFiles());
+    }
+
+    private RepositoryStatisticsCallback createCallback(final String previousCommitId,
+            final MiningWindow commitWindow) {
+        var callback = new RepositoryStatisticsCallback(previousCommitId, paths, commitWindow)
+                .withCommitGraphWrite(commitGraphWrite);
+        callback.withObjectCache(objectCache).withVirtualThreads(virtualThreads);
+        return callback;
+    }
+
+    private Optional<MinedHistoryAction> findPreviousHistory(final String previousCommitId) {
+        if (build == null) {
+            return Optional.empty();
+        }
+        return MinedHistoryAction.findPrevious(build, previousCommitId);
+    }
+
+    /**
+     * Returns whether the previous statistics have been mined with other globs. Statistics of builds that did not
+     * record their globs have been mined without globs.
+     *
+     * @param previousCommitId
+     *         the latest commit of the previous statistics
+     * @param previousPaths
+     *         the globs of the previous statistics
+     *
+     * @return {@code true} if the globs have been changed, {@code false} otherwise
+     */
+    private boolean haveGlobsChanged(final String previousCommitId, final PathGlobs previousPaths) {
+        if (build == null || StringUtils.isBlank(previousCommitId)) {
+            return false;
+        }
+        return !paths.equals(previousPaths);
+    }
+
+    private void recordHistory(final MinedHistoryAction action) {
+        if (build != null) {
+            build.addAction(action);
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.miner.CommitDiffItem;
+import io.jenkins.plugins.forensics.miner.RepositoryStatistics;
+
+/**
+ * Merges commits that are older than all commits of the statistics into these statistics. The older commits refer to
+ * the paths of the files at the time of the commit. So the commits are attributed to the current files by following
+ * the renames backwards: commits of files that have been deleted or renamed away are dropped. Files that have not been
+ * changed by the commits of the statistics are attributed by their name if they still exist in the latest commit.
+ * Since the statistics of a file depend on the chronological order of its commits, the statistics of each file are
+ * replayed, starting with the older commits.
+ *
+ * @author Ullrich Hafner
+ */
+class HistoryMerger {
+    /**
+     * Merges the older commits into the specified statistics.
+     *
+     * @param statistics
+     *         the statistics to merge the commits into
+     * @param olderCommits
+     *         the older commits, the newest commit first
+     * @param existingFiles
+     *         the files of the older commits that still exist in the latest commit
+     *
+     * @return the merged statistics
+     */
+    RepositoryStatistics merge(final RepositoryStatistics statistics, final List<CommitDiffItem> olderCommits,
+            final Set<String> existingFiles) {
+        if (olderCommits.isEmpty()) {
+            return statistics;
+        }
+
+        var olderCommitsPerFile = attributeToCurrentFiles(statistics, olderCommits, existingFiles);
+
+        List<CommitDiffItem> replayed = new ArrayList<>();
+        for (String fileName : statistics.getFiles()) {
+            replayed.addAll(olderCommitsPerFile.getOrDefault(fileName, List.of()));
+            for (CommitDiffItem commit : statistics.get(fileName).getCommits()) {
+                replayed.add(copy(commit, fileName));
+            }
+            olderCommitsPerFile.remove(fileName);
+        }
+        olderCommitsPerFile.values().forEach(replayed::addAll);
+        var merged = new RepositoryStatistics(statistics.getLatestCommitId());
+        merged.addAll(replayed);
+        return merged;
+    }
+
+    /**
+     * Attributes the older commits to the current files of the statistics.
+     *
+     * @param statistics
+     *         the statistics with the current files
+     * @param olderCommits
+     *         the older commits, the newest commit first
+     * @param existingFiles
+     *         the files of the older commits that still exist in the latest commit
+     *
+     * @return the older commits of each current file, the oldest commit first
+     */
+    private Map<String, List<CommitDiffItem>> attributeToCurrentFiles(final RepositoryStatistics statistics,
+            final List<CommitDiffItem> olderCommits, final Set<String> existingFiles) {
+        Map<String, String> currentNames = new HashMap<>(); // a null value marks a file that does not exist anymore
+        for (String fileName : existingFiles) {
+            currentNames.put(fileName, fileName);
+        }
+        for (String fileName : statistics.getFiles()) {
+            currentNames.put(getOldestName(statistics.get(fileName).getCommits(), fileName), fileName);
+        }
+
+        Map<String, List<CommitDiffItem>> commitsPerFile = new LinkedHashMap<>();
+        for (CommitDiffItem commit : olderCommits) {
+            String currentName;
+            if (commit.isDelete()) {
+                currentNames.put(commit.getOldPath(), null);
+                currentName = null;
+            }
+            else if (commit.isMove()) {
+                currentName = currentNames.get(commit.getNewPath());
+                currentNames.put(commit.getNewPath(), null);
+                currentNames.put(commit.getOldPath(), currentName);
+            }
+            else {
+                currentName = currentNames.get(commit.getNewPath());
+            }
+            if (currentName != null) {
+                commitsPerFile.computeIfAbsent(currentName, name -> new ArrayList<>()).add(copy(commit, currentName));
+            }
+        }
+        commitsPerFile.values().forEach(Collections::reverse);
+        return commitsPerFile;
+    }
+
+    /**
+     * Returns the name of a file before the oldest rename of the specified commits.
+     *
+     * @param commits
+     *         the commits of the file, the oldest commit first
+     * @param fileName
+     *         the current name of the file
+     *
+     * @return the oldest name of the file
+     */
+    private String getOldestName(final List<CommitDiffItem> commits, final String fileName) {
+        return commits.stream()
+                .filter(CommitDiffItem::isMove)
+                .map(CommitDiffItem::getOldPath)
+                .findFirst()
+                .orElse(fileName);
+    }
+
+    private CommitDiffItem copy(final CommitDiffItem commit, final String fileName) {
+        var copy = new CommitDiffItem(commit.getId(), commit.getAuthor(), commit.getTime());
+        copy.setNewPath(fileName);
+        copy.addLines(commit.getTotalAddedLines());
+        copy.deleteLines(commit.getTotalDeletedLines());
+        return copy;
+    }
+}
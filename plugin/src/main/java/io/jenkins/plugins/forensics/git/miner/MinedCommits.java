@@ -0,0 +1,132 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.forensics.miner.CommitDiffItem;
+
+/**
+ * The commits that have been mined by a {@link RepositoryStatisticsCallback}, combined with the log of the mining.
+ * If the mining has been bounded by a {@link MiningWindow} and there are older commits that are outside of this
+ * window, then the mined commits are marked as truncated: the start commit of the bounded walk and the oldest mined
+ * commit are stored so that subsequent builds can continue the walk. The commits that have been added by such a
+ * continued walk are provided separately, see {@link #getOlderCommits()}, together with the files of these commits that
+ * still exist.
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.LooseCoupling")
+class MinedCommits extends RemoteResultWrapper<ArrayList<CommitDiffItem>> {
+    @Serial
+    private static final long serialVersionUID = 4017869305468745165L;
+
+    private boolean truncated;
+    private String startCommitId = StringUtils.EMPTY;
+    private String oldestCommitId = StringUtils.EMPTY;
+    private final ArrayList<CommitDiffItem> olderCommits = new ArrayList<>();
+    private final HashSet<String> existingFiles = new HashSet<>();
+
+    MinedCommits(final ArrayList<CommitDiffItem> commits, final String title) {
+        super(commits, title);
+    }
+
+    /**
+     * Marks the mined commits as truncated.
+     *
+     * @param start
+     *         the start commit of the bounded walk
+     * @param oldest
+     *         the oldest commit of the bounded walk that has been mined, empty if no commit has been mined
+     */
+    void setTruncated(final String start, final String oldest) {
+        truncated = true;
+        startCommitId = start;
+        oldestCommitId = oldest;
+    }
+
+    /**
+     * Returns whether the history of the mined commits is incomplete, i.e. whether the mining window excluded older
+     * commits.
+     *
+     * @return {@code true} if older commits have not been mined, {@code false} if the whole history has been mined
+     */
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns the start commit of the bounded walk.
+     *
+     * @return the start commit, empty if the mined commits are not truncated
+     */
+    String getStartCommitId() {
+        return startCommitId;
+    }
+
+    /**
+     * Returns the oldest commit of the bounded walk that has been mined.
+     *
+     * @return the oldest mined commit, empty if no commit has been mined or the mined commits are not truncated
+     */
+    String getOldestCommitId() {
+        return oldestCommitId;
+    }
+
+    void addOlderCommits(final List<CommitDiffItem> commits) {
+        olderCommits.addAll(commits);
+    }
+
+    /**
+     * Returns the commits that are older than the oldest commit of the previous statistics. These commits have been
+     * mined by continuing the bounded walk of partial statistics.
+     *
+     * @return the older commits, the newest commit first
+     */
+    List<CommitDiffItem> getOlderCommits() {
+        return olderCommits;
+    }
+
+    void addExistingFiles(final Set<String> fileNames) {
+        existingFiles.addAll(fileNames);
+    }
+
+    /**
+     * Returns the files of the older commits that still exist in the latest commit.
+     *
+     * @return the existing files
+     */
+    Set<String> getExistingFiles() {
+        return existingFiles;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        var that = (MinedCommits) o;
+        return truncated == that.truncated
+                && startCommitId.equals(that.startCommitId)
+                && oldestCommitId.equals(that.oldestCommitId)
+                && olderCommits.equals(that.olderCommits)
+                && existingFiles.equals(that.existingFiles);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), truncated, startCommitId, oldestCommitId, olderCommits, existingFiles);
+    }
+}
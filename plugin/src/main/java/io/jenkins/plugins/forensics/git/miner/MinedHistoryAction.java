@@ -0,0 +1,127 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Optional;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+
+/**
+ * Records how the repository statistics of a build have been mined. If the mining has been bounded by a
+ * {@link MiningWindow} and older commits are still missing, then the statistics are partial: the marker stores the
+ * start commit of the bounded walk and the oldest commit that has been mined so far. Subsequent builds continue this
+ * walk and add the next older commits to the statistics, until the whole history has been mined. The
+ * {@link PathGlobs} that selected the mined files are stored as well: if the globs have been changed, then subsequent
+ * builds mine the repository from scratch, so the statistics never mix files that have been selected by different
+ * globs.
+ *
+ * @author Ullrich Hafner
+ */
+public class MinedHistoryAction extends InvisibleAction implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -3547390276617286427L;
+
+    private final String latestCommitId;
+    private final PathGlobs paths;
+    @CheckForNull
+    private final String startCommitId;
+    private final String oldestCommitId;
+
+    /**
+     * Creates a marker for statistics that contain the whole history.
+     *
+     * @param latestCommitId
+     *         the latest commit of the statistics
+     * @param paths
+     *         the globs that selected the mined files
+     */
+    MinedHistoryAction(final String latestCommitId, final PathGlobs paths) {
+        this(latestCommitId, paths, null, StringUtils.EMPTY);
+    }
+
+    /**
+     * Creates a new marker.
+     *
+     * @param latestCommitId
+     *         the latest commit of the statistics
+     * @param paths
+     *         the globs that selected the mined files
+     * @param startCommitId
+     *         the start commit of the bounded walk, or {@code null} if the statistics contain the whole history
+     * @param oldestCommitId
+     *         the oldest commit of the bounded walk that has been mined so far, empty if no commit has been mined yet
+     */
+    MinedHistoryAction(final String latestCommitId, final PathGlobs paths, @CheckForNull final String startCommitId,
+            final String oldestCommitId) {
+        super();
+
+        this.latestCommitId = latestCommitId;
+        this.paths = paths;
+        this.startCommitId = startCommitId;
+        this.oldestCommitId = oldestCommitId;
+    }
+
+    /**
+     * Finds the marker of the statistics with the specified latest commit in the previous builds of the specified
+     * build. Only the latest previous build that has mined the repository is inspected.
+     *
+     * @param build
+     *         the current build
+     * @param latestCommitId
+     *         the latest commit of the statistics of a previous build
+     *
+     * @return the marker, or an empty optional if the latest build that has mined the repository has no statistics
+     *         with the specified latest commit
+     */
+    static Optional<MinedHistoryAction> findPrevious(final Run<?, ?> build, final String latestCommitId) {
+        for (Run<?, ?> previous = build.getPreviousBuild(); previous != null; previous = previous.getPreviousBuild()) {
+            var actions = previous.getActions(MinedHistoryAction.class);
+            if (!actions.isEmpty()) {
+                return actions.stream()
+                        .filter(action -> action.getLatestCommitId().equals(latestCommitId))
+                        .findFirst();
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String getLatestCommitId() {
+        return latestCommitId;
+    }
+
+    PathGlobs getPaths() {
+        return paths;
+    }
+
+    /**
+     * Returns whether the statistics are partial, i.e. whether older commits have not been mined yet.
+     *
+     * @return {@code true} if the statistics are partial, {@code false} if the statistics contain the whole history
+     */
+    public boolean isPartial() {
+        return startCommitId != null;
+    }
+
+    /**
+     * Returns the start commit of the bounded walk of partial statistics.
+     *
+     * @return the start commit, empty if the statistics contain the whole history
+     */
+    String getStartCommitId() {
+        return StringUtils.defaultString(startCommitId);
+    }
+
+    /**
+     * Returns the oldest commit of the bounded walk that has been mined so far.
+     *
+     * @return the oldest mined commit, empty if no commit has been mined yet
+     */
+    String getOldestCommitId() {
+        return oldestCommitId;
+    }
+}
@@ -0,0 +1,157 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.TreeStringBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+import io.jenkins.plugins.forensics.miner.CommitDiffItem;
+
+/**
+ * Computes the diffs of a sequence of commits. A session owns the object reader, the diff formatter, and the rename
+ * detector that are required to compute the diffs, so these resources are created only once for all commits that are
+ * processed by the same thread. Consecutive commits are compared with each other: the tree of the commit that has
+ * been used as comparison tree is reused as the new tree of the next commit, so each tree is parsed only once.
+ *
+ * <p>
+ * A session is not thread safe: each thread needs to create its own session.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class MiningSession implements AutoCloseable {
+    private final ObjectReader reader;
+    private final DiffFormatter formatter;
+    private final RenameDetector renames;
+    private final TreeStringBuilder fileNameBuilder;
+    private final DiffsCollector collector = new DiffsCollector();
+
+    @CheckForNull
+    private ObjectId parsedCommit;
+    @CheckForNull
+    private CanonicalTreeParser parsedTree;
+
+    /**
+     * Creates a new session.
+     *
+     * @param repository
+     *         the repository to mine
+     * @param fileNameBuilder
+     *         the builder that interns the file names, this builder might be shared by several sessions
+     */
+    MiningSession(final Repository repository, final TreeStringBuilder fileNameBuilder) {
+        this(repository, fileNameBuilder, TreeFilter.ALL);
+    }
+
+    /**
+     * Creates a new session that computes the diffs of the selected files only.
+     *
+     * @param repository
+     *         the repository to mine
+     * @param fileNameBuilder
+     *         the builder that interns the file names, this builder might be shared by several sessions
+     * @param paths
+     *         the filter that selects the files to mine, subtrees that are not selected are not opened at all
+     */
+    MiningSession(final Repository repository, final TreeStringBuilder fileNameBuilder, final TreeFilter paths) {
+        this.fileNameBuilder = fileNameBuilder;
+
+        reader = repository.newObjectReader();
+        formatter = new DiffFormatter(DisabledOutputStream.INSTANCE);
+        formatter.setReader(reader, repository.getConfig());
+        formatter.setPathFilter(paths);
+        renames = new RenameDetector(reader, repository.getConfig().get(DiffConfig.KEY));
+    }
+
+    /**
+     * Computes the diffs of the specified commit.
+     *
+     * @param commit
+     *         the commit to compute the diffs for
+     * @param compareTo
+     *         the commit to compare with, or {@code null} if the commit should be compared with the empty tree
+     * @param logger
+     *         the logger
+     *
+     * @return the diffs of all changed files of the commit
+     */
+    List<CommitDiffItem> diff(final RevCommit commit, @CheckForNull final RevCommit compareTo,
+            final FilteredLog logger) {
+        try {
+            var fromTree = parseTree(commit);
+            AbstractTreeIterator toTree = compareTo == null ? new EmptyTreeIterator() : parseTree(compareTo);
+
+            return collector.getDiffsForCommit(formatter, renames, createFromRevCommit(commit),
+                    fromTree, toTree, fileNameBuilder, logger);
+        }
+        catch (IOException exception) {
+            logger.logException(exception, "Could not create tree iterator for commit ID " + commit.getName());
+
+            return List.of();
+        }
+    }
+
+    /**
+     * Returns an iterator for the tree of the specified commit. If the tree of this commit has been parsed for the
+     * previous diff, then the parsed tree is rewound and returned.
+     *
+     * @param commit
+     *         the commit
+     *
+     * @return the tree iterator
+     * @throws IOException
+     *         if the tree could not be read
+     */
+    private AbstractTreeIterator parseTree(final RevCommit commit) throws IOException {
+        if (parsedTree != null && commit.equals(parsedCommit)) {
+            parsedTree.reset();
+
+            return parsedTree;
+        }
+
+        var treeParser = new CanonicalTreeParser();
+        treeParser.reset(reader, commit.getTree());
+        parsedCommit = commit.copy();
+        parsedTree = treeParser;
+        return treeParser;
+    }
+
+    private CommitDiffItem createFromRevCommit(final RevCommit newCommit) {
+        return new CommitDiffItem(newCommit.getName(), getAuthor(newCommit), newCommit.getCommitTime());
+    }
+
+    private String getAuthor(final RevCommit commit) {
+        var author = commit.getAuthorIdent();
+        if (author != null) {
+            return Objects.toString(author.getEmailAddress(), author.getName());
+        }
+        var committer = commit.getCommitterIdent();
+        if (committer != null) {
+            return Objects.toString(committer.getEmailAddress(), committer.getName());
+        }
+        return StringUtils.EMPTY;
+    }
+
+    @Override
+    public void close() {
+        formatter.close();
+        reader.close();
+    }
+}
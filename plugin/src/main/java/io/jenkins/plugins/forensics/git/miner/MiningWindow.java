@@ -0,0 +1,131 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.eclipse.jgit.revwalk.filter.AndRevFilter;
+import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
+import org.eclipse.jgit.revwalk.filter.MaxCountRevFilter;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bounds the commits of the initial mining of a repository. The initial mining can be restricted to the commits of the
+ * last days and to a maximum number of commits. The bounds are applied as commit time and max count filters of the
+ * revision walk, so the walk stops as soon as a bound has been reached. As long as the mined history is incomplete,
+ * subsequent builds add the older commits in portions of {@link #getBackfillLimit()} commits until the whole history
+ * has been mined.
+ *
+ * @author Ullrich Hafner
+ */
+class MiningWindow implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 2150962487339163614L;
+
+    /** Number of older commits that are added per build if the window does not bound the number of commits. */
+    static final int DEFAULT_BACKFILL_LIMIT = 1000;
+
+    private final int days;
+    private final int commits;
+
+    /**
+     * Creates an unbounded window that selects the whole history.
+     */
+    MiningWindow() {
+        this(0, 0);
+    }
+
+    /**
+     * Creates a new window.
+     *
+     * @param days
+     *         the number of days to mine, 0 if the commit time should not be bounded
+     * @param commits
+     *         the maximum number of commits to mine, 0 if the number of commits should not be bounded
+     */
+    MiningWindow(final int days, final int commits) {
+        this.days = Math.max(0, days);
+        this.commits = Math.max(0, commits);
+    }
+
+    /**
+     * Returns whether this window restricts the mined history.
+     *
+     * @return {@code true} if the commit time or the number of commits is bounded, {@code false} otherwise
+     */
+    boolean isBounded() {
+        return days > 0 || commits > 0;
+    }
+
+    /**
+     * Returns the maximum number of older commits that a subsequent build adds to partial statistics. This is the
+     * maximum number of commits of this window, or {@value #DEFAULT_BACKFILL_LIMIT} if the number of commits is not
+     * bounded.
+     *
+     * @return the maximum number of older commits per build
+     */
+    int getBackfillLimit() {
+        return commits > 0 ? commits : DEFAULT_BACKFILL_LIMIT;
+    }
+
+    /**
+     * Creates the filter that selects the commits of this window.
+     *
+     * @param now
+     *         the current time
+     *
+     * @return the filter, or {@link RevFilter#ALL} if this window is not bounded
+     */
+    RevFilter createRevFilter(final Instant now) {
+        List<RevFilter> filters = new ArrayList<>();
+        if (days > 0) {
+            filters.add(CommitTimeRevFilter.after(Date.from(now.minus(days, ChronoUnit.DAYS))));
+        }
+        if (commits > 0) {
+            filters.add(MaxCountRevFilter.create(commits));
+        }
+        if (filters.isEmpty()) {
+            return RevFilter.ALL;
+        }
+        if (filters.size() == 1) {
+            return filters.get(0);
+        }
+        return AndRevFilter.create(filters);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (MiningWindow) o;
+        return days == that.days && commits == that.commits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(days, commits);
+    }
+
+    @Override
+    public String toString() {
+        if (days > 0 && commits > 0) {
+            return "at most %d commits of the last %d days".formatted(commits, days);
+        }
+        if (days > 0) {
+            return "the commits of the last %d days".formatted(days);
+        }
+        if (commits > 0) {
+            return "the latest %d commits".formatted(commits);
+        }
+        return "the whole history";
+    }
+}
@@ -0,0 +1,224 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Include and exclude globs that select the files of a repository that should be mined. The globs are matched against
+ * the path of a file relative to the root of the repository, using {@code /} as separator. A glob supports the
+ * wildcards {@code *} (any characters within a directory name), {@code ?} (a single character within a directory
+ * name), and {@code **} (any number of directories). If no include glob is given, then all files are included.
+ * Excludes take precedence over includes.
+ *
+ * <p>
+ * The globs are pushed down into JGit as a {@link TreeFilter}: subtrees that cannot contain an included file are never
+ * opened, and commits that do not touch any selected file are skipped.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class PathGlobs implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2620946473911418556L;
+
+    private static final String ANY_DIRECTORIES = "/**";
+
+    /**
+     * Creates the globs from the specified comma or newline separated patterns.
+     *
+     * @param includes
+     *         the globs of the files to include, empty to include all files
+     * @param excludes
+     *         the globs of the files to exclude
+     *
+     * @return the globs
+     */
+    static PathGlobs from(final String includes, final String excludes) {
+        return new PathGlobs(split(includes), split(excludes));
+    }
+
+    private static List<String> split(final String globs) {
+        if (StringUtils.isBlank(globs)) {
+            return List.of();
+        }
+        return Arrays.stream(globs.split("[,\\n]"))
+                .map(StringUtils::strip)
+                .map(glob -> StringUtils.removeStart(glob, "/"))
+                .filter(StringUtils::isNotEmpty)
+                .toList();
+    }
+
+    private final List<String> includes;
+    private final List<String> excludes;
+
+    PathGlobs() {
+        this(List.of(), List.of());
+    }
+
+    PathGlobs(final List<String> includes, final List<String> excludes) {
+        this.includes = new ArrayList<>(includes);
+        this.excludes = new ArrayList<>(excludes);
+    }
+
+    /**
+     * Returns whether all files are selected.
+     *
+     * @return {@code true} if no globs are defined, {@code false} otherwise
+     */
+    boolean isEmpty() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (PathGlobs) o;
+        return includes.equals(that.includes) && excludes.equals(that.excludes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(includes, excludes);
+    }
+
+    @Override
+    public String toString() {
+        return "includes %s, excludes %s".formatted(includes, excludes);
+    }
+
+    /**
+     * Creates a {@link TreeFilter} that selects the files of these globs.
+     *
+     * @return the tree filter, or {@link TreeFilter#ALL} if no globs are defined
+     */
+    TreeFilter createTreeFilter() {
+        if (isEmpty()) {
+            return TreeFilter.ALL;
+        }
+        return new GlobTreeFilter(includes, excludes);
+    }
+
+    static Pattern compile(final String glob) {
+        var regex = new StringBuilder();
+        int index = 0;
+        while (index < glob.length()) {
+            if (glob.startsWith("**/", index)) {
+                regex.append("(?:.*/)?");
+                index += 3;
+            }
+            else if (glob.startsWith("**", index)) {
+                regex.append(".*");
+                index += 2;
+            }
+            else {
+                char c = glob.charAt(index);
+                if (c == '*') {
+                    regex.append("[^/]*");
+                }
+                else if (c == '?') {
+                    regex.append("[^/]");
+                }
+                else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+                index++;
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Returns the directory part of the glob that does not contain wildcards. Only subtrees on this path can contain
+     * files that match the glob.
+     *
+     * @param glob
+     *         the glob
+     *
+     * @return the literal directory prefix, ends with {@code /} or is empty
+     */
+    static String getLiteralPrefix(final String glob) {
+        int wildcard = StringUtils.indexOfAny(glob, '*', '?');
+        var literal = wildcard < 0 ? glob : glob.substring(0, wildcard);
+        return literal.substring(0, literal.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * A {@link TreeFilter} that matches the paths of a {@link TreeWalk} against include and exclude globs. The filter
+     * is stateless and can be shared.
+     */
+    @SuppressFBWarnings(value = "CN_IDIOM_NO_SUPER_CALL", justification = "The filter is immutable")
+    static final class GlobTreeFilter extends TreeFilter {
+        private final List<Pattern> includes;
+        private final List<String> includePrefixes;
+        private final List<Pattern> excludes;
+        private final List<Pattern> excludedDirectories;
+
+        GlobTreeFilter(final List<String> includes, final List<String> excludes) {
+            super();
+
+            this.includes = includes.stream().map(PathGlobs::compile).toList();
+            includePrefixes = includes.stream().map(PathGlobs::getLiteralPrefix).toList();
+            this.excludes = excludes.stream().map(PathGlobs::compile).toList();
+            excludedDirectories = excludes.stream()
+                    .filter(glob -> glob.endsWith(ANY_DIRECTORIES))
+                    .map(glob -> compile(StringUtils.removeEnd(glob, ANY_DIRECTORIES)))
+                    .toList();
+        }
+
+        @Override
+        public boolean include(final TreeWalk walker) {
+            var path = walker.getPathString();
+            if (walker.isSubtree()) {
+                return includesDirectory(path);
+            }
+            return includesFile(path);
+        }
+
+        boolean includesFile(final String path) {
+            if (excludes.stream().anyMatch(pattern -> pattern.matcher(path).matches())) {
+                return false;
+            }
+            return includes.isEmpty() || includes.stream().anyMatch(pattern -> pattern.matcher(path).matches());
+        }
+
+        boolean includesDirectory(final String path) {
+            if (excludedDirectories.stream().anyMatch(pattern -> pattern.matcher(path).matches())) {
+                return false;
+            }
+            var directory = path + "/";
+            return includePrefixes.isEmpty() || includePrefixes.stream().anyMatch(
+                    prefix -> directory.startsWith(prefix) || prefix.startsWith(directory));
+        }
+
+        @Override
+        public boolean shouldBeRecursive() {
+            return true;
+        }
+
+        @Override
+        public TreeFilter clone() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "GLOBS(includes=%s, excludes=%s)".formatted(includes, excludes);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package io.jenkins.plugins.forensics.git.miner;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.lib.Repository;
 
 import java.io.IOException;
@@ -11,44 +10,119 @@ import java.util.ArrayList;
 import hudson.remoting.VirtualChannel;
 
 import io.jenkins.plugins.forensics.git.util.AbstractRepositoryCallback;
-import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.forensics.git.util.CommitGraphSupport;
 import io.jenkins.plugins.forensics.miner.CommitDiffItem;
 
 /**
  * Analyzes all commits starting from HEAD up to a specified commit ID. If no previous commit ID is given,
- * then the repository will be scanned until the initial commit is reached.
+ * then the repository will be scanned until the initial commit is reached or until the bounds of the
+ * {@link MiningWindow} have been reached.
+ *
+ * <p>
+ * If the statistics of the previous build are partial, then the bounded walk of the previous statistics is continued
+ * as well: the commits that are older than the oldest mined commit are analyzed, at most a given number of commits
+ * per call.
+ * </p>
  *
  * @author Ullrich Hafner
  */
 @SuppressWarnings("PMD.LooseCoupling")
 class RepositoryStatisticsCallback
-        extends AbstractRepositoryCallback<RemoteResultWrapper<ArrayList<CommitDiffItem>>> {
+        extends AbstractRepositoryCallback<MinedCommits> {
     @Serial
     private static final long serialVersionUID = 7667073858514128136L;
 
     private final String previousCommitId;
+    private final PathGlobs paths;
+    private final MiningWindow window;
+    private String backfillStartId = StringUtils.EMPTY;
+    private String backfillOldestId = StringUtils.EMPTY;
+    private int backfillLimit;
+    private boolean commitGraphWrite;
 
     RepositoryStatisticsCallback(final String previousCommitId) {
+        this(previousCommitId, new PathGlobs());
+    }
+
+    RepositoryStatisticsCallback(final String previousCommitId, final PathGlobs paths) {
+        this(previousCommitId, paths, new MiningWindow());
+    }
+
+    RepositoryStatisticsCallback(final String previousCommitId, final PathGlobs paths, final MiningWindow window) {
         super();
 
         this.previousCommitId = previousCommitId;
+        this.paths = paths;
+        this.window = window;
+    }
+
+    /**
+     * Determines whether a missing commit-graph file of the repository should be written before the commits are
+     * walked.
+     *
+     * @param enabled
+     *         {@code true} to write a missing commit-graph file, {@code false} to use only an existing file
+     *
+     * @return this
+     */
+    RepositoryStatisticsCallback withCommitGraphWrite(final boolean enabled) {
+        this.commitGraphWrite = enabled;
+
+        return this;
+    }
+
+    /**
+     * Continues the bounded walk of partial statistics and analyzes the commits that are older than the oldest mined
+     * commit.
+     *
+     * @param startCommitId
+     *         the start commit of the bounded walk
+     * @param oldestCommitId
+     *         the oldest commit of the bounded walk that has been mined so far, empty if no commit has been mined yet
+     * @param limit
+     *         the maximum number of older commits to analyze
+     *
+     * @return this
+     */
+    RepositoryStatisticsCallback withBackfill(final String startCommitId, final String oldestCommitId,
+            final int limit) {
+        this.backfillStartId = startCommitId;
+        this.backfillOldestId = oldestCommitId;
+        this.backfillLimit = limit;
+
+        return this;
     }
 
     @Override
-    public RemoteResultWrapper<ArrayList<CommitDiffItem>> invoke(
-            final Repository repository, final VirtualChannel channel) {
+    public MinedCommits invoke(final Repository repository, final VirtualChannel channel)
+            throws InterruptedException {
         ArrayList<CommitDiffItem> commits = new ArrayList<>();
-        RemoteResultWrapper<ArrayList<CommitDiffItem>> wrapper = new RemoteResultWrapper<>(
-                commits, "Errors while mining the Git repository:");
+        var wrapper = new MinedCommits(commits, "Errors while mining the Git repository:");
+
+        var objectCache = installObjectCache(wrapper);
+        try (var commitGraph = new CommitGraphSupport(repository)) {
+            commitGraph.enable(commitGraphWrite, wrapper);
 
-        try (var git = new Git(repository)) {
-            var commitAnalyzer = new CommitAnalyzer();
-            commits.addAll(commitAnalyzer.run(repository, git, previousCommitId, wrapper));
+            var commitAnalyzer = new CommitAnalyzer(this::createWorkerPool);
+            commits.addAll(commitAnalyzer.run(repository, previousCommitId, paths, window, wrapper));
+            if (commitAnalyzer.isTruncated()) {
+                wrapper.setTruncated(commitAnalyzer.getStartCommitId(), commitAnalyzer.getOldestCommitId());
+            }
+            else if (StringUtils.isNotBlank(backfillStartId)) {
+                var olderCommits = commitAnalyzer.runBackfill(repository, backfillStartId, backfillOldestId,
+                        paths, backfillLimit, wrapper);
+                wrapper.addOlderCommits(olderCommits);
+                wrapper.addExistingFiles(commitAnalyzer.findExistingFiles(repository, olderCommits));
+                if (commitAnalyzer.isTruncated()) {
+                    wrapper.setTruncated(commitAnalyzer.getStartCommitId(), commitAnalyzer.getOldestCommitId());
+                }
+            }
         }
-        catch (IOException | GitAPIException exception) {
+        catch (IOException exception) {
             wrapper.logException(exception,
                     "Can't analyze commits for the repository " + repository.getIdentifier());
         }
+        objectCache.log(wrapper);
 
         return wrapper;
     }
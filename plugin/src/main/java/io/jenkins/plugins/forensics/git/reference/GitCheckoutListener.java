@@ -18,7 +18,9 @@ import hudson.scm.SCMRevisionState;
 
 import io.jenkins.plugins.forensics.git.util.GitCommitDecoratorFactory;
 import io.jenkins.plugins.forensics.git.util.GitCommitTextDecorator;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
 import io.jenkins.plugins.util.LogHandler;
 
@@ -125,7 +127,8 @@ public class GitCheckoutListener extends SCMListener {
             final GitRepositoryValidator gitRepository, final FilteredLog logger) {
         try {
             RemoteResultWrapper<BuildCommits> resultWrapper = gitRepository.createClient()
-                    .withRepository(new GitCommitsCollector(latestCommitName));
+                    .withRepository(new GitCommitsCollector(latestCommitName)
+                            .withObjectCache(ObjectCacheOptions.from(GitForensicsConfiguration.getInstance())));
             logger.merge(resultWrapper);
 
             return resultWrapper.getResult();
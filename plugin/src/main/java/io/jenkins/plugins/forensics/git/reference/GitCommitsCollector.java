@@ -44,27 +44,10 @@ class GitCommitsCollector extends AbstractRepositoryCallback<RemoteResultWrapper
             var commits = new BuildCommits(latestRecordedCommit);
             RemoteResultWrapper<BuildCommits> result = new RemoteResultWrapper<>(commits,
                     "Errors while collecting commits");
+            var objectCache = installObjectCache(result);
             findHeadCommit(repository, commits, result);
-
-            var hasAnchor = StringUtils.isNotBlank(latestRecordedCommit);
-
-            for (RevCommit commit : git.log().add(commits.getHead()).call()) {
-                var commitId = commit.getName();
-                if (hasAnchor && commitId.equals(latestRecordedCommit)) {
-                    return result;
-                }
-                if (commits.size() >= MAX_COMMITS) {
-                    if (hasAnchor) {
-                        commits.setMaxCommitsReached();
-                    }
-                    return result;
-                }
-                commits.add(commitId);
-            }
-
-            if (hasAnchor) {
-                commits.setMaxCommitsReached();
-            }
+            collectCommits(git, commits);
+            objectCache.log(result);
 
             return result;
         }
@@ -73,6 +56,28 @@ class GitCommitsCollector extends AbstractRepositoryCallback<RemoteResultWrapper
         }
     }
 
+    private void collectCommits(final Git git, final BuildCommits commits) throws GitAPIException, IOException {
+        var hasAnchor = StringUtils.isNotBlank(latestRecordedCommit);
+
+        for (RevCommit commit : git.log().add(commits.getHead()).call()) {
+            var commitId = commit.getName();
+            if (hasAnchor && commitId.equals(latestRecordedCommit)) {
+                return;
+            }
+            if (commits.size() >= MAX_COMMITS) {
+                if (hasAnchor) {
+                    commits.setMaxCommitsReached();
+                }
+                return;
+            }
+            commits.add(commitId);
+        }
+
+        if (hasAnchor) {
+            commits.setMaxCommitsReached();
+        }
+    }
+
     private void findHeadCommit(final Repository repository, final BuildCommits commits, final FilteredLog logger)
             throws IOException {
         var head = getHead(repository);
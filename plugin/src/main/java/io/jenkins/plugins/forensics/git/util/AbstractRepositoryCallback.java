@@ -3,6 +3,8 @@ package io.jenkins.plugins.forensics.git.util;
 import org.eclipse.jgit.dircache.InvalidPathException;
 import org.eclipse.jgit.lib.Repository;
 
+import edu.hm.hafner.util.FilteredLog;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.Serial;
@@ -26,6 +28,65 @@ public abstract class AbstractRepositoryCallback<T> implements RepositoryCallbac
     private static final String SLASH = "/";
     private static final String BACK_SLASH = "\\";
 
+    private ObjectCacheOptions objectCacheOptions = new ObjectCacheOptions();
+    private boolean virtualThreads = false;
+
+    /**
+     * Sets the options of the JGit object cache that should be installed before this callback runs.
+     *
+     * @param options
+     *         the options of the object cache
+     *
+     * @return this
+     */
+    public AbstractRepositoryCallback<T> withObjectCache(final ObjectCacheOptions options) {
+        objectCacheOptions = options;
+
+        return this;
+    }
+
+    /**
+     * Determines whether the per-file work of this callback should run on virtual threads, see {@link WorkerPool}.
+     *
+     * @param enabled
+     *         {@code true} if virtual threads should be used if the JVM supports them
+     *
+     * @return this
+     */
+    public AbstractRepositoryCallback<T> withVirtualThreads(final boolean enabled) {
+        virtualThreads = enabled;
+
+        return this;
+    }
+
+    /**
+     * Creates a pool of workers for the specified number of tasks. Depending on {@link #withVirtualThreads(boolean)},
+     * the workers run on virtual threads or on platform threads.
+     *
+     * @param tasks
+     *         the number of tasks
+     * @param log
+     *         the logger
+     *
+     * @return the pool, must be closed after all workers have been finished
+     */
+    protected WorkerPool createWorkerPool(final int tasks, final FilteredLog log) {
+        return WorkerPool.create(virtualThreads, tasks, log);
+    }
+
+    /**
+     * Installs the options of the JGit object cache in the JVM that runs this callback. The returned statistics should
+     * be logged after the callback has finished its work.
+     *
+     * @param log
+     *         the logger
+     *
+     * @return the statistics of the object cache before the callback accesses the repository
+     */
+    protected ObjectCacheOptions.Statistics installObjectCache(final FilteredLog log) {
+        return objectCacheOptions.install(log);
+    }
+
     /**
      * Returns the root directory of the repository working tree. This path is absolute and normalized using the UNIX
      * path separator.
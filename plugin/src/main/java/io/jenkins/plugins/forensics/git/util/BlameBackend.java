@@ -0,0 +1,17 @@
+package io.jenkins.plugins.forensics.git.util;
+
+/**
+ * Defines the implementation that computes the blames of a file.
+ *
+ * @author Ullrich Hafner
+ */
+public enum BlameBackend {
+    /** Uses the {@code BlameCommand} of JGit for all files. */
+    JGIT,
+    /** Uses {@code git blame --porcelain} of the command line Git for all files. */
+    CLI,
+    /**
+     * Uses the command line Git for large files or files with a long history, and JGit for all other files.
+     */
+    AUTO
+}
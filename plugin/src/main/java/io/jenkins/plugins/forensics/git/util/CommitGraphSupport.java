@@ -0,0 +1,229 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.eclipse.jgit.errors.ConfigInvalidException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphWriter;
+import org.eclipse.jgit.internal.storage.commitgraph.GraphCommits;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.util.SystemReader;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Enables the commit-graph file of a repository for all subsequent history walks of a repository callback. The
+ * commit-graph stores the parents and generation numbers of all commits, so commits do not need to be inflated during a
+ * walk. Note that JGit reads the commit-graph only if the repository option {@code core.commitGraph} is set. This
+ * option is set in memory for the given repository instance only and is restored when this support is closed, so the
+ * option will not be persisted if the configuration of the repository is saved later on.
+ *
+ * <p>
+ * The changed-path Bloom filters of the commit-graph are used by path limited walks (e.g., {@code git log -- path}) to
+ * skip commits that cannot touch a path without comparing any trees. JGit reads these filters only if the option
+ * {@code commitGraph.readChangedPaths} is set in the JGit configuration of the JVM: JGit ignores this option in the
+ * configuration of a repository. Since the JGit configuration is shared by all repositories of the JVM, it will not be
+ * changed here, only a hint is logged if the option is not set.
+ * </p>
+ *
+ * <p>
+ * If the repository has no commit-graph file yet, then a new file with Bloom filters can be written for all commits
+ * that are reachable from the references of the repository. Shallow repositories are skipped. The writer is an
+ * internal API of JGit: if it is not available in the JGit version of the agent, then the repository is walked
+ * without a commit-graph.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class CommitGraphSupport implements AutoCloseable {
+    static final String COMMIT_GRAPH_FILE = "objects/info/commit-graph";
+
+    private final Repository repository;
+    private boolean enabled;
+    @CheckForNull
+    private String previousValue;
+
+    /**
+     * Creates a new instance of {@link CommitGraphSupport}.
+     *
+     * @param repository
+     *         the repository to use
+     */
+    public CommitGraphSupport(final Repository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Enables the commit-graph file of the repository. If the file does not exist yet, then it will be written if
+     * {@code writeIfMissing} is set.
+     *
+     * @param writeIfMissing
+     *         determines whether a missing commit-graph file should be written
+     * @param log
+     *         the logger
+     *
+     * @return {@code true} if the commit-graph has been enabled, {@code false} otherwise
+     */
+    public boolean enable(final boolean writeIfMissing, final FilteredLog log) {
+        var file = getCommitGraphFile();
+        if (!file.isFile()) {
+            if (!writeIfMissing) {
+                log.logInfo("-> no commit-graph file found, walking commits without it");
+                return false;
+            }
+            if (!write(file, log)) {
+                return false;
+            }
+        }
+
+        var config = repository.getConfig();
+        if (!enabled) {
+            previousValue = config.getString(ConfigConstants.CONFIG_CORE_SECTION, null,
+                    ConfigConstants.CONFIG_COMMIT_GRAPH);
+            enabled = true;
+        }
+        config.setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH, true);
+        log.logInfo("-> using commit-graph file '%s'", file);
+        if (!isReadingChangedPaths(log)) {
+            log.logInfo("-> changed-path filters are disabled, set '%s.%s' in the JGit configuration to enable them",
+                    ConfigConstants.CONFIG_COMMIT_GRAPH_SECTION, ConfigConstants.CONFIG_KEY_READ_CHANGED_PATHS);
+        }
+        return true;
+    }
+
+    private boolean isReadingChangedPaths(final FilteredLog log) {
+        try {
+            return SystemReader.getInstance().getJGitConfig().getBoolean(ConfigConstants.CONFIG_COMMIT_GRAPH_SECTION,
+                    ConfigConstants.CONFIG_KEY_READ_CHANGED_PATHS, false);
+        }
+        catch (IOException | ConfigInvalidException exception) {
+            log.logException(exception, "Can't read the JGit configuration");
+
+            return false;
+        }
+    }
+
+    /**
+     * Restores the option {@code core.commitGraph} of the repository to the value before the commit-graph has been
+     * enabled.
+     */
+    @Override
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        var config = repository.getConfig();
+        if (previousValue == null) {
+            config.unset(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH);
+        }
+        else {
+            config.setString(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH,
+                    previousValue);
+        }
+        enabled = false;
+    }
+
+    File getCommitGraphFile() {
+        return new File(repository.getCommonDirectory(), COMMIT_GRAPH_FILE);
+    }
+
+    private boolean write(final File file, final FilteredLog log) {
+        try {
+            if (!repository.getObjectDatabase().getShallowCommits().isEmpty()) {
+                log.logInfo("-> skipping commit-graph for shallow repository");
+                return false;
+            }
+
+            long nano = System.nanoTime();
+            try (var walk = new RevWalk(repository)) {
+                var tips = findTips(walk);
+                if (tips.isEmpty()) {
+                    return false;
+                }
+
+                var directory = file.toPath().getParent();
+                Files.createDirectories(directory);
+                var temporary = Files.createTempFile(directory, "commit-graph", ".tmp");
+                try {
+                    try (var output = Files.newOutputStream(temporary)) {
+                        GraphWriter.write(tips, walk, output);
+                    }
+                    move(temporary.toFile(), file);
+                }
+                finally {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+            log.logInfo("-> wrote commit-graph file '%s' in %d ms", file, (System.nanoTime() - nano) / 1_000_000L);
+            return true;
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't write commit-graph file '%s'", file);
+            return false;
+        }
+        catch (LinkageError error) {
+            log.logInfo("-> commit-graph writer is not available in this JGit version, walking commits without it");
+            return false;
+        }
+    }
+
+    private Set<ObjectId> findTips(final RevWalk walk) throws IOException {
+        Set<ObjectId> tips = new HashSet<>();
+        for (Ref ref : repository.getRefDatabase().getRefs()) {
+            var peeled = repository.getRefDatabase().peel(ref);
+            var id = peeled.getPeeledObjectId() == null ? peeled.getObjectId() : peeled.getPeeledObjectId();
+            if (id != null && isCommit(walk, id)) {
+                tips.add(id);
+            }
+        }
+        return tips;
+    }
+
+    private boolean isCommit(final RevWalk walk, final ObjectId id) throws IOException {
+        try {
+            return walk.parseAny(id) instanceof RevCommit;
+        }
+        catch (MissingObjectException exception) {
+            return false; // skip references to missing objects
+        }
+    }
+
+    private void move(final File from, final File to) throws IOException {
+        try {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException exception) {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Isolates the internal commit-graph writer of JGit, so that a missing or incompatible writer results in a
+     * {@link LinkageError} when writing the file and not when loading {@link CommitGraphSupport}.
+     */
+    private static final class GraphWriter {
+        static void write(final Set<ObjectId> tips, final RevWalk walk, final OutputStream output)
+                throws IOException {
+            new CommitGraphWriter(GraphCommits.fromWalk(NullProgressMonitor.INSTANCE, tips, walk), true)
+                    .write(NullProgressMonitor.INSTANCE, output);
+        }
+
+        private GraphWriter() {
+            // prevents instantiation
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.VisibleForTesting;
+
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.Symbol;
+import hudson.Extension;
+
+import io.jenkins.plugins.util.GlobalConfigurationFacade;
+import io.jenkins.plugins.util.GlobalConfigurationItem;
+
+/**
+ * Global system configuration of the Git forensics plugin. These settings are defined by an administrator and apply to
+ * all jobs that use the Git forensics analyzers.
+ *
+ * @author Ullrich Hafner
+ */
+@Extension
+@Symbol("gitForensics")
+public class GitForensicsConfiguration extends GlobalConfigurationItem {
+    /** Default number of files that are kept in the persistent blame cache. */
+    public static final int DEFAULT_BLAME_CACHE_SIZE = 10_000;
+    /** Default file size (in KiB) that selects the command line Git in {@link BlameBackend#AUTO} mode. */
+    public static final int DEFAULT_CLI_BLAME_FILE_SIZE = 256;
+    /** Default number of commits that selects the command line Git in {@link BlameBackend#AUTO} mode. */
+    public static final int DEFAULT_CLI_BLAME_HISTORY_DEPTH = 1000;
+
+    private boolean blameCacheEnabled = false;
+    private int blameCacheSize = DEFAULT_BLAME_CACHE_SIZE;
+    private boolean commitGraphWriteEnabled = false;
+    private boolean virtualThreadsEnabled = false;
+    private int blameTimeBudget = 0;
+    private int packedGitWindowSize = 0;
+    private int packedGitLimit = 0;
+    private int deltaBaseCacheLimit = 0;
+    private int streamFileThreshold = 0;
+    private BlameBackend blameBackend = BlameBackend.JGIT;
+    private int cliBlameFileSize = DEFAULT_CLI_BLAME_FILE_SIZE;
+    private int cliBlameHistoryDepth = DEFAULT_CLI_BLAME_HISTORY_DEPTH;
+    private int blameMaxFileSize = 0;
+    private int blameMaxLines = 0;
+    private int blameMaxHistoryDepth = 0;
+    private int blameFileTimeout = 0;
+    private RenameDetection blameRenameDetection = RenameDetection.SIMILARITY;
+    private int blameRenameLimit = 0;
+    private boolean speculativeBlameEnabled = false;
+    private String minerIncludes = StringUtils.EMPTY;
+    private String minerExcludes = StringUtils.EMPTY;
+    private int initialMiningDays = 0;
+    private int initialMiningCommits = 0;
+
+    /**
+     * Creates the global configuration and loads the initial values from the corresponding XML file.
+     */
+    public GitForensicsConfiguration() {
+        super();
+
+        load();
+    }
+
+    /**
+     * Creates the global configuration using the specified facade and loads the initial values.
+     *
+     * @param facade
+     *         the facade to load and save the configuration
+     */
+    @VisibleForTesting
+    public GitForensicsConfiguration(final GlobalConfigurationFacade facade) {
+        super(facade);
+
+        load();
+    }
+
+    /**
+     * Returns the singleton instance of this {@link GitForensicsConfiguration}.
+     *
+     * @return the singleton instance
+     */
+    public static GitForensicsConfiguration getInstance() {
+        return all().get(GitForensicsConfiguration.class);
+    }
+
+    /**
+     * Enables or disables the persistent blame cache. If enabled, the blame results of each file are stored in the
+     * Git directory of the working tree, so subsequent builds can reuse the results of files that did not change.
+     *
+     * @param blameCacheEnabled
+     *         determines whether the persistent blame cache should be used
+     */
+    @DataBoundSetter
+    public void setBlameCacheEnabled(final boolean blameCacheEnabled) {
+        this.blameCacheEnabled = blameCacheEnabled;
+
+        save();
+    }
+
+    public boolean isBlameCacheEnabled() {
+        return blameCacheEnabled;
+    }
+
+    /**
+     * Sets the maximum number of files that are stored in the persistent blame cache. If the cache is full, then the
+     * least recently used files will be evicted.
+     *
+     * @param blameCacheSize
+     *         the maximum number of files in the cache
+     */
+    @DataBoundSetter
+    public void setBlameCacheSize(final int blameCacheSize) {
+        this.blameCacheSize = blameCacheSize > 0 ? blameCacheSize : DEFAULT_BLAME_CACHE_SIZE;
+
+        save();
+    }
+
+    public int getBlameCacheSize() {
+        return blameCacheSize;
+    }
+
+    /**
+     * Enables or disables writing of a commit-graph file. If enabled, then a commit-graph file with changed-path Bloom
+     * filters will be written into the Git directory of the working tree if the repository has no such file yet. The
+     * file is used by the blamer and by the miner. Existing commit-graph files are always used. The Bloom filters are
+     * read by JGit only if {@code commitGraph.readChangedPaths} is set in the JGit configuration of the JVM, see
+     * {@link CommitGraphSupport}.
+     *
+     * @param commitGraphWriteEnabled
+     *         determines whether a missing commit-graph file should be written
+     */
+    @DataBoundSetter
+    public void setCommitGraphWriteEnabled(final boolean commitGraphWriteEnabled) {
+        this.commitGraphWriteEnabled = commitGraphWriteEnabled;
+
+        save();
+    }
+
+    public boolean isCommitGraphWriteEnabled() {
+        return commitGraphWriteEnabled;
+    }
+
+    /**
+     * Sets the wall-clock time budget for blaming the files of a build. If the budget is exhausted, then the remaining
+     * files will be skipped and the partial results will be returned. The files are blamed in priority order: files
+     * with more affected lines first, then ordered by path.
+     *
+     * @param blameTimeBudget
+     *         the time budget in seconds, 0 disables the budget
+     */
+    @DataBoundSetter
+    public void setBlameTimeBudget(final int blameTimeBudget) {
+        this.blameTimeBudget = Math.max(0, blameTimeBudget);
+
+        save();
+    }
+
+    public int getBlameTimeBudget() {
+        return blameTimeBudget;
+    }
+
+    /**
+     * Sets the size of a single window that JGit reads from a pack file. The value is rounded down to a power of 2.
+     *
+     * @param packedGitWindowSize
+     *         the window size in KiB, 0 uses the JGit default
+     */
+    @DataBoundSetter
+    public void setPackedGitWindowSize(final int packedGitWindowSize) {
+        this.packedGitWindowSize = Integer.highestOneBit(Math.max(0, packedGitWindowSize));
+
+        save();
+    }
+
+    public int getPackedGitWindowSize() {
+        return packedGitWindowSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes that JGit keeps in the pack window cache.
+     *
+     * @param packedGitLimit
+     *         the limit in MiB, 0 uses the JGit default
+     */
+    @DataBoundSetter
+    public void setPackedGitLimit(final int packedGitLimit) {
+        this.packedGitLimit = Math.max(0, packedGitLimit);
+
+        save();
+    }
+
+    public int getPackedGitLimit() {
+        return packedGitLimit;
+    }
+
+    /**
+     * Sets the maximum number of bytes that JGit keeps in the cache of inflated delta bases.
+     *
+     * @param deltaBaseCacheLimit
+     *         the limit in MiB, 0 uses the JGit default
+     */
+    @DataBoundSetter
+    public void setDeltaBaseCacheLimit(final int deltaBaseCacheLimit) {
+        this.deltaBaseCacheLimit = Math.max(0, deltaBaseCacheLimit);
+
+        save();
+    }
+
+    public int getDeltaBaseCacheLimit() {
+        return deltaBaseCacheLimit;
+    }
+
+    /**
+     * Sets the size of the largest object that JGit loads into memory as a whole. Larger objects are streamed.
+     *
+     * @param streamFileThreshold
+     *         the threshold in MiB, 0 uses the JGit default
+     */
+    @DataBoundSetter
+    public void setStreamFileThreshold(final int streamFileThreshold) {
+        this.streamFileThreshold = Math.max(0, streamFileThreshold);
+
+        save();
+    }
+
+    public int getStreamFileThreshold() {
+        return streamFileThreshold;
+    }
+
+    /**
+     * Selects the implementation that computes the blames of the files. The command line Git is used only if the Git
+     * tool of the build is not JGit. If the command line Git fails for a file, then JGit is used as fallback.
+     *
+     * @param blameBackend
+     *         the blame backend
+     */
+    @DataBoundSetter
+    public void setBlameBackend(final BlameBackend blameBackend) {
+        this.blameBackend = blameBackend == null ? BlameBackend.JGIT : blameBackend;
+
+        save();
+    }
+
+    public BlameBackend getBlameBackend() {
+        return blameBackend;
+    }
+
+    /**
+     * Sets the file size that selects the command line Git if the blame backend is {@link BlameBackend#AUTO}.
+     *
+     * @param cliBlameFileSize
+     *         the file size in KiB, 0 disables this criterion
+     */
+    @DataBoundSetter
+    public void setCliBlameFileSize(final int cliBlameFileSize) {
+        this.cliBlameFileSize = Math.max(0, cliBlameFileSize);
+
+        save();
+    }
+
+    public int getCliBlameFileSize() {
+        return cliBlameFileSize;
+    }
+
+    /**
+     * Sets the number of commits that touched a file that selects the command line Git if the blame backend is
+     * {@link BlameBackend#AUTO}.
+     *
+     * @param cliBlameHistoryDepth
+     *         the number of commits, 0 disables this criterion
+     */
+    @DataBoundSetter
+    public void setCliBlameHistoryDepth(final int cliBlameHistoryDepth) {
+        this.cliBlameHistoryDepth = Math.max(0, cliBlameHistoryDepth);
+
+        save();
+    }
+
+    public int getCliBlameHistoryDepth() {
+        return cliBlameHistoryDepth;
+    }
+
+    /**
+     * Sets the file size that is too expensive to blame. Larger files are attributed to the last commit that touched
+     * the file.
+     *
+     * @param blameMaxFileSize
+     *         the file size in KiB, 0 disables this limit
+     */
+    @DataBoundSetter
+    public void setBlameMaxFileSize(final int blameMaxFileSize) {
+        this.blameMaxFileSize = Math.max(0, blameMaxFileSize);
+
+        save();
+    }
+
+    public int getBlameMaxFileSize() {
+        return blameMaxFileSize;
+    }
+
+    /**
+     * Sets the number of lines that is too expensive to blame. Files with more lines are attributed to the last commit
+     * that touched the file.
+     *
+     * @param blameMaxLines
+     *         the number of lines, 0 disables this limit
+     */
+    @DataBoundSetter
+    public void setBlameMaxLines(final int blameMaxLines) {
+        this.blameMaxLines = Math.max(0, blameMaxLines);
+
+        save();
+    }
+
+    public int getBlameMaxLines() {
+        return blameMaxLines;
+    }
+
+    /**
+     * Sets the number of commits that touched a file that is too expensive to blame. Files with a longer history are
+     * attributed to the last commit that touched the file.
+     *
+     * @param blameMaxHistoryDepth
+     *         the number of commits, 0 disables this limit
+     */
+    @DataBoundSetter
+    public void setBlameMaxHistoryDepth(final int blameMaxHistoryDepth) {
+        this.blameMaxHistoryDepth = Math.max(0, blameMaxHistoryDepth);
+
+        save();
+    }
+
+    public int getBlameMaxHistoryDepth() {
+        return blameMaxHistoryDepth;
+    }
+
+    /**
+     * Sets the time limit for blaming a single file. If the limit is exceeded, then the blame of the file is aborted
+     * and the file is marked as skipped.
+     *
+     * @param blameFileTimeout
+     *         the time limit in seconds, 0 disables this limit
+     */
+    @DataBoundSetter
+    public void setBlameFileTimeout(final int blameFileTimeout) {
+        this.blameFileTimeout = Math.max(0, blameFileTimeout);
+
+        save();
+    }
+
+    public int getBlameFileTimeout() {
+        return blameFileTimeout;
+    }
+
+    /**
+     * Selects how the JGit blame follows the files through renames. This is the default for all jobs that do not
+     * define their own policy using the job property {@code gitBlamePolicy}.
+     *
+     * @param blameRenameDetection
+     *         the rename detection
+     */
+    @DataBoundSetter
+    public void setBlameRenameDetection(final RenameDetection blameRenameDetection) {
+        this.blameRenameDetection = blameRenameDetection == null ? RenameDetection.SIMILARITY : blameRenameDetection;
+
+        save();
+    }
+
+    public RenameDetection getBlameRenameDetection() {
+        return blameRenameDetection;
+    }
+
+    /**
+     * Sets the maximum number of added and deleted files that are compared with each other to find renames with similar
+     * content.
+     *
+     * @param blameRenameLimit
+     *         the rename limit, 0 uses the setting {@code diff.renameLimit} of the repository
+     */
+    @DataBoundSetter
+    public void setBlameRenameLimit(final int blameRenameLimit) {
+        this.blameRenameLimit = Math.max(0, blameRenameLimit);
+
+        save();
+    }
+
+    public int getBlameRenameLimit() {
+        return blameRenameLimit;
+    }
+
+    /**
+     * Enables or disables the speculative blame. If enabled, then the files that have been touched by the new commits
+     * of a build are blamed in the background on the agent right after the checkout. Subsequent blames of the same
+     * commit reuse the precomputed results.
+     *
+     * @param speculativeBlameEnabled
+     *         determines whether the touched files should be blamed right after the checkout
+     */
+    @DataBoundSetter
+    public void setSpeculativeBlameEnabled(final boolean speculativeBlameEnabled) {
+        this.speculativeBlameEnabled = speculativeBlameEnabled;
+
+        save();
+    }
+
+    public boolean isSpeculativeBlameEnabled() {
+        return speculativeBlameEnabled;
+    }
+
+    /**
+     * Enables or disables virtual threads for the per-file work of the blame, delta, and mining computations. If
+     * enabled and the JVM of the agent supports virtual threads (Java 21 or later), then the number of parallel workers
+     * is not limited by the number of cores anymore. Otherwise, a platform thread pool is used.
+     *
+     * @param virtualThreadsEnabled
+     *         determines whether virtual threads should be used
+     */
+    @DataBoundSetter
+    public void setVirtualThreadsEnabled(final boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+
+        save();
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * Sets the globs of the files that should be mined by the repository miner. Only commits that touch at least one
+     * of these files will be analyzed. The globs are matched against the path of a file relative to the repository
+     * root, e.g. {@code services/payments/**}.
+     *
+     * @param minerIncludes
+     *         comma or newline separated globs of the files to include, empty to include all files
+     */
+    @DataBoundSetter
+    public void setMinerIncludes(final String minerIncludes) {
+        this.minerIncludes = StringUtils.stripToEmpty(minerIncludes);
+
+        save();
+    }
+
+    public String getMinerIncludes() {
+        return minerIncludes;
+    }
+
+    /**
+     * Sets the globs of the files that should be skipped by the repository miner. Excludes take precedence over
+     * includes.
+     *
+     * @param minerExcludes
+     *         comma or newline separated globs of the files to exclude
+     */
+    @DataBoundSetter
+    public void setMinerExcludes(final String minerExcludes) {
+        this.minerExcludes = StringUtils.stripToEmpty(minerExcludes);
+
+        save();
+    }
+
+    public String getMinerExcludes() {
+        return minerExcludes;
+    }
+
+    /**
+     * Sets the number of days that are mined by the initial mining of a repository. If set, then the statistics of the
+     * first build contain only the commits of these days and are marked as partial. Subsequent builds add the older
+     * commits in bounded portions until the whole history has been mined.
+     *
+     * @param initialMiningDays
+     *         the number of days, 0 mines the whole history
+     */
+    @DataBoundSetter
+    public void setInitialMiningDays(final int initialMiningDays) {
+        this.initialMiningDays = Math.max(0, initialMiningDays);
+
+        save();
+    }
+
+    public int getInitialMiningDays() {
+        return initialMiningDays;
+    }
+
+    /**
+     * Sets the maximum number of commits that are mined by the initial mining of a repository. If set, then the
+     * statistics of the first build contain only the latest commits and are marked as partial. Subsequent builds add
+     * at most this number of older commits until the whole history has been mined.
+     *
+     * @param initialMiningCommits
+     *         the number of commits, 0 mines the whole history
+     */
+    @DataBoundSetter
+    public void setInitialMiningCommits(final int initialMiningCommits) {
+        this.initialMiningCommits = Math.max(0, initialMiningCommits);
+
+        save();
+    }
+
+    public int getInitialMiningCommits() {
+        return initialMiningCommits;
+    }
+}
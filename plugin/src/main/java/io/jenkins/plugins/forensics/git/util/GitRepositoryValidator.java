@@ -30,6 +30,7 @@ public class GitRepositoryValidator {
     public static final String INFO_SHALLOW_CLONE_COMMIT_RECORDING = "Git has been configured with shallow clone - commit recording will be limited to the available commits";
 
     private static final String HEAD = "HEAD";
+    private static final String GIT = "git";
 
     private final SCM scm;
     private final Run<?, ?> build;
@@ -144,6 +145,18 @@ public class GitRepositoryValidator {
         }
     }
 
+    /**
+     * Returns the Git executable of the Git tool that is configured for the SCM on the node of the working tree. If
+     * the build uses JGit, then the name of the JGit tool is returned (e.g., 'jgit').
+     *
+     * @return the Git executable
+     */
+    public String getGitExecutable() {
+        var computer = workTree.toComputer();
+        var executable = ((GitSCM) scm).getGitExe(computer == null ? null : computer.getNode(), listener);
+        return executable == null ? GIT : executable;
+    }
+
     /**
      * Returns the GIT_COMMIT environment variable, or 'HEAD' if not set.
      *
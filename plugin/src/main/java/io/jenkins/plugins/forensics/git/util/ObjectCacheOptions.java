@@ -0,0 +1,240 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.eclipse.jgit.storage.file.WindowCacheStats;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Options for the JGit object cache (the pack window cache and the delta base cache) of the JVM that runs the
+ * repository callbacks. The options are created on the controller and are transferred to the agent together with the
+ * callbacks, see {@link AbstractRepositoryCallback#withObjectCache(ObjectCacheOptions)}. Since the cache is global for
+ * the JVM, it is reconfigured only if the options differ from the options that have been installed before: otherwise
+ * the content of the cache would be discarded for each callback. A value of 0 keeps the JGit default of the
+ * corresponding option. If all values are 0, then the cache will not be touched at all. Limits that exceed the range
+ * of JGit (2 GiB) are clamped to this range.
+ *
+ * @author Ullrich Hafner
+ */
+public class ObjectCacheOptions implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2712237788453211098L;
+
+    private static final int KIB = 1024;
+    private static final int MIB = KIB * KIB;
+    private static final int MAX_WINDOW_SIZE = MIB; // in KiB, i.e. 1 GiB
+
+    private static int[] installed = new int[4];
+
+    private int packedGitWindowSize = 0;
+    private int packedGitLimit = 0;
+    private int deltaBaseCacheLimit = 0;
+    private int streamFileThreshold = 0;
+
+    /**
+     * Creates the options from the global configuration of the plugin.
+     *
+     * @param configuration
+     *         the global configuration
+     *
+     * @return the created options
+     */
+    public static ObjectCacheOptions from(final GitForensicsConfiguration configuration) {
+        return new ObjectCacheOptions()
+                .setPackedGitWindowSize(configuration.getPackedGitWindowSize())
+                .setPackedGitLimit(configuration.getPackedGitLimit())
+                .setDeltaBaseCacheLimit(configuration.getDeltaBaseCacheLimit())
+                .setStreamFileThreshold(configuration.getStreamFileThreshold());
+    }
+
+    /**
+     * Sets the size of a single window that is read from a pack file. JGit requires a power of 2, so other values are
+     * rounded down to the next power of 2. Values above 1 GiB are limited to 1 GiB.
+     *
+     * @param packedGitWindowSize
+     *         the window size in KiB, 0 uses the JGit default
+     *
+     * @return this
+     */
+    public ObjectCacheOptions setPackedGitWindowSize(final int packedGitWindowSize) {
+        this.packedGitWindowSize = Integer.highestOneBit(Math.min(Math.max(0, packedGitWindowSize), MAX_WINDOW_SIZE));
+
+        return this;
+    }
+
+    public int getPackedGitWindowSize() {
+        return packedGitWindowSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes of all windows that are cached.
+     *
+     * @param packedGitLimit
+     *         the limit in MiB, 0 uses the JGit default
+     *
+     * @return this
+     */
+    public ObjectCacheOptions setPackedGitLimit(final int packedGitLimit) {
+        this.packedGitLimit = Math.max(0, packedGitLimit);
+
+        return this;
+    }
+
+    public int getPackedGitLimit() {
+        return packedGitLimit;
+    }
+
+    /**
+     * Sets the maximum number of bytes of the cache for inflated delta bases.
+     *
+     * @param deltaBaseCacheLimit
+     *         the limit in MiB, 0 uses the JGit default
+     *
+     * @return this
+     */
+    public ObjectCacheOptions setDeltaBaseCacheLimit(final int deltaBaseCacheLimit) {
+        this.deltaBaseCacheLimit = Math.max(0, deltaBaseCacheLimit);
+
+        return this;
+    }
+
+    public int getDeltaBaseCacheLimit() {
+        return deltaBaseCacheLimit;
+    }
+
+    /**
+     * Sets the size of the largest object that is loaded into memory as a whole. Larger objects are streamed.
+     *
+     * @param streamFileThreshold
+     *         the threshold in MiB, 0 uses the JGit default
+     *
+     * @return this
+     */
+    public ObjectCacheOptions setStreamFileThreshold(final int streamFileThreshold) {
+        this.streamFileThreshold = Math.max(0, streamFileThreshold);
+
+        return this;
+    }
+
+    public int getStreamFileThreshold() {
+        return streamFileThreshold;
+    }
+
+    /**
+     * Returns whether these options change the JGit defaults.
+     *
+     * @return {@code true} if at least one option is set, {@code false} if all JGit defaults are used
+     */
+    public boolean isConfigured() {
+        return packedGitWindowSize > 0 || packedGitLimit > 0 || deltaBaseCacheLimit > 0 || streamFileThreshold > 0;
+    }
+
+    /**
+     * Installs these options as the JGit object cache configuration of the current JVM, if they differ from the
+     * installed options. Returns a snapshot of the cache statistics that can be used to report the cache hits and
+     * misses of the subsequent operations.
+     *
+     * @param log
+     *         the logger
+     *
+     * @return the statistics before the subsequent operations
+     */
+    public Statistics install(final FilteredLog log) {
+        if (isConfigured()) {
+            installIfChanged(log);
+        }
+        return new Statistics();
+    }
+
+    private void installIfChanged(final FilteredLog log) {
+        var config = new WindowCacheConfig();
+        if (packedGitWindowSize > 0) {
+            config.setPackedGitWindowSize(packedGitWindowSize * KIB);
+        }
+        if (packedGitLimit > 0) {
+            config.setPackedGitLimit((long) packedGitLimit * MIB);
+        }
+        if (deltaBaseCacheLimit > 0) {
+            config.setDeltaBaseCacheLimit(toBytes(deltaBaseCacheLimit, MIB));
+        }
+        if (streamFileThreshold > 0) {
+            config.setStreamFileThreshold(toBytes(streamFileThreshold, MIB));
+        }
+        install(new int[] {packedGitWindowSize, packedGitLimit, deltaBaseCacheLimit, streamFileThreshold},
+                config, log);
+    }
+
+    /**
+     * Converts the specified value to bytes. Since JGit stores these limits as int, the result is clamped to
+     * {@link Integer#MAX_VALUE}.
+     *
+     * @param value
+     *         the value in the specified unit
+     * @param unit
+     *         the number of bytes of the unit
+     *
+     * @return the number of bytes
+     */
+    @VisibleForTesting
+    static int toBytes(final int value, final int unit) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) value * unit);
+    }
+
+    private static synchronized void install(final int[] values, final WindowCacheConfig config,
+            final FilteredLog log) {
+        if (Arrays.equals(installed, values)) {
+            return;
+        }
+        try {
+            config.install();
+            installed = values;
+            log.logInfo("-> configured JGit object cache: window size %d KiB, limit %d MiB, "
+                            + "delta base cache %d MiB, stream file threshold %d MiB",
+                    config.getPackedGitWindowSize() / KIB, config.getPackedGitLimit() / MIB,
+                    config.getDeltaBaseCacheLimit() / MIB, config.getStreamFileThreshold() / MIB);
+        }
+        catch (IllegalArgumentException exception) {
+            log.logException(exception, "Can't configure JGit object cache, using previous configuration");
+        }
+    }
+
+    /**
+     * A snapshot of the counters of the JGit pack window cache. Since the cache is global for the JVM, the reported
+     * differences also contain the cache accesses of other operations that run at the same time.
+     */
+    public static class Statistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        Statistics() {
+            var stats = WindowCacheStats.getStats();
+            hits = stats.getHitCount();
+            misses = stats.getMissCount();
+            evictions = stats.getEvictionCount();
+        }
+
+        /**
+         * Logs the cache hits, misses, and evictions since this snapshot has been created.
+         *
+         * @param log
+         *         the logger
+         */
+        public void log(final FilteredLog log) {
+            var stats = WindowCacheStats.getStats();
+            long hitCount = stats.getHitCount() - hits;
+            long missCount = stats.getMissCount() - misses;
+            long total = hitCount + missCount;
+            log.logInfo("-> JGit object cache: %d hits, %d misses (hit ratio %d%%), %d evictions, "
+                            + "%d open pack files with %d MiB",
+                    hitCount, missCount, total == 0 ? 100 : hitCount * 100 / total,
+                    stats.getEvictionCount() - evictions, stats.getOpenFileCount(),
+                    stats.getOpenByteCount() / MIB);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.jenkins.plugins.forensics.git.util;
+
+/**
+ * Defines how the JGit blame follows a file through renames in the history.
+ *
+ * @author Ullrich Hafner
+ */
+public enum RenameDetection {
+    /** Does not follow renames: the history of a file stops at the commit that added the file with its current name. */
+    NONE,
+    /** Follows renames of files whose content has not been changed during the rename. */
+    EXACT,
+    /** Follows renames of files with similar content. The number of compared files is limited by the rename limit. */
+    SIMILARITY
+}
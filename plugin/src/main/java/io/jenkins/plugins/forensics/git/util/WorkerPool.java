@@ -0,0 +1,184 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the per-file work of a repository callback in parallel. The per-file work of the blame and delta callbacks is
+ * I/O bound: most of the time is spent reading the pack files. So if the JVM of the agent supports virtual threads
+ * (Java 21 or later) and virtual threads have been enabled, then the workers run on virtual threads and the number of
+ * workers is not limited by the number of cores. Otherwise, the workers run in a platform thread pool that is bounded
+ * by the number of cores.
+ *
+ * <p>
+ * The pool has a structured lifecycle: all workers are started within a try-with-resources block. If the current
+ * thread is interrupted (e.g., the build has been aborted), then all workers are canceled. When the pool is closed, it
+ * waits until all workers have been terminated. So no worker accesses the repository after the callback returned. If
+ * the workers do not terminate within {@value #TERMINATION_TIMEOUT} seconds after they have been canceled, then
+ * closing the pool fails with an exception.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class WorkerPool implements AutoCloseable {
+    private static final int VIRTUAL_WORKERS_PER_CORE = 8;
+    private static final int TERMINATION_TIMEOUT = 30;
+
+    /**
+     * Creates a new pool for the specified number of tasks.
+     *
+     * @param virtualThreads
+     *         determines whether virtual threads should be used if the JVM supports them
+     * @param tasks
+     *         the number of tasks that should be processed
+     * @param log
+     *         the logger
+     *
+     * @return the created pool
+     */
+    public static WorkerPool create(final boolean virtualThreads, final int tasks, final FilteredLog log) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (virtualThreads) {
+            var executor = createVirtualThreadExecutor();
+            if (executor.isPresent()) {
+                return new WorkerPool(executor.get(), getWorkers(tasks, cores * VIRTUAL_WORKERS_PER_CORE), true);
+            }
+            log.logInfo("-> virtual threads are not supported by Java %s, using platform threads",
+                    Runtime.version().feature());
+        }
+        int workers = getWorkers(tasks, cores);
+        return new WorkerPool(Executors.newFixedThreadPool(workers), workers, false);
+    }
+
+    @VisibleForTesting
+    static int getWorkers(final int tasks, final int limit) {
+        return Math.max(1, Math.min(tasks, limit));
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task. The executor is created using reflection
+     * since the plugin supports agents that run on Java 17.
+     *
+     * @return the executor, or an empty optional if the JVM does not support virtual threads
+     */
+    @VisibleForTesting
+    static Optional<ExecutorService> createVirtualThreadExecutor() {
+        try {
+            var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        }
+        catch (InvocationTargetException exception) {
+            if (exception.getCause() instanceof UnsupportedOperationException) {
+                return Optional.empty(); // preview features are disabled
+            }
+            throw new IllegalStateException("Can't create virtual thread executor", exception.getCause());
+        }
+        catch (ReflectiveOperationException exception) {
+            return Optional.empty(); // Java 17
+        }
+    }
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final boolean virtual;
+
+    private WorkerPool(final ExecutorService executor, final int workers, final boolean virtual) {
+        this.executor = executor;
+        this.workers = workers;
+        this.virtual = virtual;
+    }
+
+    /**
+     * Returns the number of workers that should be started.
+     *
+     * @return the number of workers
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Returns whether the workers run on virtual threads.
+     *
+     * @return {@code true} if virtual threads are used, {@code false} if platform threads are used
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Returns a human-readable description of the threads of this pool.
+     *
+     * @return the description
+     */
+    public String describe() {
+        return "%d %s".formatted(workers, virtual ? "virtual threads" : "worker threads");
+    }
+
+    /**
+     * Returns whether this pool has been closed and all workers have been terminated.
+     *
+     * @return {@code true} if all workers have been terminated, {@code false} otherwise
+     */
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    /**
+     * Starts the specified worker.
+     *
+     * @param worker
+     *         the worker to start
+     * @param <T>
+     *         the type of the result of the worker
+     *
+     * @return the future of the result
+     */
+    public <T> Future<T> submit(final Callable<T> worker) {
+        return executor.submit(worker);
+    }
+
+    /**
+     * Cancels all workers that are still running and waits until all workers have been terminated. If the current
+     * thread is interrupted while waiting, then the pool still waits for the workers and the interrupt flag is
+     * restored afterward.
+     *
+     * @throws IllegalStateException
+     *         if some workers are still running {@value #TERMINATION_TIMEOUT} seconds after they have been canceled,
+     *         e.g., since they are blocked in a non-interruptible operation
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (executor.awaitTermination(TERMINATION_TIMEOUT, TimeUnit.SECONDS)) {
+                        return;
+                    }
+                    throw new IllegalStateException(
+                            "Workers are still running %d seconds after they have been canceled".formatted(
+                                    TERMINATION_TIMEOUT));
+                }
+                catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
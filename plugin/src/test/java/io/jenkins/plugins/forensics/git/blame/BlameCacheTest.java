@@ -0,0 +1,157 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.blame.FileBlame;
+import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link BlameCache}.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameCacheTest {
+    private static final String FILE = "file.txt";
+    private static final ObjectId BLOB = ObjectId.fromString("0123456789012345678901234567890123456789");
+    private static final String COMMIT = "9876543210987654321098765432109876543210";
+    private static final FileBlameBuilder BUILDER = new FileBlameBuilder();
+
+    @Test
+    void shouldCreateKeyFromPathBlobAndSortedLines() {
+        assertThat(BlameCache.createKey(FILE, BLOB, Set.of(3, 1, 2)))
+                .isEqualTo(FILE + '\0' + BLOB.name() + '\0' + "1,2,3")
+                .isNotEqualTo(BlameCache.createKey(FILE, BLOB, Set.of(1, 2)));
+    }
+
+    @Test
+    void shouldNotStoreResultsIfDisabled() {
+        var cache = BlameCache.disabled();
+        var key = BlameCache.createKey(FILE, BLOB, Set.of(1));
+
+        cache.put(key, createBlame(), Set.of(1));
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.get(key)).isEmpty();
+    }
+
+    @Test
+    void shouldPersistAndRestoreEntries(@TempDir final File gitDirectory) {
+        var log = createLog();
+        var key = BlameCache.createKey(FILE, BLOB, Set.of(1, 2));
+
+        var cache = BlameCache.load(createRepository(gitDirectory), 10, log);
+        assertThat(cache.get(key)).isEmpty();
+        cache.put(key, createBlame(), Set.of(1, 2));
+        cache.save(log);
+
+        assertThat(new File(gitDirectory, BlameCache.FILE_NAME)).exists();
+
+        var restored = BlameCache.load(createRepository(gitDirectory), 10, log);
+        var cachedLines = restored.get(key);
+        assertThat(cachedLines).isPresent();
+
+        var blames = BlameCache.restore(cachedLines.get(), () -> BUILDER.build(FILE));
+        assertThat(blames).hasSize(2);
+        assertThat(blames.get(0).getName(1)).isEqualTo("Name");
+        assertThat(blames.get(0).getEmail(1)).isEqualTo("name@jenkins.io");
+        assertThat(blames.get(0).getCommit(1)).isEqualTo(COMMIT);
+        assertThat(blames.get(0).getTime(1)).isEqualTo(1234);
+        assertThat(blames.get(1).getLines()).isEmpty();
+
+        assertThat(log.getErrorMessages()).isEmpty();
+    }
+
+    @Test
+    void shouldRestoreDashValues(@TempDir final File gitDirectory) {
+        var log = createLog();
+        var key = BlameCache.createKey(FILE, BLOB, Set.of(1));
+
+        var blame = BUILDER.build(FILE);
+        blame.setName(1, "-");
+        blame.setEmail(1, "-");
+        blame.setCommit(1, COMMIT);
+        blame.setTime(1, 1234);
+
+        var cache = BlameCache.load(createRepository(gitDirectory), 10, log);
+        cache.put(key, blame, Set.of(1));
+        cache.save(log);
+
+        var cachedLines = BlameCache.load(createRepository(gitDirectory), 10, log).get(key);
+        assertThat(cachedLines).isPresent();
+
+        var blames = BlameCache.restore(cachedLines.get(), () -> BUILDER.build(FILE));
+        assertThat(blames).hasSize(1);
+        assertThat(blames.get(0).getLines()).containsExactly(1);
+        assertThat(blames.get(0).getName(1)).isEqualTo("-");
+        assertThat(blames.get(0).getEmail(1)).isEqualTo("-");
+        assertThat(blames.get(0).getCommit(1)).isEqualTo(COMMIT);
+
+        assertThat(log.getErrorMessages()).isEmpty();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries(@TempDir final File gitDirectory) {
+        var cache = BlameCache.load(createRepository(gitDirectory), 2, createLog());
+
+        var first = BlameCache.createKey("first", BLOB, Set.of(1));
+        var second = BlameCache.createKey("second", BLOB, Set.of(1));
+        var third = BlameCache.createKey("third", BLOB, Set.of(1));
+
+        cache.put(first, createBlame(), Set.of(1));
+        cache.put(second, createBlame(), Set.of(1));
+        assertThat(cache.get(first)).isPresent();
+        cache.put(third, createBlame(), Set.of(1));
+
+        assertThat(cache.get(first)).isPresent();
+        assertThat(cache.get(second)).isEmpty();
+        assertThat(cache.get(third)).isPresent();
+    }
+
+    @Test
+    void shouldSkipCorruptCacheFile(@TempDir final File gitDirectory) throws IOException {
+        Files.writeString(new File(gitDirectory, BlameCache.FILE_NAME).toPath(), "corrupt",
+                StandardCharsets.UTF_8);
+
+        var log = createLog();
+        var cache = BlameCache.load(createRepository(gitDirectory), 10, log);
+
+        assertThat(cache.get(BlameCache.createKey(FILE, BLOB, Set.of(1)))).isEmpty();
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).anySatisfy(message -> assertThat(message).contains("blame cache"));
+    }
+
+    private FileBlame createBlame() {
+        var blame = BUILDER.build(FILE);
+        blame.setName(1, "Name");
+        blame.setEmail(1, "name@jenkins.io");
+        blame.setCommit(1, COMMIT);
+        blame.setTime(1, 1234);
+        return blame;
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private Repository createRepository(final File gitDirectory) {
+        var repository = mock(Repository.class);
+        when(repository.getDirectory()).thenReturn(gitDirectory);
+        return repository;
+    }
+
+    private FilteredLog createLog() {
+        return new FilteredLog(StringUtils.EMPTY);
+    }
+}
@@ -0,0 +1,39 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.remoting.VirtualChannel;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link BlameCleanup}.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameCleanupTest {
+    @Test
+    void shouldDiscardBlamesLocallyAndOnRegisteredAgents() throws IOException {
+        var build = "job#2";
+        Run<?, ?> run = mock(Run.class);
+        when(run.getExternalizableId()).thenReturn(build);
+        var channel = mock(VirtualChannel.class);
+
+        BlameCleanup.register(run, new FilePath(channel, "/workspace"));
+        BlameCleanup.register(run, new FilePath(channel, "/workspace@2"));
+        BlameMemo.of(build);
+
+        BlameCleanup.discard(build);
+
+        assertThat(BlameMemo.find(build)).isNull();
+        verify(channel).callAsync(any());
+
+        BlameCleanup.discard(build);
+        verifyNoMoreInteractions(channel);
+    }
+}
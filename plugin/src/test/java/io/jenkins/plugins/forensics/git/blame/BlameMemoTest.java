@@ -0,0 +1,157 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
+import io.jenkins.plugins.forensics.blame.FileLocations;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link BlameMemo}.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameMemoTest {
+    private static final String REPOSITORY = "git https://github.com/jenkinsci/git-forensics-plugin.git";
+    private static final String HEAD = "a1b2c3";
+    private static final String FILE = "file.txt";
+    private static final String NAME = "Foo";
+
+    @Test
+    void shouldServeBlamesOfCompletedFiles() throws InterruptedException {
+        var memo = new BlameMemo();
+
+        var first = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1, 2));
+        assertThat(first.getClaimed().getFiles()).containsExactly(FILE);
+        assertThat(first.getServed().getFiles()).isEmpty();
+        first.complete(createBlames(FILE, 1, 2));
+
+        var second = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 2));
+        assertThat(second.getClaimed().getFiles()).isEmpty();
+        assertThat(second.getPending().getFiles()).isEmpty();
+        assertThat(second.getServed()).hasOnlyFiles(FILE);
+        assertThat(second.getServed().getBlame(FILE).getLines()).containsExactly(2);
+        assertThat(second.getServed().getBlame(FILE).getName(2)).isEqualTo(NAME + 2);
+        assertThat(second.await(new Blames()).getFiles()).isEmpty();
+    }
+
+    @Test
+    void shouldSeparateRepositoriesAndCommits() {
+        var memo = new BlameMemo();
+
+        memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1)).complete(createBlames(FILE, 1));
+
+        assertThat(memo.lookup("other", HEAD, createLocations(FILE, 1)).getClaimed().getFiles())
+                .containsExactly(FILE);
+        assertThat(memo.lookup(REPOSITORY, "d4e5f6", createLocations(FILE, 1)).getClaimed().getFiles())
+                .containsExactly(FILE);
+    }
+
+    @Test
+    void shouldWaitForFilesThatAreBlamedByOtherBlamers() throws Exception {
+        var memo = new BlameMemo();
+
+        var first = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1));
+        var second = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1));
+        assertThat(second.getClaimed().getFiles()).isEmpty();
+        assertThat(second.getPending().getFiles()).containsExactly(FILE);
+
+        var results = new Blames();
+        var waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return second.await(results);
+            }
+            catch (InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        first.complete(createBlames(FILE, 1));
+
+        assertThat(waiting.get().getFiles()).isEmpty();
+        assertThat(results).hasOnlyFiles(FILE);
+        assertThat(results.getBlame(FILE).getName(1)).isEqualTo(NAME + 1);
+    }
+
+    @Test
+    void shouldReturnMissingLocationsIfOtherBlamerFailed() throws InterruptedException {
+        var memo = new BlameMemo();
+
+        var first = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1));
+        var second = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1));
+        first.complete(new Blames());
+
+        var results = new Blames();
+        var missing = second.await(results);
+
+        assertThat(results.getFiles()).isEmpty();
+        assertThat(missing.getFiles()).containsExactly(FILE);
+        assertThat(missing.getLines(FILE)).containsExactly(1);
+        assertThat(memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1)).getClaimed().getFiles())
+                .containsExactly(FILE);
+    }
+
+    @Test
+    void shouldMergeAdditionalLinesIntoMemoizedBlame() {
+        var memo = new BlameMemo();
+
+        memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1)).complete(createBlames(FILE, 1));
+
+        var additional = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1, 3));
+        assertThat(additional.getClaimed().getLines(FILE)).containsExactlyInAnyOrder(1, 3);
+        additional.complete(createBlames(FILE, 3));
+
+        var served = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1, 3)).getServed();
+        assertThat(served).hasOnlyFiles(FILE);
+        assertThat(served.getBlame(FILE).getName(1)).isEqualTo(NAME + 1);
+        assertThat(served.getBlame(FILE).getName(3)).isEqualTo(NAME + 3);
+    }
+
+    @Test
+    void shouldNotShareMutableBlames() {
+        var memo = new BlameMemo();
+        var blames = createBlames(FILE, 1);
+
+        memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1)).complete(blames);
+        blames.getBlame(FILE).setName(1, "Changed");
+        var served = memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1)).getServed();
+        served.getBlame(FILE).setName(1, "Changed again");
+
+        assertThat(memo.lookup(REPOSITORY, HEAD, createLocations(FILE, 1)).getServed().getBlame(FILE).getName(1))
+                .isEqualTo(NAME + 1);
+    }
+
+    @Test
+    void shouldDiscardBlamesOfBuild() {
+        var build = "job#1";
+        var memo = BlameMemo.of(build);
+        assertThat(BlameMemo.of(build)).isSameAs(memo);
+        assertThat(BlameMemo.find(build)).isSameAs(memo);
+
+        BlameMemo.discard(build);
+
+        assertThat(BlameMemo.find(build)).isNull();
+    }
+
+    private FileLocations createLocations(final String file, final int... lines) {
+        var locations = new FileLocations();
+        for (int line : lines) {
+            locations.addLine(file, line);
+        }
+        return locations;
+    }
+
+    private Blames createBlames(final String file, final int... lines) {
+        var blame = new FileBlameBuilder().build(file);
+        for (int line : lines) {
+            blame.setName(line, NAME + line);
+            blame.setCommit(line, HEAD);
+        }
+        var blames = new Blames();
+        blames.add(blame);
+        return blames;
+    }
+}
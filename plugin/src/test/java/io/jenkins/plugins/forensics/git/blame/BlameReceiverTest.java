@@ -0,0 +1,66 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileBlame;
+import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link BlameReceiver}.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameReceiverTest {
+    private static final FileBlameBuilder BUILDER = new FileBlameBuilder();
+    private static final String NAME = "Foo";
+
+    @Test
+    void shouldMergeBatchesIncrementally() {
+        var blames = new Blames();
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var receiver = new BlameReceiver(blames, 4, log);
+
+        receiver.accept(createBatch("first.txt"));
+        assertThat(blames).hasOnlyFiles("first.txt");
+        assertThat(log.getInfoMessages()).containsExactly("-> received blames of 1 of 4 files (20%)");
+
+        receiver.accept(CompactBlames.of(new Blames()));
+        receiver.accept(createBatch("second.txt", "third.txt", "fourth.txt"));
+
+        assertThat(blames).hasOnlyFiles("first.txt", "second.txt", "third.txt", "fourth.txt");
+        assertThat(blames.getBlame("third.txt").getName(1)).isEqualTo(NAME);
+        assertThat(receiver.getFiles()).isEqualTo(4);
+        assertThat(receiver.getBatches()).isEqualTo(2);
+        assertThat(log.getInfoMessages()).containsExactly(
+                "-> received blames of 1 of 4 files (20%)",
+                "-> received blames of 4 of 4 files (100%)");
+    }
+
+    @Test
+    void shouldReportProgressOnlyOncePerStep() {
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var receiver = new BlameReceiver(new Blames(), 100, log);
+
+        for (int i = 0; i < 15; i++) {
+            receiver.accept(createBatch("file-" + i + ".txt"));
+        }
+
+        assertThat(log.getInfoMessages()).containsExactly("-> received blames of 10 of 100 files (10%)");
+    }
+
+    private CompactBlames createBatch(final String... files) {
+        var blames = new Blames();
+        for (String file : files) {
+            FileBlame blame = BUILDER.build(file);
+            blame.setName(1, NAME);
+            blames.add(blame);
+        }
+        return CompactBlames.of(blames);
+    }
+}
@@ -0,0 +1,90 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.blame.BlameStatistics.FileStatistics;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link BlameStatistics}.
+ *
+ * @author Ullrich Hafner
+ */
+class BlameStatisticsTest {
+    private static final String FILE = "file.txt";
+
+    @Test
+    void shouldBeEmptyIfNoFileHasBeenRecorded() {
+        var statistics = new BlameStatistics();
+
+        assertThat(statistics.isEmpty()).isTrue();
+        assertThat(statistics.getFileCount()).isZero();
+        assertThat(statistics.getTotalDuration()).isZero();
+        assertThat(statistics.getSlowestFiles()).isEmpty();
+        assertThat(statistics.getHistogram()).containsExactly(
+                entry("< 10 ms", 0), entry("< 100 ms", 0), entry("< 1 s", 0), entry("< 10 s", 0),
+                entry(">= 10 s", 0));
+    }
+
+    @Test
+    void shouldCountFilesInHistogramBuckets() {
+        var statistics = new BlameStatistics();
+
+        statistics.record(FILE, 0, 1, 1);
+        statistics.record(FILE, 9, 1, 1);
+        statistics.record(FILE, 10, 1, 1);
+        statistics.record(FILE, 999, 1, 1);
+        statistics.record(FILE, 10_000, 1, 1);
+        statistics.record(FILE, 60_000, 1, 1);
+
+        assertThat(statistics.isEmpty()).isFalse();
+        assertThat(statistics.getFileCount()).isEqualTo(6);
+        assertThat(statistics.getTotalDuration()).isEqualTo(71_018);
+        assertThat(statistics.getHistogram()).containsExactly(
+                entry("< 10 ms", 2), entry("< 100 ms", 1), entry("< 1 s", 1), entry("< 10 s", 0),
+                entry(">= 10 s", 2));
+    }
+
+    @Test
+    void shouldKeepOnlySlowestFiles() {
+        var statistics = new BlameStatistics();
+
+        int count = BlameStatistics.SLOWEST_FILES_COUNT + 5;
+        for (int file = 1; file <= count; file++) {
+            statistics.record("file-" + file, file, file * 2, file * 3);
+        }
+
+        assertThat(statistics.getFileCount()).isEqualTo(count);
+        assertThat(statistics.getSlowestFiles()).hasSize(BlameStatistics.SLOWEST_FILES_COUNT)
+                .extracting(FileStatistics::getDuration)
+                .containsExactly(15L, 14L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L);
+
+        var slowest = statistics.getSlowestFiles().get(0);
+        assertThat(slowest.getFileName()).isEqualTo("file-15");
+        assertThat(slowest.getAttributedCommits()).isEqualTo(30);
+        assertThat(slowest.getLines()).isEqualTo(45);
+        assertThat(slowest).hasToString("file-15: 15 ms, 30 commits, 45 lines");
+    }
+
+    @Test
+    void shouldMergeStatistics() {
+        var first = new BlameStatistics();
+        first.record("first", 5, 1, 1);
+        first.record("second", 500, 1, 1);
+
+        var second = new BlameStatistics();
+        second.record("third", 50, 1, 1);
+
+        first.merge(second);
+
+        assertThat(first.getFileCount()).isEqualTo(3);
+        assertThat(first.getTotalDuration()).isEqualTo(555);
+        assertThat(first.getHistogram()).containsEntry("< 10 ms", 1)
+                .containsEntry("< 100 ms", 1)
+                .containsEntry("< 1 s", 1);
+        assertThat(first.getSlowestFiles()).extracting(FileStatistics::getFileName)
+                .containsExactly("second", "third", "first");
+        assertThat(second.getFileCount()).isEqualTo(1);
+    }
+}
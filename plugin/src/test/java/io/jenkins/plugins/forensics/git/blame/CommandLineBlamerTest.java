@@ -0,0 +1,74 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.git.blame.BlamedFile.BlamedLine;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CommandLineBlamer}.
+ *
+ * @author Ullrich Hafner
+ */
+class CommandLineBlamerTest {
+    private static final String FIRST_COMMIT = "a".repeat(40);
+    private static final String SECOND_COMMIT = "b".repeat(40);
+
+    @Test
+    void shouldParsePorcelainOutput() throws IOException {
+        var output = String.join("\n",
+                FIRST_COMMIT + " 1 2 2",
+                "author Foo",
+                "author-mail <foo@example.com>",
+                "author-time 1000",
+                "author-tz +0000",
+                "committer Bar",
+                "committer-mail <bar@example.com>",
+                "committer-time 2000",
+                "committer-tz +0000",
+                "summary Init",
+                "boundary",
+                "filename file.txt",
+                "\tfirst line",
+                FIRST_COMMIT + " 2 3",
+                "\tsecond line",
+                SECOND_COMMIT + " 5 10 1",
+                "author Baz",
+                "author-mail <baz@example.com>",
+                "author-time 3000",
+                "author-tz +0000",
+                "committer Baz",
+                "committer-mail <baz@example.com>",
+                "committer-time 4000",
+                "committer-tz +0000",
+                "summary Change",
+                "previous " + FIRST_COMMIT + " file.txt",
+                "filename file.txt",
+                "\tauthor Qux");
+
+        var blamedFile = CommandLineBlamer.parse(new BufferedReader(new StringReader(output)));
+
+        assertThat(blamedFile.attributedCommits()).isEqualTo(2);
+        assertThat(blamedFile.lines()).containsOnlyKeys(2, 3, 10);
+        assertThat(blamedFile.get(2)).isEqualTo(
+                new BlamedLine("Foo", "foo@example.com", FIRST_COMMIT, 2000));
+        assertThat(blamedFile.get(3)).isEqualTo(blamedFile.get(2));
+        assertThat(blamedFile.get(10)).isEqualTo(
+                new BlamedLine("Baz", "baz@example.com", SECOND_COMMIT, 4000));
+        assertThat(blamedFile.get(1)).isNull();
+    }
+
+    @Test
+    void shouldCreateRangesOfRequestedLines() {
+        assertThat(CommandLineBlamer.createRanges(Set.of(), 10)).isEmpty();
+        assertThat(CommandLineBlamer.createRanges(Set.of(0, 11), 10)).isEmpty();
+        assertThat(CommandLineBlamer.createRanges(Set.of(1, 2, 3, 5, 7, 8, 12), 10))
+                .containsExactly("1,3", "5,5", "7,8");
+    }
+}
@@ -0,0 +1,123 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileBlame;
+import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CompactBlames}.
+ *
+ * @author Ullrich Hafner
+ */
+class CompactBlamesTest {
+    private static final String FIRST_FILE = "first.txt";
+    private static final String SECOND_FILE = "second.txt";
+    private static final String EMPTY_FILE = "empty.txt";
+    private static final String NAME = "Foo";
+    private static final String EMAIL = "foo@jenkins.io";
+    private static final String COMMIT = "0123456789012345678901234567890123456789";
+    private static final String EMPTY = "-";
+    private static final FileBlameBuilder BUILDER = new FileBlameBuilder();
+
+    @Test
+    void shouldHandleEmptyBlames() {
+        var compact = CompactBlames.of(new Blames());
+
+        assertThat(compact.size()).isZero();
+        assertThat(compact.getLineCount()).isZero();
+        assertThat(compact.getDictionarySize()).isZero();
+        assertThat(compact.expand()).isEmpty();
+    }
+
+    @Test
+    void shouldStoreEachDistinctValueOnlyOnce() {
+        var blames = new Blames();
+        blames.add(createBlame(FIRST_FILE, 1, 2, 3));
+        blames.add(createBlame(SECOND_FILE, 10, 20));
+
+        var compact = CompactBlames.of(blames);
+
+        assertThat(compact.size()).isEqualTo(2);
+        assertThat(compact.getLineCount()).isEqualTo(5);
+        assertThat(compact.getDictionarySize()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRestoreAllFilesAndLines() {
+        var blames = new Blames();
+        blames.add(createBlame(FIRST_FILE, 1, 2, 3));
+        blames.add(createBlame(SECOND_FILE, 10, 20));
+        blames.add(BUILDER.build(EMPTY_FILE));
+
+        var partial = BUILDER.build(SECOND_FILE);
+        partial.setName(30, "Bar");
+        blames.add(partial);
+
+        var expanded = CompactBlames.of(blames).expand();
+
+        assertThat(expanded).hasOnlyFiles(FIRST_FILE, SECOND_FILE, EMPTY_FILE);
+        var first = expanded.getBlame(FIRST_FILE);
+        assertThat(first.getLines()).containsExactlyInAnyOrder(1, 2, 3);
+        for (int line = 1; line <= 3; line++) {
+            assertThat(first.getName(line)).isEqualTo(NAME);
+            assertThat(first.getEmail(line)).isEqualTo(EMAIL);
+            assertThat(first.getCommit(line)).isEqualTo(COMMIT);
+            assertThat(first.getTime(line)).isEqualTo(line * 100);
+        }
+
+        var second = expanded.getBlame(SECOND_FILE);
+        assertThat(second.getLines()).containsExactlyInAnyOrder(10, 20, 30);
+        assertThat(second.getName(30)).isEqualTo("Bar");
+        assertThat(second.getEmail(30)).isEqualTo(EMPTY);
+        assertThat(second.getCommit(30)).isEqualTo(EMPTY);
+        assertThat(second.getTime(30)).isZero();
+
+        assertThat(expanded.getBlame(EMPTY_FILE).getLines()).isEmpty();
+    }
+
+    @Test
+    void shouldTransferDashAsRegularValue() {
+        var blame = BUILDER.build(FIRST_FILE);
+        blame.setName(1, EMPTY);
+        blame.setEmail(1, EMAIL);
+        blame.setCommit(1, COMMIT);
+        var blames = new Blames();
+        blames.add(blame);
+
+        var compact = CompactBlames.of(blames);
+        assertThat(compact.getDictionarySize()).isEqualTo(3);
+
+        var restored = compact.expand().getBlame(FIRST_FILE);
+        assertThat(restored.getName(1)).isEqualTo(EMPTY);
+        assertThat(restored.getEmail(1)).isEqualTo(EMAIL);
+        assertThat(restored.getCommit(1)).isEqualTo(COMMIT);
+    }
+
+    @Test
+    void shouldExpandIntoExistingBlames() {
+        var existing = new Blames();
+        existing.add(createBlame(FIRST_FILE, 1));
+
+        var blames = new Blames();
+        blames.add(createBlame(SECOND_FILE, 10));
+        CompactBlames.of(blames).expandTo(existing);
+
+        assertThat(existing).hasOnlyFiles(FIRST_FILE, SECOND_FILE);
+        assertThat(existing.getBlame(SECOND_FILE).getName(10)).isEqualTo(NAME);
+    }
+
+    private FileBlame createBlame(final String fileName, final int... lines) {
+        var blame = BUILDER.build(fileName);
+        for (int line : lines) {
+            blame.setName(line, NAME);
+            blame.setEmail(line, EMAIL);
+            blame.setCommit(line, COMMIT);
+            blame.setTime(line, line * 100);
+        }
+        return blame;
+    }
+}
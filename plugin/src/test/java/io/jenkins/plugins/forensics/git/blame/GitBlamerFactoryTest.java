@@ -13,6 +13,7 @@ import java.util.Optional;
 import org.jenkinsci.plugins.gitclient.GitClient;
 import hudson.EnvVars;
 import hudson.FilePath;
+import hudson.model.Job;
 import hudson.model.Run;
 import hudson.model.Saveable;
 import hudson.model.TaskListener;
@@ -22,7 +23,10 @@ import hudson.scm.NullSCM;
 import hudson.util.DescribableList;
 
 import io.jenkins.plugins.forensics.blame.Blamer;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
+import io.jenkins.plugins.forensics.git.util.RenameDetection;
+import io.jenkins.plugins.util.GlobalConfigurationFacade;
 
 import static io.jenkins.plugins.forensics.assertions.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -51,6 +55,7 @@ class GitBlamerFactoryTest {
         var gitSCM = createGitScm();
 
         Run<?, ?> run = mock(Run.class);
+        doReturn(mock(Job.class)).when(run).getParent();
 
         var envVars = new EnvVars();
         envVars.put("GIT_COMMIT", "test_commit");
@@ -65,7 +70,7 @@ class GitBlamerFactoryTest {
         when(gitSCM.createClient(NULL_LISTENER, envVars, run, workspace)).thenReturn(gitClient);
         var logger = createLogger();
 
-        var factory = new GitBlamerFactory();
+        var factory = new GitBlamerFactory(() -> new GitForensicsConfiguration(mock(GlobalConfigurationFacade.class)));
         Optional<Blamer> blamer = factory.createBlamer(gitSCM, run, workspace, NULL_LISTENER, logger);
 
         assertThat(blamer).isNotEmpty().containsInstanceOf(GitBlamer.class);
@@ -73,6 +78,38 @@ class GitBlamerFactoryTest {
         assertThat(logger.getInfoMessages()).contains("-> Git blamer successfully created in working tree '/working-tree'");
     }
 
+    @Test
+    void shouldApplyBlamePolicyOfJob() throws IOException, InterruptedException {
+        var gitSCM = createGitScm();
+
+        var policy = new GitBlamePolicy();
+        policy.setRenameDetection(RenameDetection.EXACT);
+        policy.setRenameLimit(50);
+        Job<?, ?> job = mock(Job.class);
+        when(job.getProperty(GitBlamePolicy.class)).thenReturn(policy);
+        Run<?, ?> run = mock(Run.class);
+        doReturn(job).when(run).getParent();
+
+        var envVars = new EnvVars();
+        when(run.getEnvironment(NULL_LISTENER)).thenReturn(envVars);
+
+        GitClient gitClient = mock(GitClient.class);
+        var workspace = createWorkTreeStub();
+        when(gitClient.revParse(anyString())).thenReturn(mock(ObjectId.class));
+        when(gitClient.getWorkTree()).thenReturn(new FilePath(new File("/working-tree")));
+        when(gitSCM.createClient(NULL_LISTENER, envVars, run, workspace)).thenReturn(gitClient);
+
+        var configuration = new GitForensicsConfiguration(mock(GlobalConfigurationFacade.class));
+        configuration.setBlameRenameDetection(RenameDetection.NONE);
+        var factory = new GitBlamerFactory(() -> configuration);
+        var blamer = factory.createBlamer(gitSCM, run, workspace, NULL_LISTENER, createLogger());
+
+        assertThat(blamer).isNotEmpty().containsInstanceOf(GitBlamer.class);
+        var options = ((GitBlamer) blamer.get()).getOptions();
+        assertThat(options.getRenameDetection()).isEqualTo(RenameDetection.EXACT);
+        assertThat(options.getRenameLimit()).isEqualTo(50);
+    }
+
     private FilePath createWorkTreeStub() {
         File mock = mock(File.class);
         when(mock.getPath()).thenReturn("/");
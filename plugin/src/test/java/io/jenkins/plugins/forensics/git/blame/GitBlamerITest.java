@@ -6,9 +6,15 @@ import org.junitpioneer.jupiter.Issue;
 
 import edu.hm.hafner.util.FilteredLog;
 
+import java.util.List;
+
+import io.jenkins.plugins.forensics.blame.Blames;
 import io.jenkins.plugins.forensics.blame.FileBlame;
+import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
 import io.jenkins.plugins.forensics.blame.FileLocations;
+import io.jenkins.plugins.forensics.git.util.BlameBackend;
 import io.jenkins.plugins.forensics.git.util.GitITest;
+import io.jenkins.plugins.forensics.git.util.RenameDetection;
 
 import static io.jenkins.plugins.forensics.assertions.Assertions.*;
 
@@ -18,6 +24,10 @@ import static io.jenkins.plugins.forensics.assertions.Assertions.*;
  * @author Ullrich Hafner
  */
 class GitBlamerITest extends GitITest {
+    private static final String OTHER_FILE = "other.txt";
+    private static final String BUILD = "job#1";
+    private static final String PREVIOUS_NAME = "Previous";
+
     /**
      * Verifies that the blames are empty if there are no requests defined.
      */
@@ -54,7 +64,8 @@ class GitBlamerITest extends GitITest {
 
         assertThat(blames).hasOnlyFiles(absolutePath);
         assertThat(log.getErrorMessages()).isEmpty();
-        assertThat(log.getInfoMessages()).contains("-> blamed authors of issues in 1 files");
+        assertThat(log.getInfoMessages()).contains("-> blamed authors of issues in 1 files",
+                "-> received blames of 1 of 1 files (100%)");
 
         var request = blames.getBlame(absolutePath);
         assertThat(request).hasFileName(absolutePath);
@@ -67,6 +78,32 @@ class GitBlamerITest extends GitITest {
         assertThatBlameIsEmpty(request, 6);
     }
 
+    /**
+     * Verifies that only the requested lines are blamed and that lines outside the file are skipped.
+     */
+    @Test
+    void shouldBlameOnlyRequestedLines() {
+        create2RevisionsWithDifferentAuthors();
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 4);
+        locations.addLine(ADDITIONAL_FILE, 6);
+        locations.addLine(ADDITIONAL_FILE, 100);
+
+        var gitBlamer = createBlamer();
+
+        var log = createLog();
+        var blames = gitBlamer.blame(locations, log);
+
+        assertThat(blames).hasOnlyFiles(ADDITIONAL_FILE);
+        assertThat(log.getErrorMessages()).isEmpty();
+
+        var request = blames.getBlame(ADDITIONAL_FILE);
+        assertThatBlameIsHeadWith(request, 4);
+        assertThatBlameIs(request, 6);
+        assertThatBlameIsEmpty(request, 100);
+    }
+
     /**
      * Verifies that the last committer of the whole file is used if no specific line number is given.
      */
@@ -96,6 +133,469 @@ class GitBlamerITest extends GitITest {
         assertThat(request.getCommit(0)).isEqualTo(getHead());
     }
 
+    /**
+     * Verifies that the last commits of several files that are marked as a whole are resolved in a single walk.
+     */
+    @Test
+    void shouldResolveLastCommitsOfSeveralFiles() {
+        create2RevisionsWithDifferentAuthors();
+        var changeCommit = getHead();
+
+        writeFile(OTHER_FILE, "OTHER\n");
+        git("add", OTHER_FILE);
+        git("commit", "--message=Other file");
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 0);
+        locations.addLine(OTHER_FILE, 0);
+
+        var log = createLog();
+        var blames = createBlamer().blame(locations, log);
+
+        assertThat(blames).hasOnlyFiles(ADDITIONAL_FILE, OTHER_FILE);
+        assertThat(log.getErrorMessages()).isEmpty();
+
+        var additional = blames.getBlame(ADDITIONAL_FILE);
+        assertThat(additional.getName(0)).isEqualTo(BAR_NAME);
+        assertThat(additional.getCommit(0)).isEqualTo(changeCommit);
+
+        var other = blames.getBlame(OTHER_FILE);
+        assertThat(other.getName(0)).isEqualTo(BAR_NAME);
+        assertThat(other.getCommit(0)).isEqualTo(getHead());
+    }
+
+    /**
+     * Verifies that a file that is marked as a whole is not attributed to a commit on a side of a merge that has been
+     * discarded.
+     */
+    @Test
+    void shouldIgnoreDiscardedSideOfMerge() {
+        writeFileAsAuthorFoo("main\n");
+        var mainCommit = getHead();
+
+        checkoutNewBranch("feature");
+        writeFileAsAuthorBar("feature\n");
+        checkout(INITIAL_BRANCH);
+        git("merge", "--no-ff", "--strategy=ours", "--message=Merge feature", "feature");
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 0);
+
+        var log = createLog();
+        var blames = createBlamer().blame(locations, log);
+
+        assertThat(log.getErrorMessages()).isEmpty();
+        var request = blames.getBlame(ADDITIONAL_FILE);
+        assertThat(request.getName(0)).isEqualTo(FOO_NAME);
+        assertThat(request.getCommit(0)).isEqualTo(mainCommit);
+    }
+
+    /**
+     * Verifies that the blames of several files are computed by different workers and merged into a single result.
+     */
+    @Test
+    void shouldBlameSeveralFilesInParallel() {
+        create2RevisionsWithDifferentAuthors();
+
+        var otherFiles = new String[] {"first.txt", "second.txt", "third.txt"};
+        for (String otherFile : otherFiles) {
+            writeFile(otherFile, "OLD\nOLD\n");
+            git("add", otherFile);
+        }
+        git("commit", "--message=Other files");
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(ADDITIONAL_FILE, 3);
+        for (String otherFile : otherFiles) {
+            locations.addLine(otherFile, 1);
+        }
+
+        var gitBlamer = createBlamer();
+
+        var log = createLog();
+        var blames = gitBlamer.blame(locations, log);
+
+        assertThat(blames).hasOnlyFiles(ADDITIONAL_FILE, "first.txt", "second.txt", "third.txt");
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).contains("-> blamed authors of issues in 4 files");
+
+        var request = blames.getBlame(ADDITIONAL_FILE);
+        assertThatBlameIs(request, 2);
+        assertThat(request.getName(3)).isEqualTo(BAR_NAME);
+        assertThat(request.getEmail(3)).isEqualTo(BAR_EMAIL);
+
+        for (String otherFile : otherFiles) {
+            var other = blames.getBlame(otherFile);
+            assertThat(other.getName(1)).isEqualTo(BAR_NAME);
+            assertThat(other.getCommit(1)).isEqualTo(getHead());
+        }
+    }
+
+    /**
+     * Verifies that the duration, history depth, and number of lines are recorded for each blamed file.
+     */
+    @Test
+    void shouldRecordStatisticsOfBlamedFiles() {
+        create2RevisionsWithDifferentAuthors();
+
+        writeFile(OTHER_FILE, "OLD\n");
+        git("add", OTHER_FILE);
+        git("commit", "--message=Other file");
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(ADDITIONAL_FILE, 3);
+        locations.addLine(OTHER_FILE, 1);
+
+        var gitBlamer = createBlamer();
+        assertThat(gitBlamer.getStatistics().isEmpty()).isTrue();
+
+        var log = createLog();
+        gitBlamer.blame(locations, log);
+
+        var statistics = gitBlamer.getStatistics();
+        assertThat(statistics.getFileCount()).isEqualTo(2);
+        assertThat(statistics.getHistogram().values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(2);
+        assertThat(statistics.getSlowestFiles()).hasSize(2)
+                .anySatisfy(file -> {
+                    assertThat(file.getFileName()).isEqualTo(ADDITIONAL_FILE);
+                    assertThat(file.getAttributedCommits()).isEqualTo(2);
+                    assertThat(file.getLines()).isEqualTo(2);
+                })
+                .anySatisfy(file -> {
+                    assertThat(file.getFileName()).isEqualTo(OTHER_FILE);
+                    assertThat(file.getAttributedCommits()).isEqualTo(1);
+                    assertThat(file.getLines()).isEqualTo(1);
+                });
+        assertThat(log.getInfoMessages()).anyMatch(message -> message.startsWith("-> blame durations of 2 files: "));
+        assertThat(log.getInfoMessages()).contains("-> slowest files:");
+    }
+
+    /**
+     * Verifies that the history depth counts only the commits that have been attributed to the requested lines: the
+     * region of the head commit does not contain the requested line.
+     */
+    @Test
+    void shouldCountOnlyCommitsOfRequestedLines() {
+        create2RevisionsWithDifferentAuthors();
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 1);
+
+        var gitBlamer = createBlamer();
+        var blames = gitBlamer.blame(locations, createLog());
+
+        assertThatBlameIs(blames.getBlame(ADDITIONAL_FILE), 1);
+        assertThat(gitBlamer.getStatistics().getSlowestFiles()).singleElement()
+                .satisfies(file -> assertThat(file.getAttributedCommits()).isEqualTo(1));
+    }
+
+    /**
+     * Verifies that the command line Git creates the same blames as JGit.
+     */
+    @Test
+    void shouldBlameWithCommandLineGit() {
+        create2RevisionsWithDifferentAuthors();
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(ADDITIONAL_FILE, 3);
+        locations.addLine(ADDITIONAL_FILE, 4);
+        locations.addLine(ADDITIONAL_FILE, 6);
+        locations.addLine(ADDITIONAL_FILE, 100);
+
+        var log = createLog();
+        var options = new BlameOptions().setBackend(BlameBackend.CLI);
+        var blames = new GitBlamer(createGitClient(), "HEAD", options).blame(locations, log);
+
+        assertThat(blames).hasOnlyFiles(ADDITIONAL_FILE);
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).contains("-> blamed 1 files with command line git 'git'");
+
+        var request = blames.getBlame(ADDITIONAL_FILE);
+        assertThatBlameIs(request, 2);
+        assertThatBlameIsHeadWith(request, 3);
+        assertThatBlameIsHeadWith(request, 4);
+        assertThatBlameIs(request, 6);
+        assertThatBlameIsEmpty(request, 100);
+
+        var jgit = createBlamer().blame(locations, createLog()).getBlame(ADDITIONAL_FILE);
+        assertThat(request.getTime(3)).isEqualTo(jgit.getTime(3));
+        assertThat(request.getTime(6)).isEqualTo(jgit.getTime(6));
+    }
+
+    /**
+     * Verifies that the rename detection policy decides whether the blame follows a renamed file.
+     */
+    @Test
+    void shouldFollowRenamesDependingOnPolicy() {
+        create2RevisionsWithDifferentAuthors();
+        git("mv", ADDITIONAL_FILE, OTHER_FILE);
+        git("commit", "--message=Rename");
+
+        var locations = new FileLocations();
+        locations.addLine(OTHER_FILE, 1);
+        locations.addLine(OTHER_FILE, 3);
+
+        for (RenameDetection mode : List.of(RenameDetection.EXACT, RenameDetection.SIMILARITY)) {
+            var log = createLog();
+            var blames = new GitBlamer(createGitClient(), "HEAD", new BlameOptions().setRenameDetection(mode))
+                    .blame(locations, log);
+
+            assertThat(log.getErrorMessages()).isEmpty();
+            assertThat(log.getInfoMessages()).anyMatch(
+                    message -> message.endsWith("seconds (rename detection " + mode.name() + ")"));
+            var request = blames.getBlame(OTHER_FILE);
+            assertThatBlameIs(request, 1);
+            assertThat(request.getName(3)).isEqualTo(BAR_NAME);
+            assertThat(request.getCommit(3)).isNotEqualTo(getHead());
+        }
+
+        var log = createLog();
+        var blames = new GitBlamer(createGitClient(), "HEAD",
+                new BlameOptions().setRenameDetection(RenameDetection.NONE)).blame(locations, log);
+
+        assertThat(log.getInfoMessages()).anyMatch(message -> message.endsWith("seconds (rename detection NONE)"));
+        var request = blames.getBlame(OTHER_FILE);
+        assertThatBlameIsHeadWith(request, 1);
+        assertThatBlameIsHeadWith(request, 3);
+    }
+
+    /**
+     * Verifies that files that are too expensive to blame are attributed to their last commit.
+     */
+    @Test
+    void shouldAttributeExpensiveFilesToLastCommit() {
+        create2RevisionsWithDifferentAuthors();
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(ADDITIONAL_FILE, 3);
+
+        var log = createLog();
+        var options = new BlameOptions().setMaxLines(5);
+        var blames = new GitBlamer(createGitClient(), "HEAD", options).blame(locations, log);
+
+        assertThat(blames).hasOnlyFiles(ADDITIONAL_FILE);
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).contains("- attributing '" + ADDITIONAL_FILE
+                + "' to its last commit, too expensive to blame: 6 lines exceed the limit of 5 lines");
+
+        var request = blames.getBlame(ADDITIONAL_FILE);
+        assertThatBlameIsHeadWith(request, 2);
+        assertThatBlameIsHeadWith(request, 3);
+
+        var unlimited = new GitBlamer(createGitClient(), "HEAD", new BlameOptions().setMaxLines(6))
+                .blame(locations, createLog()).getBlame(ADDITIONAL_FILE);
+        assertThatBlameIs(unlimited, 2);
+        assertThatBlameIsHeadWith(unlimited, 3);
+    }
+
+    /**
+     * Verifies that the blames of unchanged files are restored from the persistent cache.
+     */
+    @Test
+    void shouldReuseCachedBlamesOfUnchangedFiles() {
+        create2RevisionsWithDifferentAuthors();
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(ADDITIONAL_FILE, 3);
+
+        var options = new BlameOptions().setCacheEnabled(true);
+
+        var firstLog = createLog();
+        var first = new GitBlamer(createGitClient(), "HEAD", options).blame(locations, firstLog);
+        assertThat(firstLog.getInfoMessages()).contains("-> blame cache: 0 hits, 1 misses, 1 files cached");
+
+        var secondLog = createLog();
+        var second = new GitBlamer(createGitClient(), "HEAD", options).blame(locations, secondLog);
+        assertThat(secondLog.getInfoMessages()).contains("-> blame cache: 1 hits, 0 misses, 1 files cached");
+        assertThat(secondLog.getErrorMessages()).isEmpty();
+
+        var request = second.getBlame(ADDITIONAL_FILE);
+        assertThatBlameIs(request, 2);
+        assertThatBlameIsHeadWith(request, 3);
+        assertThat(request.getTime(3)).isEqualTo(first.getBlame(ADDITIONAL_FILE).getTime(3));
+    }
+
+    /**
+     * Verifies that the blames of the previous build are reused for files that have not been touched since the
+     * previous commit.
+     */
+    @Test
+    void shouldReuseBlamesOfPreviousBuildForUntouchedFiles() {
+        create2RevisionsWithDifferentAuthors();
+        writeFile(OTHER_FILE, "OLD\nOLD\n");
+        git("add", OTHER_FILE);
+        git("commit", "--message=Other file");
+
+        var previousCommit = getHead();
+        var previousBlames = new Blames();
+        previousBlames.add(createPreviousBlame(ADDITIONAL_FILE));
+        previousBlames.add(createPreviousBlame(OTHER_FILE));
+
+        writeFile(OTHER_FILE, "NEW\nOLD\n");
+        git("commit", "--all", "--message=Change other file");
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(OTHER_FILE, 1);
+
+        var log = createLog();
+        var blames = createBlamer().blame(locations, previousBlames, previousCommit, log);
+
+        assertThat(blames).hasOnlyFiles(ADDITIONAL_FILE, OTHER_FILE);
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).contains(
+                "-> reusing blames of 1 untouched files from commit '" + previousCommit
+                        + "' (1 files touched since then)",
+                "-> blaming 1 files using 1 worker threads",
+                "-> blamed authors of issues in 2 files");
+
+        var untouched = blames.getBlame(ADDITIONAL_FILE);
+        assertThat(untouched.getName(2)).isEqualTo(PREVIOUS_NAME);
+        assertThat(untouched.getCommit(2)).isEqualTo(previousCommit);
+
+        assertThatBlameIsHeadWith(blames.getBlame(OTHER_FILE), 1);
+    }
+
+    /**
+     * Verifies that all files are blamed if the previous commit is not part of the repository.
+     */
+    @Test
+    void shouldBlameAllFilesIfPreviousCommitIsUnknown() {
+        create2RevisionsWithDifferentAuthors();
+
+        var previousBlames = new Blames();
+        previousBlames.add(createPreviousBlame(ADDITIONAL_FILE));
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+
+        var log = createLog();
+        var blames = createBlamer().blame(locations, previousBlames, "0123456789abcdef0123456789abcdef01234567", log);
+
+        assertThat(log.getInfoMessages()).contains("-> skipping incremental blame, blaming all files");
+        assertThatBlameIs(blames.getBlame(ADDITIONAL_FILE), 2);
+    }
+
+    /**
+     * Verifies that the blames that have been computed speculatively after the checkout are reused.
+     */
+    @Test
+    void shouldReuseSpeculativeBlamesOfTouchedFiles() throws Exception {
+        create2RevisionsWithDifferentAuthors();
+
+        var start = createGitClient().withRepository(
+                new SpeculativeBlameCallback(BUILD, getHeadCommit(), List.of(getHead()), new BlameOptions()));
+        assertThat(start.getResult()).isEqualTo(1);
+        assertThat(start.getInfoMessages()).contains(
+                "-> started speculative blame of 1 files touched by 1 new commits");
+        awaitSpeculativeBlame();
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(ADDITIONAL_FILE, 3);
+
+        var log = createLog();
+        var blames = createBlamer().blame(locations, log);
+
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).contains(
+                "-> reusing speculative blames of 1 files (1 of 1 files blamed after checkout)",
+                "-> blaming 0 files using 1 worker threads");
+        assertThatBlameIs(blames.getBlame(ADDITIONAL_FILE), 2);
+        assertThatBlameIsHeadWith(blames.getBlame(ADDITIONAL_FILE), 3);
+
+        var again = createGitClient().withRepository(
+                new SpeculativeBlameCallback(BUILD, getHeadCommit(), List.of(getHead()), new BlameOptions()));
+        assertThat(again.getResult()).isZero();
+        assertThat(again.getInfoMessages()).contains(
+                "-> skipping speculative blame, commit '" + getHead() + "' is already blamed");
+    }
+
+    /**
+     * Verifies that the speculative blames are cancelled and discarded when the build has been completed.
+     */
+    @Test
+    void shouldDiscardSpeculativeBlamesWhenBuildIsCompleted() throws Exception {
+        create2RevisionsWithDifferentAuthors();
+
+        var start = createGitClient().withRepository(
+                new SpeculativeBlameCallback(BUILD, getHeadCommit(), List.of(getHead()), new BlameOptions()));
+        assertThat(start.getResult()).isEqualTo(1);
+        assertThat(isSpeculativeBlameRegistered()).isTrue();
+
+        BlameCleanup.discard(BUILD);
+
+        assertThat(isSpeculativeBlameRegistered()).isFalse();
+        var again = createGitClient().withRepository(
+                new SpeculativeBlameCallback(BUILD, getHeadCommit(), List.of(getHead()), new BlameOptions()));
+        assertThat(again.getResult()).isEqualTo(1);
+
+        BlameCleanup.discard(BUILD);
+    }
+
+    private boolean isSpeculativeBlameRegistered() throws Exception {
+        return createGitClient().withRepository((repository, channel)
+                -> SpeculativeBlames.find(repository.getDirectory(), getHeadCommit()).isPresent());
+    }
+
+    private void awaitSpeculativeBlame() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            var finished = createGitClient().withRepository((repository, channel)
+                    -> SpeculativeBlames.find(repository.getDirectory(), getHeadCommit())
+                    .map(SpeculativeBlames::isFinished)
+                    .orElse(false));
+            if (finished) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Speculative blame did not finish");
+    }
+
+    /**
+     * Verifies that only the files that have been changed since the reference commit are blamed.
+     */
+    @Test
+    void shouldBlameOnlyFilesChangedSinceReferenceCommit() {
+        create2RevisionsWithDifferentAuthors();
+        var referenceCommit = getHead();
+
+        checkoutNewBranch("feature");
+        writeFile(OTHER_FILE, "NEW\n");
+        git("add", OTHER_FILE);
+        git("commit", "--message=Feature");
+
+        var locations = new FileLocations();
+        locations.addLine(ADDITIONAL_FILE, 2);
+        locations.addLine(OTHER_FILE, 1);
+
+        var log = createLog();
+        var blames = createBlamer().blameChangedFiles(locations, referenceCommit, log);
+
+        assertThat(blames).hasOnlyFiles(OTHER_FILE);
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).contains(
+                "-> skipping 1 of 2 files that have not been changed since reference commit '"
+                        + referenceCommit + "'");
+        assertThatBlameIsHeadWith(blames.getBlame(OTHER_FILE), 1);
+    }
+
+    private FileBlame createPreviousBlame(final String fileName) {
+        var blame = new FileBlameBuilder().build(fileName);
+        for (int line = 1; line <= 2; line++) {
+            blame.setName(line, PREVIOUS_NAME);
+            blame.setEmail(line, FOO_EMAIL);
+            blame.setCommit(line, getHead());
+            blame.setTime(line, 1);
+        }
+        return blame;
+    }
+
     private FilteredLog createLog() {
         return new FilteredLog(StringUtils.EMPTY);
     }
@@ -4,8 +4,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.JGitInternalException;
 import org.eclipse.jgit.api.errors.NoHeadException;
-import org.eclipse.jgit.blame.BlameResult;
-import org.eclipse.jgit.diff.RawText;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
@@ -21,6 +19,10 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.jenkinsci.plugins.gitclient.GitClient;
 import hudson.FilePath;
@@ -31,9 +33,13 @@ import io.jenkins.plugins.forensics.blame.Blames;
 import io.jenkins.plugins.forensics.blame.FileBlame;
 import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
 import io.jenkins.plugins.forensics.blame.FileLocations;
+import io.jenkins.plugins.forensics.git.blame.BlamedFile.BlamedLine;
 import io.jenkins.plugins.forensics.git.blame.GitBlamer.BlameCallback;
 import io.jenkins.plugins.forensics.git.blame.GitBlamer.BlameRunner;
+import io.jenkins.plugins.forensics.git.blame.GitBlamer.BlameTimeoutException;
 import io.jenkins.plugins.forensics.git.blame.GitBlamer.LastCommitRunner;
+import io.jenkins.plugins.forensics.git.blame.GitBlamer.TimeBudget;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
 
 import static io.jenkins.plugins.forensics.assertions.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -103,6 +109,50 @@ class GitBlamerTest {
         assertThat(log.getErrorMessages()).isEmpty();
     }
 
+    @Test
+    void shouldReportExhaustedTimeBudget() throws InterruptedException, IOException {
+        var gitClient = createGitClient();
+        when(gitClient.revParse(HEAD)).thenReturn(mock(ObjectId.class));
+
+        var blames = new Blames();
+        blames.add(BUILDER.build(RELATIVE_PATH));
+        when(gitClient.withRepository(any())).thenReturn(
+                new RemoteResultWrapper<>(CompactBlames.of(blames, List.of("skipped.txt")), StringUtils.EMPTY));
+
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var partial = new GitBlamer(gitClient, HEAD).blame(new FileLocations(), log);
+
+        assertThat(partial).hasOnlyFiles(RELATIVE_PATH);
+        assertThat(log.getErrorMessages()).contains(GitBlamer.BUDGET_EXHAUSTED.formatted(1));
+    }
+
+    @Test
+    void shouldExhaustTimeBudget() throws InterruptedException {
+        var unlimited = new TimeBudget(Duration.ZERO);
+        assertThat(unlimited.isLimited()).isFalse();
+        assertThat(unlimited.isExhausted()).isFalse();
+
+        var generous = new TimeBudget(Duration.ofHours(1));
+        assertThat(generous.isLimited()).isTrue();
+        assertThat(generous.isExhausted()).isFalse();
+
+        var tiny = new TimeBudget(Duration.ofNanos(1));
+        Thread.sleep(1);
+        assertThat(tiny.isExhausted()).isTrue();
+    }
+
+    @Test
+    void shouldSortFilesByNumberOfLinesAndPath() {
+        var locations = new FileLocations();
+        locations.addLine("b.txt", 1);
+        locations.addLine("a.txt", 1);
+        locations.addLine("c.txt", 1);
+        locations.addLine("c.txt", 2);
+
+        assertThat(BlameCallback.sortByPriority(List.of("b.txt", "a.txt", "c.txt"), locations))
+                .containsExactly("c.txt", "a.txt", "b.txt");
+    }
+
     private GitClient createStubbedClientWithException(final Exception exception)
             throws InterruptedException, IOException {
         GitClient gitClient = mock(GitClient.class);
@@ -145,6 +195,25 @@ class GitBlamerTest {
         assertThat(log.getErrorMessages().get(1)).startsWith(exception.getName());
     }
 
+    @Test
+    void shouldSkipFileIfTimeLimitIsExceeded() throws GitAPIException {
+        var locations = new FileLocations();
+        locations.addLine(RELATIVE_PATH, 1);
+        locations.addLine(RELATIVE_PATH, 2);
+
+        var blames = new Blames();
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var callback = createCallback(blames, locations);
+
+        BlameRunner runner = mock(BlameRunner.class);
+        when(runner.run(RELATIVE_PATH)).thenThrow(new BlameTimeoutException(Duration.ofSeconds(10)));
+        callback.run(BUILDER, RELATIVE_PATH, runner, createLastCommitRunner(), log);
+
+        assertThat(log.getErrorMessages()).containsExactly(
+                "- skipped blame of 'file.txt', too expensive: time limit of 10 seconds exceeded");
+        assertThat(blames.contains(RELATIVE_PATH)).isFalse();
+    }
+
     @Test
     void shouldMapResultToRequestWithOneLine() throws GitAPIException {
         var locations = new FileLocations();
@@ -156,8 +225,6 @@ class GitBlamerTest {
 
         var result = createResult(1);
 
-        stubResultForIndex(result, 0);
-
         callback.run(BUILDER, RELATIVE_PATH, createBlameRunner(result), createLastCommitRunner(), log);
 
         verifyResult(blames.getBlame(RELATIVE_PATH), 1);
@@ -179,9 +246,6 @@ class GitBlamerTest {
 
         var result = createResult(2);
 
-        stubResultForIndex(result, 0);
-        stubResultForIndex(result, 1);
-
         callback.run(BUILDER, RELATIVE_PATH, createBlameRunner(result), createLastCommitRunner(), log);
 
         assertThat(blames.contains(RELATIVE_PATH)).isTrue();
@@ -211,7 +275,6 @@ class GitBlamerTest {
         var callback = createCallback(blames, locations);
 
         var result = createResult(1);
-        stubResultForIndex(result, 0);
 
         var blameRunner = createBlameRunner(result);
         var lastCommitRunner = createLastCommitRunner();
@@ -239,8 +302,7 @@ class GitBlamerTest {
         var log = new FilteredLog(StringUtils.EMPTY);
         var callback = createCallback(blames, locations);
 
-        var result = createResult(1);
-        when(result.getSourceAuthor(0)).thenReturn(new PersonIdent(NAME, EMAIL));
+        var result = createResult(new BlamedLine(NAME, EMAIL, null, 0));
 
         callback.run(BUILDER, RELATIVE_PATH, createBlameRunner(result), createLastCommitRunner(), log);
 
@@ -260,9 +322,7 @@ class GitBlamerTest {
         var log = new FilteredLog(StringUtils.EMPTY);
         var callback = createCallback(blames, locations);
 
-        var result = createResult(1);
-        var commit = createCommit();
-        when(result.getSourceCommit(0)).thenReturn(commit);
+        var result = createResult(BlameRunner.createLine(null, null, createCommit()));
 
         callback.run(BUILDER, RELATIVE_PATH, createBlameRunner(result), createLastCommitRunner(), log);
 
@@ -282,11 +342,8 @@ class GitBlamerTest {
         var log = new FilteredLog(StringUtils.EMPTY);
         var callback = createCallback(blames, locations);
 
-        var result = createResult(1);
-        var commit = createCommit(TIME + 1);
-        when(result.getSourceCommit(0)).thenReturn(commit);
-        when(result.getSourceAuthor(0)).thenReturn(null);
-        when(result.getSourceCommitter(0)).thenReturn(new PersonIdent(NAME + 1, EMAIL + 1));
+        var result = createResult(BlameRunner.createLine(null, new PersonIdent(NAME + 1, EMAIL + 1),
+                createCommit(TIME + 1)));
 
         callback.run(BUILDER, RELATIVE_PATH, createBlameRunner(result), createLastCommitRunner(), log);
 
@@ -325,32 +382,25 @@ class GitBlamerTest {
                 .getBytes(StandardCharsets.UTF_8);
     }
 
-    private BlameResult createResult(final int size) {
-        var resultSize = createResultSize(size);
-        BlameResult result = mock(BlameResult.class);
-        when(result.getResultContents()).thenReturn(resultSize);
-        return result;
+    private BlamedFile createResult(final int size) {
+        Map<Integer, BlamedLine> lines = new HashMap<>();
+        for (int line = 1; line <= size; line++) {
+            lines.put(line, BlameRunner.createLine(new PersonIdent(NAME + line, EMAIL + line), null,
+                    createCommit(TIME + line)));
+        }
+        return new BlamedFile(lines, size);
+    }
+
+    private BlamedFile createResult(final BlamedLine line) {
+        return new BlamedFile(Map.of(1, line), 1);
     }
 
-    private BlameRunner createBlameRunner(final BlameResult result) throws GitAPIException {
+    private BlameRunner createBlameRunner(final BlamedFile result) throws GitAPIException {
         BlameRunner blameRunner = mock(BlameRunner.class);
         when(blameRunner.run(RELATIVE_PATH)).thenReturn(result);
         return blameRunner;
     }
 
-    private RawText createResultSize(final int size) {
-        RawText text = mock(RawText.class);
-        when(text.size()).thenReturn(size);
-        return text;
-    }
-
-    private void stubResultForIndex(final BlameResult result, final int index) {
-        int line = index + 1;
-        when(result.getSourceAuthor(index)).thenReturn(new PersonIdent(NAME + line, EMAIL + line));
-        var commit = createCommit(TIME + line);
-        when(result.getSourceCommit(index)).thenReturn(commit);
-    }
-
     private void verifyResult(final FileBlame request, final int line) {
         assertThat(request.getEmail(line)).isEqualTo(EMAIL + line);
         assertThat(request.getName(line)).isEqualTo(NAME + line);
@@ -0,0 +1,31 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link ReleasableSink}.
+ *
+ * @author Ullrich Hafner
+ */
+class ReleasableSinkTest {
+    @Test
+    void shouldForwardBatchesUntilReleased() {
+        var receiver = mock(BlameSink.class);
+        var sink = new ReleasableSink(receiver);
+        var batch = CompactBlames.of(new Blames());
+
+        sink.accept(batch);
+        verify(receiver).accept(batch);
+        assertThat(sink.isReleased()).isFalse();
+
+        sink.release();
+        sink.accept(batch);
+        verifyNoMoreInteractions(receiver);
+        assertThat(sink.isReleased()).isTrue();
+    }
+}
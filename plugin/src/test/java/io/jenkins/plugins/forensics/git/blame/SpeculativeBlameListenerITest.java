@@ -0,0 +1,110 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.StreamTaskListener;
+
+import io.jenkins.plugins.forensics.git.reference.GitCommitsRecord;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
+import io.jenkins.plugins.forensics.git.util.GitITest;
+import io.jenkins.plugins.util.GlobalConfigurationFacade;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link SpeculativeBlameListener}: the speculative blame is triggered by the commits of the
+ * {@link GitCommitsRecord} and is discarded when the build has been completed.
+ *
+ * @author Ullrich Hafner
+ */
+class SpeculativeBlameListenerITest extends GitITest {
+    private static final String BUILD = "speculative#1";
+
+    @Test
+    void shouldStartSpeculativeBlameForNewCommitsOfRecord() throws Exception {
+        writeFileAsAuthorFoo("Content\n");
+
+        var scm = createGitScm("file:///" + getGitRepository().getBaseDirectory(), Collections.emptyList());
+        var record = mock(GitCommitsRecord.class);
+        when(record.getScmKey()).thenReturn(scm.getKey());
+        when(record.getLatestCommit()).thenReturn(getHead());
+        when(record.getCommits()).thenReturn(List.of(getHead()));
+        when(record.size()).thenReturn(1);
+        var build = createBuild(record);
+
+        var output = new ByteArrayOutputStream();
+        createListener(true).onCheckout(build, scm, new FilePath(getGitRepository().getBaseDirectory()),
+                new StreamTaskListener(output, StandardCharsets.UTF_8), null, null);
+
+        assertThat(output.toString(StandardCharsets.UTF_8))
+                .contains("Starting speculative blame of the files touched by 1 new commits")
+                .contains("-> started speculative blame of 1 files touched by 1 new commits");
+        assertThat(isSpeculativeBlameRegistered()).isTrue();
+
+        BlameCleanup.discard(BUILD);
+
+        assertThat(isSpeculativeBlameRegistered()).isFalse();
+    }
+
+    @Test
+    void shouldSkipSpeculativeBlameForFirstBuild() throws IOException, InterruptedException {
+        var scm = createGitScm("file:///" + getGitRepository().getBaseDirectory(), Collections.emptyList());
+        var record = mock(GitCommitsRecord.class);
+        when(record.getScmKey()).thenReturn(scm.getKey());
+        when(record.isFirstBuild()).thenReturn(true);
+        var build = createBuild(record);
+
+        var output = new ByteArrayOutputStream();
+        createListener(true).onCheckout(build, scm, new FilePath(getGitRepository().getBaseDirectory()),
+                new StreamTaskListener(output, StandardCharsets.UTF_8), null, null);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).contains(
+                "Skipping speculative blame, the new commits of SCM '%s' are unknown".formatted(scm.getKey()));
+    }
+
+    @Test
+    void shouldDoNothingIfDisabled() throws IOException, InterruptedException {
+        var scm = createGitScm("file:///" + getGitRepository().getBaseDirectory(), Collections.emptyList());
+        Run<?, ?> build = mock(Run.class);
+
+        var output = new ByteArrayOutputStream();
+        createListener(false).onCheckout(build, scm, new FilePath(getGitRepository().getBaseDirectory()),
+                new StreamTaskListener(output, StandardCharsets.UTF_8), null, null);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEmpty();
+        verifyNoInteractions(build);
+    }
+
+    private SpeculativeBlameListener createListener(final boolean enabled) {
+        var configuration = new GitForensicsConfiguration(mock(GlobalConfigurationFacade.class));
+        configuration.setSpeculativeBlameEnabled(enabled);
+        return new SpeculativeBlameListener(() -> configuration);
+    }
+
+    private Run<?, ?> createBuild(final GitCommitsRecord record) throws IOException, InterruptedException {
+        Run<?, ?> build = mock(Run.class);
+        Job<?, ?> job = mock(Job.class);
+        when(build.getParent()).thenAnswer(i -> job);
+        when(build.getExternalizableId()).thenReturn(BUILD);
+        when(build.getEnvironment(any(TaskListener.class))).thenReturn(new EnvVars());
+        when(build.getActions(GitCommitsRecord.class)).thenReturn(List.of(record));
+        return build;
+    }
+
+    private boolean isSpeculativeBlameRegistered() throws IOException, InterruptedException {
+        return createGitClient().withRepository((repository, channel)
+                -> SpeculativeBlames.find(repository.getDirectory(), getHeadCommit()).isPresent());
+    }
+}
@@ -0,0 +1,75 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import io.jenkins.plugins.forensics.git.util.GitITest;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TouchedFilesCollector}.
+ *
+ * @author Ullrich Hafner
+ */
+class TouchedFilesCollectorITest extends GitITest {
+    private static final String OTHER_FILE = "other.txt";
+
+    /**
+     * Verifies that a file is touched if a merge commit reverts the file to the older content of the merged branch:
+     * the file differs from the previous commit although the merge commit takes the file of one of its parents.
+     */
+    @Test
+    void shouldDetectFileThatHasBeenRevertedByMerge() {
+        writeFileAsAuthorFoo("Old\n");
+        checkoutNewBranch("feature");
+        writeFile(OTHER_FILE, "Feature\n");
+        addFile(OTHER_FILE);
+        commit("Feature");
+
+        checkout(INITIAL_BRANCH);
+        writeFileAsAuthorBar("New\n");
+        var previousCommit = getHead();
+
+        git("merge", "--no-ff", "--no-commit", "feature");
+        git("checkout", "feature", "--", ADDITIONAL_FILE);
+        commit("Merge with old content");
+
+        runTest((repository, git) -> {
+            var log = new FilteredLog("Errors");
+            var touched = new TouchedFilesCollector(repository).collect(previousCommit, getHeadCommit(), log);
+
+            assertThat(touched).hasValueSatisfying(
+                    files -> assertThat(files).containsExactlyInAnyOrder(ADDITIONAL_FILE, OTHER_FILE));
+            assertThat(log.getErrorMessages()).isEmpty();
+        });
+    }
+
+    /** Verifies that no files are touched if the start commit is the head commit. */
+    @Test
+    void shouldFindNoFilesForSameCommit() {
+        writeFileAsAuthorFoo("Content\n");
+
+        runTest((repository, git) -> {
+            var touched = new TouchedFilesCollector(repository).collect(getHead(), getHeadCommit(),
+                    new FilteredLog("Errors"));
+
+            assertThat(touched).hasValueSatisfying(files -> assertThat(files).isEmpty());
+        });
+    }
+
+    /** Verifies that the touched files are unknown if the start commit is not part of the repository. */
+    @Test
+    void shouldReturnEmptyResultForUnknownCommit() {
+        runTest((repository, git) -> {
+            var log = new FilteredLog("Errors");
+            var touched = new TouchedFilesCollector(repository).collect(
+                    "0123456789abcdef0123456789abcdef01234567", getHeadCommit(), log);
+
+            assertThat(touched).isEmpty();
+            assertThat(log.getInfoMessages()).contains(
+                    "-> previous commit '0123456789abcdef0123456789abcdef01234567' is not part of the repository");
+        });
+    }
+}
@@ -22,7 +22,9 @@ import hudson.scm.NullSCM;
 import hudson.util.DescribableList;
 
 import io.jenkins.plugins.forensics.delta.DeltaCalculator;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
+import io.jenkins.plugins.util.GlobalConfigurationFacade;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -65,7 +67,8 @@ class GitDeltaCalculatorFactoryTest {
         when(gitSCM.createClient(NULL_LISTENER, envVars, run, workspace)).thenReturn(gitClient);
         var logger = createLogger();
 
-        var factory = new GitDeltaCalculatorFactory();
+        var factory = new GitDeltaCalculatorFactory(
+                () -> new GitForensicsConfiguration(mock(GlobalConfigurationFacade.class)));
         Optional<DeltaCalculator> deltaCalculator = factory.createDeltaCalculator(gitSCM, run, workspace, NULL_LISTENER,
                 logger);
 
@@ -1,15 +1,15 @@
 package io.jenkins.plugins.forensics.git.miner;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.junit.jupiter.api.Test;
 
 import edu.hm.hafner.util.FilteredLog;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -27,7 +27,7 @@ class CommitCollectorITest extends GitITest {
     @Test
     void shouldFindInitialCommits() {
         runTest((repository, git) -> {
-            List<RevCommit> actualCommits = findCommits(repository, git, "-");
+            List<RevCommit> actualCommits = findCommits(repository, "-");
 
             assertThat(actualCommits).hasSize(1);
             assertThat(actualCommits.get(0).getId()).isEqualTo(getHeadCommit());
@@ -42,7 +42,7 @@ class CommitCollectorITest extends GitITest {
         var middle = getHeadCommit();
 
         runTest((repository, git) -> {
-            List<RevCommit> actualCommits = findCommits(repository, git, "-");
+            List<RevCommit> actualCommits = findCommits(repository, "-");
             assertThat(actualCommits).hasSize(2);
             assertThat(extractCommitIds(actualCommits)).containsExactly(middle, start);
         });
@@ -51,7 +51,7 @@ class CommitCollectorITest extends GitITest {
         var head = getHeadCommit();
 
         runTest((repository, git) -> {
-            List<RevCommit> actualCommits = findCommits(repository, git, "-");
+            List<RevCommit> actualCommits = findCommits(repository, "-");
             assertThat(actualCommits).hasSize(3);
             assertThat(extractCommitIds(actualCommits)).containsExactly(head, middle, start);
         });
@@ -67,24 +67,105 @@ class CommitCollectorITest extends GitITest {
         var head = getHeadCommit();
 
         runTest((repository, git) -> {
-            List<RevCommit> upToHeadCommits = findCommits(repository, git, start.getName());
+            List<RevCommit> upToHeadCommits = findCommits(repository, start.getName());
             assertThat(upToHeadCommits).hasSize(2);
             assertThat(extractCommitIds(upToHeadCommits)).containsExactly(head, middle);
 
-            List<RevCommit> upToMiddleCommits = findCommits(repository, git, middle.getName());
+            List<RevCommit> upToMiddleCommits = findCommits(repository, middle.getName());
             assertThat(upToMiddleCommits).hasSize(1);
             assertThat(extractCommitIds(upToMiddleCommits)).containsExactly(head);
         });
     }
 
+    /**
+     * Verifies that the commits of a merged branch are skipped if the previous commit is reachable only through the
+     * second parent of the merge commit.
+     */
+    @Test
+    void shouldFindCommitsUpToCommitOfMergedBranch() {
+        var start = getHeadCommit();
+        checkoutNewBranch("feature");
+        writeFileWithNameAsAuthorFoo("feature.txt", "Feature");
+        var feature = getHeadCommit();
+
+        checkout(INITIAL_BRANCH);
+        writeFileWithNameAsAuthorFoo("main.txt", "Main");
+        var main = getHeadCommit();
+        mergeWithoutFastForwarding("feature");
+        var merge = getHeadCommit();
+
+        runTest((repository, git) -> {
+            List<RevCommit> sinceFeature = findCommits(repository, feature.getName());
+            assertThat(extractCommitIds(sinceFeature)).containsExactlyInAnyOrder(merge, main);
+            assertThat(sinceFeature.get(0).getId()).isEqualTo(merge);
+
+            List<RevCommit> sinceStart = findCommits(repository, start.getName());
+            assertThat(extractCommitIds(sinceStart)).containsExactlyInAnyOrder(merge, main, feature);
+        });
+    }
+
+    /** Verifies that the whole history is collected if the previous commit is not part of the repository. */
+    @Test
+    void shouldFindAllCommitsIfPreviousCommitIsUnknown() {
+        var start = getHeadCommit();
+        writeFileAsAuthorFoo("Head");
+        var head = getHeadCommit();
+
+        runTest((repository, git) -> {
+            List<RevCommit> actualCommits = findCommits(repository, "0123456789012345678901234567890123456789");
+            assertThat(extractCommitIds(actualCommits)).containsExactly(head, start);
+        });
+    }
+
+    /** Verifies that commits that do not touch the selected paths are skipped. */
+    @Test
+    void shouldSkipCommitsThatDoNotTouchSelectedPaths() {
+        var start = getHeadCommit();
+        writeFileWithNameAsAuthorFoo("services/payments/Pay.java", "Payments");
+        var payments = getHeadCommit();
+        writeFileWithNameAsAuthorFoo("services/orders/Order.java", "Orders");
+        writeFileWithNameAsAuthorFoo("services/payments/Refund.java", "Refund");
+        var refund = getHeadCommit();
+
+        runTest((repository, git) -> {
+            var paths = PathGlobs.from("services/payments/**", "").createTreeFilter();
+            List<RevCommit> actualCommits = new CommitCollector().findAllCommits(
+                    repository, start.getName(), paths, new FilteredLog("unused"));
+            assertThat(extractCommitIds(actualCommits)).containsExactly(refund, payments);
+        });
+    }
+
+    /** Verifies that the walk stops if the bounds of the mining window have been reached. */
+    @Test
+    void shouldFindOnlyCommitsOfMiningWindow() {
+        var start = getHeadCommit();
+        writeFileAsAuthorFoo("Middle");
+        var middle = getHeadCommit();
+        writeFileAsAuthorBar("Head");
+        var head = getHeadCommit();
+
+        runTest((repository, git) -> {
+            var collector = new CommitCollector();
+            var log = new FilteredLog("unused");
+
+            List<RevCommit> latestCommits = collector.findAllCommits(repository, "-", TreeFilter.ALL,
+                    new MiningWindow(0, 2).createRevFilter(Instant.now()), log);
+            assertThat(extractCommitIds(latestCommits)).containsExactly(head, middle);
+
+            List<RevCommit> recentCommits = collector.findAllCommits(repository, "-", TreeFilter.ALL,
+                    new MiningWindow(1, 0).createRevFilter(Instant.now()), log);
+            assertThat(extractCommitIds(recentCommits)).containsExactly(head, middle, start);
+        });
+    }
+
     private Stream<ObjectId> extractCommitIds(final List<RevCommit> actualCommits) {
         return actualCommits.stream().map(RevCommit::getId);
     }
 
-    private List<RevCommit> findCommits(final Repository repository, final Git git, final String lastCommitId)
-            throws IOException, GitAPIException {
+    private List<RevCommit> findCommits(final Repository repository, final String lastCommitId)
+            throws IOException {
         var collector = new CommitCollector();
 
-        return collector.findAllCommits(repository, git, lastCommitId, new FilteredLog("unused"));
+        return collector.findAllCommits(repository, lastCommitId, new FilteredLog("unused"));
     }
 }
@@ -0,0 +1,34 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CommitStatisticsStep}.
+ *
+ * @author Ullrich Hafner
+ */
+class CommitStatisticsStepTest {
+    @Test
+    void shouldInitializeGlobsWithEmptyValues() {
+        var step = new CommitStatisticsStep();
+
+        assertThat(step.getIncludes()).isEmpty();
+        assertThat(step.getExcludes()).isEmpty();
+    }
+
+    @Test
+    void shouldStripGlobs() {
+        var step = new CommitStatisticsStep();
+
+        step.setIncludes("  src/**\n");
+        step.setExcludes(null);
+        assertThat(step.getIncludes()).isEqualTo("src/**");
+        assertThat(step.getExcludes()).isEmpty();
+
+        step.setIncludes(StringUtils.SPACE);
+        assertThat(step.getIncludes()).isEmpty();
+    }
+}
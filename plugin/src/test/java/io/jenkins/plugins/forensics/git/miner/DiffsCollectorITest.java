@@ -1,9 +1,13 @@
 package io.jenkins.plugins.forensics.git.miner;
 
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.RenameDetector;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.treewalk.AbstractTreeIterator;
 import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
 import org.junit.jupiter.api.Test;
 
 import edu.hm.hafner.util.FilteredLog;
@@ -221,11 +225,18 @@ class DiffsCollectorITest extends GitITest {
     }
 
     private List<CommitDiffItem> createDiff(final Repository repository, final Git git, final String newCommit,
-            final AbstractTreeIterator toTree) {
-        var collector = new DiffsCollector();
-        return collector.getDiffsForCommit(repository, git,
-                new CommitDiffItem(newCommit, AUTHOR, 0),
-                toTree, new TreeStringBuilder(), new FilteredLog("Errors")
-        );
+            final AbstractTreeIterator toTree) throws IOException {
+        try (var reader = repository.newObjectReader();
+                var formatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            formatter.setReader(reader, repository.getConfig());
+            var collector = new DiffsCollector();
+            var logger = new FilteredLog("Errors");
+            return collector.getDiffsForCommit(formatter,
+                    new RenameDetector(reader, repository.getConfig().get(DiffConfig.KEY)),
+                    new CommitDiffItem(newCommit, AUTHOR, 0),
+                    CommitAnalyzer.createTreeIteratorFor(newCommit, repository, logger),
+                    toTree, new TreeStringBuilder(), logger
+            );
+        }
     }
 }
@@ -21,8 +21,10 @@ import hudson.plugins.git.extensions.impl.CloneOption;
 import hudson.scm.NullSCM;
 import hudson.util.DescribableList;
 
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
 import io.jenkins.plugins.forensics.miner.RepositoryMiner;
+import io.jenkins.plugins.util.GlobalConfigurationFacade;
 
 import static io.jenkins.plugins.forensics.assertions.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -64,7 +66,8 @@ class GitMinerFactoryTest {
 
         var logger = createLogger();
 
-        var factory = new GitMinerFactory();
+        var factory = new GitMinerFactory(
+                () -> new GitForensicsConfiguration(mock(GlobalConfigurationFacade.class)));
         Optional<RepositoryMiner> blamer = factory.createMiner(gitSCM, run, workspace, NULL_LISTENER, logger);
 
         assertThat(blamer).isNotEmpty().containsInstanceOf(GitRepositoryMiner.class);
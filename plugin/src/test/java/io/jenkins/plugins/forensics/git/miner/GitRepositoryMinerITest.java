@@ -2,13 +2,20 @@ package io.jenkins.plugins.forensics.git.miner;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import edu.hm.hafner.util.FilteredLog;
 
+import java.util.List;
+
+import hudson.model.Run;
+
 import io.jenkins.plugins.forensics.git.util.GitITest;
+import io.jenkins.plugins.forensics.git.util.ObjectCacheOptions;
 import io.jenkins.plugins.forensics.miner.RepositoryStatistics;
 
 import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests the class {@link GitRepositoryMiner}.
@@ -100,6 +107,164 @@ class GitRepositoryMinerITest extends GitITest {
                 .hasNumberOfCommits(4);
     }
 
+    /**
+     * Verifies that a missing commit-graph file is written if enabled.
+     *
+     * @throws InterruptedException
+     *         never thrown
+     */
+    @Test
+    void shouldWriteCommitGraphIfEnabled() throws InterruptedException {
+        writeFileAsAuthorFoo("First\n");
+
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var statisticsPerFile = new GitRepositoryMiner(createGitClient(), new ObjectCacheOptions(), false, true,
+                new PathGlobs(), new MiningWindow(), null).mine(new RepositoryStatistics(), log);
+
+        assertThat(statisticsPerFile).hasFiles(OTHER_FILE, ADDITIONAL_FILE);
+        assertThat(log.getInfoMessages()).anyMatch(message -> message.startsWith("-> wrote commit-graph file"));
+    }
+
+    /**
+     * Verifies that the initial mining is bounded by the mining window and that the oldest mined commit is compared
+     * with its parent.
+     *
+     * @throws InterruptedException
+     *         never thrown
+     */
+    @Test
+    void shouldMineOnlyCommitsOfMiningWindow() throws InterruptedException {
+        writeFileAsAuthorFoo("First\n");
+        writeFileAsAuthorBar("Second\nLine\n");
+        var head = getHead();
+
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var statisticsPerFile = new GitRepositoryMiner(createGitClient(), new ObjectCacheOptions(), false, false,
+                new PathGlobs(), new MiningWindow(0, 1), null).mine(new RepositoryStatistics(), log);
+
+        assertThat(statisticsPerFile).hasFiles(ADDITIONAL_FILE);
+        assertThat(statisticsPerFile.getLatestCommitId()).isEqualTo(head);
+        var fileStatistics = statisticsPerFile.get(ADDITIONAL_FILE);
+        assertThat(fileStatistics).hasNumberOfCommits(1);
+        assertThat(fileStatistics.getCommits().get(0)).hasId(head)
+                .hasAuthor(BAR_EMAIL)
+                .hasTotalAddedLines(2)
+                .hasTotalDeletedLines(1);
+        assertThat(log.getInfoMessages()).contains(
+                "-> The statistics are partial: the history of commit '%s' is missing".formatted(head));
+    }
+
+    /**
+     * Verifies that subsequent builds add the older commits of partial statistics in bounded portions until the whole
+     * history has been mined.
+     *
+     * @throws InterruptedException
+     *         never thrown
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAddOlderCommitsOfPartialStatistics() throws InterruptedException {
+        writeFileAsAuthorFoo("First\n");
+        var firstCommit = getHead();
+        writeFileAsAuthorBar("Second\nLine\n");
+        var head = getHead();
+
+        Run<?, ?> first = mock(Run.class);
+        var partial = new GitRepositoryMiner(createGitClient(), new ObjectCacheOptions(), false, false,
+                new PathGlobs(), new MiningWindow(0, 1), first).mine(new RepositoryStatistics(), LOG);
+        var firstHistory = captureHistory(first);
+        assertThat(firstHistory.isPartial()).isTrue();
+        assertThat(firstHistory.getLatestCommitId()).isEqualTo(head);
+        assertThat(firstHistory.getOldestCommitId()).isEqualTo(head);
+        assertThat(partial).hasFiles(ADDITIONAL_FILE);
+
+        Run<?, ?> second = mock(Run.class);
+        when(second.getPreviousBuild()).thenAnswer(i -> first);
+        when(first.getActions(MinedHistoryAction.class)).thenReturn(List.of(firstHistory));
+
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var older = new GitRepositoryMiner(createGitClient(), new ObjectCacheOptions(), false, false,
+                new PathGlobs(), new MiningWindow(0, 1), second).mine(partial, log);
+
+        assertThat(log.getInfoMessages()).contains(
+                "-> The statistics of the previous build are partial, adding at most 1 older commits",
+                "-> Added 1 older commits to the statistics");
+        assertThat(older).hasFiles(ADDITIONAL_FILE);
+        assertThat(older.get(ADDITIONAL_FILE)).hasNumberOfCommits(2);
+        assertThat(older.get(ADDITIONAL_FILE).getCommits().get(0)).hasId(firstCommit);
+        assertThat(older.getLatestCommitId()).isEqualTo(head);
+        var secondHistory = captureHistory(second);
+        assertThat(secondHistory.isPartial()).isTrue();
+        assertThat(secondHistory.getStartCommitId()).isEqualTo(firstHistory.getStartCommitId());
+        assertThat(secondHistory.getOldestCommitId()).isEqualTo(firstCommit);
+
+        Run<?, ?> third = mock(Run.class);
+        when(third.getPreviousBuild()).thenAnswer(i -> second);
+        when(second.getActions(MinedHistoryAction.class)).thenReturn(List.of(secondHistory));
+
+        var complete = new GitRepositoryMiner(createGitClient(), new ObjectCacheOptions(), false, false,
+                new PathGlobs(), new MiningWindow(0, 1), third).mine(older, LOG);
+
+        assertThat(complete).hasFiles(OTHER_FILE, ADDITIONAL_FILE);
+        assertDefaultFileStatistics(complete);
+        assertThat(complete.get(ADDITIONAL_FILE)).hasNumberOfCommits(2);
+        assertThat(captureHistory(third).isPartial()).isFalse();
+    }
+
+    /**
+     * Verifies that only the latest previous build that has mined the repository is inspected for partial statistics.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStopAtLatestBuildWithHistory() {
+        Run<?, ?> oldest = mock(Run.class);
+        when(oldest.getActions(MinedHistoryAction.class)).thenReturn(
+                List.of(new MinedHistoryAction("commit", new PathGlobs(), "start", "oldest")));
+        Run<?, ?> previous = mock(Run.class);
+        when(previous.getPreviousBuild()).thenAnswer(i -> oldest);
+        when(previous.getActions(MinedHistoryAction.class)).thenReturn(
+                List.of(new MinedHistoryAction("other", new PathGlobs())));
+        Run<?, ?> current = mock(Run.class);
+        when(current.getPreviousBuild()).thenAnswer(i -> previous);
+
+        assertThat(MinedHistoryAction.findPrevious(current, "commit")).isEmpty();
+        assertThat(MinedHistoryAction.findPrevious(current, "other")).isPresent();
+        verify(oldest, never()).getActions(MinedHistoryAction.class);
+    }
+
+    @Test
+    void shouldMineFromScratchIfGlobsHaveChanged() throws InterruptedException {
+        writeFileAsAuthorFoo("First\n");
+        var head = getHead();
+
+        Run<?, ?> first = mock(Run.class);
+        var all = new GitRepositoryMiner(createGitClient(), new ObjectCacheOptions(), false, false,
+                new PathGlobs(), new MiningWindow(), first).mine(new RepositoryStatistics(), LOG);
+        assertThat(all).hasFiles(OTHER_FILE, ADDITIONAL_FILE);
+
+        Run<?, ?> second = mock(Run.class);
+        when(second.getPreviousBuild()).thenAnswer(i -> first);
+        when(first.getActions(MinedHistoryAction.class)).thenReturn(List.of(captureHistory(first)));
+
+        var log = new FilteredLog(StringUtils.EMPTY);
+        var globs = PathGlobs.from(ADDITIONAL_FILE, StringUtils.EMPTY);
+        var statisticsPerFile = new GitRepositoryMiner(createGitClient(), new ObjectCacheOptions(), false, false,
+                globs, new MiningWindow(), second).mine(all, log);
+
+        assertThat(log.getInfoMessages()).contains(
+                "-> The globs of the previous statistics differ from includes [source.txt], excludes [], "
+                        + "mining from scratch");
+        assertThat(statisticsPerFile).hasFiles(ADDITIONAL_FILE);
+        assertThat(statisticsPerFile.getLatestCommitId()).isEqualTo(head);
+        assertThat(captureHistory(second).getPaths()).isEqualTo(globs);
+    }
+
+    private MinedHistoryAction captureHistory(final Run<?, ?> build) {
+        var action = ArgumentCaptor.forClass(MinedHistoryAction.class);
+        verify(build).addAction(action.capture());
+        return action.getValue();
+    }
+
     private RepositoryStatistics createRepositoryStatistics() throws InterruptedException {
         return new GitRepositoryMiner(createGitClient()).mine(new RepositoryStatistics(), LOG);
     }
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import io.jenkins.plugins.forensics.miner.CommitDiffItem;
+import io.jenkins.plugins.forensics.miner.RepositoryStatistics;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link HistoryMerger}.
+ *
+ * @author Ullrich Hafner
+ */
+class HistoryMergerTest {
+    private static final String AUTHOR = "author";
+    private static final String OLD_NAME = "old.txt";
+    private static final String NEW_NAME = "new.txt";
+    private static final String DELETED = "deleted.txt";
+    private static final String UNTOUCHED = "untouched.txt";
+
+    @Test
+    void shouldReturnStatisticsIfThereAreNoOlderCommits() {
+        var statistics = createStatistics();
+
+        assertThat(new HistoryMerger().merge(statistics, List.of(), Set.of())).isSameAs(statistics);
+    }
+
+    @Test
+    void shouldAttributeOlderCommitsToCurrentFiles() {
+        var deletion = createCommit("1", DELETED, 0, 3);
+        deletion.setOldPath(DELETED);
+        deletion.setNewPath(DiffEntry.DEV_NULL);
+        var olderCommits = List.of(
+                createCommit("1", OLD_NAME, 2, 0),
+                deletion,
+                createCommit("0", DELETED, 3, 0),
+                createCommit("0", UNTOUCHED, 1, 0));
+
+        var merged = new HistoryMerger().merge(createStatistics(), olderCommits, Set.of(UNTOUCHED));
+
+        assertThat(merged).hasFiles(NEW_NAME, UNTOUCHED);
+        assertThat(merged.getLatestCommitId()).isEqualTo("2");
+        assertThat(merged.get(NEW_NAME)).hasNumberOfCommits(2).hasLinesOfCode(3);
+        assertThat(merged.get(NEW_NAME).getCommits())
+                .extracting(CommitDiffItem::getId).containsExactly("1", "2");
+        assertThat(merged.get(UNTOUCHED)).hasNumberOfCommits(1).hasLinesOfCode(1);
+    }
+
+    private RepositoryStatistics createStatistics() {
+        var rename = createCommit("2", NEW_NAME, 1, 0);
+        rename.setOldPath(OLD_NAME);
+
+        var statistics = new RepositoryStatistics("2");
+        statistics.addAll(List.of(rename));
+        return statistics;
+    }
+
+    private CommitDiffItem createCommit(final String id, final String fileName, final int added, final int deleted) {
+        var commit = new CommitDiffItem(id, AUTHOR, Integer.parseInt(id));
+        commit.setNewPath(fileName);
+        commit.addLines(added);
+        commit.deleteLines(deleted);
+        return commit;
+    }
+}
@@ -0,0 +1,73 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.TreeStringBuilder;
+
+import java.util.List;
+
+import io.jenkins.plugins.forensics.git.util.GitITest;
+import io.jenkins.plugins.forensics.miner.CommitDiffItem;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link MiningSession}.
+ *
+ * @author Ullrich Hafner
+ */
+class MiningSessionITest extends GitITest {
+    /** Verifies that the tree of a comparison commit is reused as the new tree of the next commit. */
+    @Test
+    void shouldReuseTreeOfComparedCommit() {
+        var start = getHeadCommit();
+        writeFileAsAuthorBar("First Line\nSecond Line\n");
+        var first = getHeadCommit();
+        writeFileAsAuthorBar("First Line\nSecond Line\nThird Line\n");
+        var second = getHeadCommit();
+        writeFileAsAuthorFoo("First Line\n");
+        var head = getHeadCommit();
+
+        runTest((repository, git) -> {
+            var log = new FilteredLog("Errors");
+            try (var walk = new RevWalk(repository);
+                    var session = new MiningSession(repository, new TreeStringBuilder())) {
+                var headCommit = walk.parseCommit(head);
+                var secondCommit = walk.parseCommit(second);
+                var firstCommit = walk.parseCommit(first);
+                var startCommit = walk.parseCommit(start);
+
+                List<CommitDiffItem> headDiffs = session.diff(headCommit, secondCommit, log);
+                assertThat(headDiffs).hasSize(1);
+                assertThat(headDiffs.get(0))
+                        .hasId(head.getName())
+                        .hasAuthor(FOO_EMAIL)
+                        .hasTotalAddedLines(0)
+                        .hasTotalDeletedLines(2);
+
+                List<CommitDiffItem> secondDiffs = session.diff(secondCommit, firstCommit, log);
+                assertThat(secondDiffs).hasSize(1);
+                assertThat(secondDiffs.get(0))
+                        .hasId(second.getName())
+                        .hasAuthor(BAR_EMAIL)
+                        .hasTotalAddedLines(1)
+                        .hasTotalDeletedLines(0);
+
+                List<CommitDiffItem> firstDiffs = session.diff(firstCommit, startCommit, log);
+                assertThat(firstDiffs).hasSize(1);
+                assertThat(firstDiffs.get(0))
+                        .hasId(first.getName())
+                        .hasTotalAddedLines(2)
+                        .hasTotalDeletedLines(0);
+
+                List<CommitDiffItem> startDiffs = session.diff(startCommit, null, log);
+                assertThat(startDiffs).hasSize(1);
+                assertThat(startDiffs.get(0))
+                        .hasId(start.getName());
+            }
+            assertThat(log.getErrorMessages()).isEmpty();
+        });
+    }
+}
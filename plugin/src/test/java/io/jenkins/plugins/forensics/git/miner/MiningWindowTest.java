@@ -0,0 +1,42 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link MiningWindow}.
+ *
+ * @author Ullrich Hafner
+ */
+class MiningWindowTest {
+    @Test
+    void shouldSelectWholeHistoryWithoutBounds() {
+        var window = new MiningWindow(0, -1);
+
+        assertThat(window.isBounded()).isFalse();
+        assertThat(window.createRevFilter(Instant.now())).isSameAs(RevFilter.ALL);
+        assertThat(window).hasToString("the whole history");
+    }
+
+    @Test
+    void shouldBoundCommitTimeAndNumberOfCommits() {
+        assertThat(new MiningWindow(30, 0).isBounded()).isTrue();
+        assertThat(new MiningWindow(30, 0)).hasToString("the commits of the last 30 days");
+        assertThat(new MiningWindow(0, 500)).hasToString("the latest 500 commits");
+        assertThat(new MiningWindow(30, 500)).hasToString("at most 500 commits of the last 30 days");
+
+        assertThat(new MiningWindow(30, 500).createRevFilter(Instant.now())).isNotSameAs(RevFilter.ALL);
+    }
+
+    @Test
+    void shouldLimitOlderCommitsPerBuild() {
+        assertThat(new MiningWindow(30, 500).getBackfillLimit()).isEqualTo(500);
+        assertThat(new MiningWindow(0, 500).getBackfillLimit()).isEqualTo(500);
+        assertThat(new MiningWindow(30, 0).getBackfillLimit()).isEqualTo(MiningWindow.DEFAULT_BACKFILL_LIMIT);
+        assertThat(new MiningWindow().getBackfillLimit()).isEqualTo(MiningWindow.DEFAULT_BACKFILL_LIMIT);
+    }
+}
@@ -0,0 +1,73 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.PathGlobs.GlobTreeFilter;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link PathGlobs}.
+ *
+ * @author Ullrich Hafner
+ */
+class PathGlobsTest {
+    @Test
+    void shouldSelectAllFilesWithoutGlobs() {
+        var globs = PathGlobs.from("", " , ");
+
+        assertThat(globs.isEmpty()).isTrue();
+        assertThat(globs.createTreeFilter()).isSameAs(TreeFilter.ALL);
+    }
+
+    @Test
+    void shouldMatchGlobs() {
+        assertThat(PathGlobs.compile("services/payments/**").matcher("services/payments/src/Main.java").matches())
+                .isTrue();
+        assertThat(PathGlobs.compile("services/payments/**").matcher("services/orders/Main.java").matches())
+                .isFalse();
+        assertThat(PathGlobs.compile("**/*.java").matcher("Main.java").matches()).isTrue();
+        assertThat(PathGlobs.compile("**/*.java").matcher("a/b/Main.java").matches()).isTrue();
+        assertThat(PathGlobs.compile("*.java").matcher("a/Main.java").matches()).isFalse();
+        assertThat(PathGlobs.compile("src/?ain.java").matcher("src/Main.java").matches()).isTrue();
+        assertThat(PathGlobs.compile("a.b").matcher("axb").matches()).isFalse();
+    }
+
+    @Test
+    void shouldExtractLiteralPrefix() {
+        assertThat(PathGlobs.getLiteralPrefix("services/payments/**")).isEqualTo("services/payments/");
+        assertThat(PathGlobs.getLiteralPrefix("src/*/java/**")).isEqualTo("src/");
+        assertThat(PathGlobs.getLiteralPrefix("**/*.java")).isEmpty();
+        assertThat(PathGlobs.getLiteralPrefix("README.md")).isEmpty();
+    }
+
+    @Test
+    void shouldOpenOnlySubtreesOfIncludedFiles() {
+        var filter = (GlobTreeFilter) PathGlobs.from("/services/payments/**", "**/generated/**")
+                .createTreeFilter();
+
+        assertThat(filter.includesDirectory("services")).isTrue();
+        assertThat(filter.includesDirectory("services/payments")).isTrue();
+        assertThat(filter.includesDirectory("services/payments/src")).isTrue();
+        assertThat(filter.includesDirectory("services/orders")).isFalse();
+        assertThat(filter.includesDirectory("docs")).isFalse();
+        assertThat(filter.includesDirectory("services/payments/generated")).isFalse();
+
+        assertThat(filter.includesFile("services/payments/src/Main.java")).isTrue();
+        assertThat(filter.includesFile("services/payments/generated/Api.java")).isFalse();
+        assertThat(filter.includesFile("services/orders/Main.java")).isFalse();
+        assertThat(filter.includesFile("README.md")).isFalse();
+    }
+
+    @Test
+    void shouldApplyExcludesWithoutIncludes() {
+        var filter = (GlobTreeFilter) PathGlobs.from("", "docs/**\n*.md").createTreeFilter();
+
+        assertThat(filter.includesDirectory("src")).isTrue();
+        assertThat(filter.includesDirectory("docs")).isFalse();
+        assertThat(filter.includesFile("src/Main.java")).isTrue();
+        assertThat(filter.includesFile("README.md")).isFalse();
+        assertThat(filter.includesFile("src/README.md")).isTrue();
+    }
+}
@@ -0,0 +1,111 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.util.SystemReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CommitGraphSupport}.
+ *
+ * @author Ullrich Hafner
+ */
+class CommitGraphSupportTest {
+    @Test
+    void shouldNotWriteCommitGraphIfDisabled(@TempDir final File workTree) throws GitAPIException, IOException {
+        try (var git = createRepository(workTree)) {
+            var log = new FilteredLog(StringUtils.EMPTY);
+            var support = new CommitGraphSupport(git.getRepository());
+
+            assertThat(support.enable(false, log)).isFalse();
+            assertThat(support.getCommitGraphFile()).doesNotExist();
+            assertThat(log.getInfoMessages()).contains("-> no commit-graph file found, walking commits without it");
+        }
+    }
+
+    @Test
+    void shouldWriteAndEnableCommitGraph(@TempDir final File workTree) throws GitAPIException, IOException {
+        try (var git = createRepository(workTree)) {
+            var log = new FilteredLog(StringUtils.EMPTY);
+            var repository = git.getRepository();
+            var support = new CommitGraphSupport(repository);
+
+            assertThat(support.enable(true, log)).isTrue();
+            assertThat(support.getCommitGraphFile()).isFile();
+            assertThat(log.getErrorMessages()).isEmpty();
+            assertThat(repository.getConfig().getBoolean(ConfigConstants.CONFIG_CORE_SECTION,
+                    ConfigConstants.CONFIG_COMMIT_GRAPH, false)).isTrue();
+
+            try (var reader = repository.newObjectReader()) {
+                assertThat(reader.getCommitGraph()).hasValueSatisfying(
+                        graph -> assertThat(graph.getCommitCnt()).isEqualTo(2));
+            }
+
+            var secondLog = new FilteredLog(StringUtils.EMPTY);
+            assertThat(support.enable(true, secondLog)).isTrue();
+            assertThat(secondLog.getInfoMessages()).noneMatch(message -> message.startsWith("-> wrote"));
+        }
+    }
+
+    @Test
+    void shouldRestoreRepositoryConfigurationOnClose(@TempDir final File workTree) throws Exception {
+        try (var git = createRepository(workTree)) {
+            var repository = git.getRepository();
+            var readChangedPaths = isReadingChangedPaths();
+
+            try (var support = new CommitGraphSupport(repository)) {
+                assertThat(support.enable(true, new FilteredLog(StringUtils.EMPTY))).isTrue();
+                assertThat(repository.getConfig().getString(ConfigConstants.CONFIG_CORE_SECTION, null,
+                        ConfigConstants.CONFIG_COMMIT_GRAPH)).isEqualTo("true");
+            }
+
+            assertThat(repository.getConfig().getString(ConfigConstants.CONFIG_CORE_SECTION, null,
+                    ConfigConstants.CONFIG_COMMIT_GRAPH)).isNull();
+            assertThat(isReadingChangedPaths()).isEqualTo(readChangedPaths);
+        }
+    }
+
+    @Test
+    void shouldRestorePreviousValueOnClose(@TempDir final File workTree) throws Exception {
+        try (var git = createRepository(workTree)) {
+            var config = git.getRepository().getConfig();
+            config.setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH, false);
+
+            try (var support = new CommitGraphSupport(git.getRepository())) {
+                support.enable(true, new FilteredLog(StringUtils.EMPTY));
+            }
+
+            assertThat(config.getString(ConfigConstants.CONFIG_CORE_SECTION, null,
+                    ConfigConstants.CONFIG_COMMIT_GRAPH)).isEqualTo("false");
+        }
+    }
+
+    private boolean isReadingChangedPaths() throws IOException, ConfigInvalidException {
+        return SystemReader.getInstance().getJGitConfig().getBoolean(ConfigConstants.CONFIG_COMMIT_GRAPH_SECTION,
+                ConfigConstants.CONFIG_KEY_READ_CHANGED_PATHS, false);
+    }
+
+    private Git createRepository(final File workTree) throws GitAPIException, IOException {
+        var git = Git.init().setDirectory(workTree).setInitialBranch("main").call();
+        for (int i = 1; i <= 2; i++) {
+            Files.writeString(workTree.toPath().resolve("file.txt"), "Revision " + i, StandardCharsets.UTF_8);
+            git.add().addFilepattern("file.txt").call();
+            git.commit().setMessage("Revision " + i).setSign(false)
+                    .setAuthor("Foo", "foo@jenkins.io").setCommitter("Foo", "foo@jenkins.io").call();
+        }
+        return git;
+    }
+}
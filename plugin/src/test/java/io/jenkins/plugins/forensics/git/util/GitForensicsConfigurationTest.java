@@ -0,0 +1,143 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.util.GlobalConfigurationFacade;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link GitForensicsConfiguration}.
+ *
+ * @author Ullrich Hafner
+ */
+class GitForensicsConfigurationTest {
+    @Test
+    void shouldInitializeWithDefaults() {
+        var configuration = createConfiguration(mock(GlobalConfigurationFacade.class));
+
+        assertThat(configuration.isBlameCacheEnabled()).isFalse();
+        assertThat(configuration.getBlameCacheSize()).isEqualTo(GitForensicsConfiguration.DEFAULT_BLAME_CACHE_SIZE);
+        assertThat(configuration.isCommitGraphWriteEnabled()).isFalse();
+        assertThat(configuration.isVirtualThreadsEnabled()).isFalse();
+        assertThat(configuration.isSpeculativeBlameEnabled()).isFalse();
+        assertThat(configuration.getBlameTimeBudget()).isZero();
+        assertThat(configuration.getBlameBackend()).isEqualTo(BlameBackend.JGIT);
+        assertThat(configuration.getCliBlameFileSize())
+                .isEqualTo(GitForensicsConfiguration.DEFAULT_CLI_BLAME_FILE_SIZE);
+        assertThat(configuration.getCliBlameHistoryDepth())
+                .isEqualTo(GitForensicsConfiguration.DEFAULT_CLI_BLAME_HISTORY_DEPTH);
+        assertThat(configuration.getBlameRenameDetection()).isEqualTo(RenameDetection.SIMILARITY);
+        assertThat(configuration.getMinerIncludes()).isEmpty();
+        assertThat(configuration.getMinerExcludes()).isEmpty();
+        assertThat(configuration.getInitialMiningDays()).isZero();
+        assertThat(configuration.getInitialMiningCommits()).isZero();
+    }
+
+    @Test
+    void shouldSaveConfigurationForEachSetter() {
+        var facade = mock(GlobalConfigurationFacade.class);
+        var configuration = createConfiguration(facade);
+
+        configuration.setBlameCacheEnabled(true);
+        configuration.setBlameCacheSize(100);
+        configuration.setBlameTimeBudget(60);
+
+        verify(facade, times(3)).save();
+        assertThat(configuration.isBlameCacheEnabled()).isTrue();
+        assertThat(configuration.getBlameCacheSize()).isEqualTo(100);
+        assertThat(configuration.getBlameTimeBudget()).isEqualTo(60);
+    }
+
+    @Test
+    void shouldReplaceNegativeValuesWithZero() {
+        var configuration = createConfiguration(mock(GlobalConfigurationFacade.class));
+
+        configuration.setBlameTimeBudget(-1);
+        configuration.setPackedGitLimit(-1);
+        configuration.setDeltaBaseCacheLimit(-1);
+        configuration.setStreamFileThreshold(-1);
+        configuration.setCliBlameFileSize(-1);
+        configuration.setCliBlameHistoryDepth(-1);
+        configuration.setBlameMaxFileSize(-1);
+        configuration.setBlameMaxLines(-1);
+        configuration.setBlameMaxHistoryDepth(-1);
+        configuration.setBlameFileTimeout(-1);
+        configuration.setBlameRenameLimit(-1);
+        configuration.setInitialMiningDays(-1);
+        configuration.setInitialMiningCommits(-1);
+
+        assertThat(configuration.getBlameTimeBudget()).isZero();
+        assertThat(configuration.getPackedGitLimit()).isZero();
+        assertThat(configuration.getDeltaBaseCacheLimit()).isZero();
+        assertThat(configuration.getStreamFileThreshold()).isZero();
+        assertThat(configuration.getCliBlameFileSize()).isZero();
+        assertThat(configuration.getCliBlameHistoryDepth()).isZero();
+        assertThat(configuration.getBlameMaxFileSize()).isZero();
+        assertThat(configuration.getBlameMaxLines()).isZero();
+        assertThat(configuration.getBlameMaxHistoryDepth()).isZero();
+        assertThat(configuration.getBlameFileTimeout()).isZero();
+        assertThat(configuration.getBlameRenameLimit()).isZero();
+        assertThat(configuration.getInitialMiningDays()).isZero();
+        assertThat(configuration.getInitialMiningCommits()).isZero();
+    }
+
+    @Test
+    void shouldUseDefaultCacheSizeForInvalidValues() {
+        var configuration = createConfiguration(mock(GlobalConfigurationFacade.class));
+
+        configuration.setBlameCacheSize(0);
+        assertThat(configuration.getBlameCacheSize()).isEqualTo(GitForensicsConfiguration.DEFAULT_BLAME_CACHE_SIZE);
+
+        configuration.setBlameCacheSize(-1);
+        assertThat(configuration.getBlameCacheSize()).isEqualTo(GitForensicsConfiguration.DEFAULT_BLAME_CACHE_SIZE);
+    }
+
+    @Test
+    void shouldRoundWindowSizeDownToPowerOfTwo() {
+        var configuration = createConfiguration(mock(GlobalConfigurationFacade.class));
+
+        configuration.setPackedGitWindowSize(100);
+        assertThat(configuration.getPackedGitWindowSize()).isEqualTo(64);
+
+        configuration.setPackedGitWindowSize(64);
+        assertThat(configuration.getPackedGitWindowSize()).isEqualTo(64);
+
+        configuration.setPackedGitWindowSize(-8);
+        assertThat(configuration.getPackedGitWindowSize()).isZero();
+    }
+
+    @Test
+    void shouldUseDefaultsForMissingEnums() {
+        var configuration = createConfiguration(mock(GlobalConfigurationFacade.class));
+
+        configuration.setBlameBackend(BlameBackend.CLI);
+        configuration.setBlameRenameDetection(RenameDetection.NONE);
+        assertThat(configuration.getBlameBackend()).isEqualTo(BlameBackend.CLI);
+        assertThat(configuration.getBlameRenameDetection()).isEqualTo(RenameDetection.NONE);
+
+        configuration.setBlameBackend(null);
+        configuration.setBlameRenameDetection(null);
+        assertThat(configuration.getBlameBackend()).isEqualTo(BlameBackend.JGIT);
+        assertThat(configuration.getBlameRenameDetection()).isEqualTo(RenameDetection.SIMILARITY);
+    }
+
+    @Test
+    void shouldStripMinerGlobs() {
+        var configuration = createConfiguration(mock(GlobalConfigurationFacade.class));
+
+        configuration.setMinerIncludes("  src/**\n");
+        configuration.setMinerExcludes(null);
+        assertThat(configuration.getMinerIncludes()).isEqualTo("src/**");
+        assertThat(configuration.getMinerExcludes()).isEmpty();
+
+        configuration.setMinerIncludes(StringUtils.SPACE);
+        assertThat(configuration.getMinerIncludes()).isEmpty();
+    }
+
+    private GitForensicsConfiguration createConfiguration(final GlobalConfigurationFacade facade) {
+        return new GitForensicsConfiguration(facade);
+    }
+}
@@ -0,0 +1,89 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import io.jenkins.plugins.util.GlobalConfigurationFacade;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link ObjectCacheOptions}.
+ *
+ * @author Ullrich Hafner
+ */
+class ObjectCacheOptionsTest {
+    private static final String CONFIGURED = "-> configured JGit object cache";
+    private static final String STATISTICS = "-> JGit object cache:";
+
+    @Test
+    void shouldNotTouchCacheWithDefaults() {
+        var options = new ObjectCacheOptions();
+        assertThat(options.isConfigured()).isFalse();
+
+        var log = new FilteredLog(StringUtils.EMPTY);
+        options.install(log).log(log);
+
+        assertThat(log.getErrorMessages()).isEmpty();
+        assertThat(log.getInfoMessages()).noneMatch(message -> message.startsWith(CONFIGURED))
+                .anyMatch(message -> message.startsWith(STATISTICS));
+    }
+
+    @Test
+    void shouldRoundWindowSizeToPowerOfTwo() {
+        var options = new ObjectCacheOptions().setPackedGitWindowSize(100);
+
+        assertThat(options.getPackedGitWindowSize()).isEqualTo(64);
+        assertThat(options.isConfigured()).isTrue();
+        assertThat(options.setPackedGitWindowSize(-1).getPackedGitWindowSize()).isZero();
+        assertThat(options.setPackedGitWindowSize(Integer.MAX_VALUE).getPackedGitWindowSize()).isEqualTo(1024 * 1024);
+    }
+
+    @Test
+    void shouldClampLimitsToIntegerRange() {
+        int mib = 1024 * 1024;
+
+        assertThat(ObjectCacheOptions.toBytes(10, mib)).isEqualTo(10 * mib);
+        assertThat(ObjectCacheOptions.toBytes(2047, mib)).isEqualTo(2047 * mib);
+        assertThat(ObjectCacheOptions.toBytes(2048, mib)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(ObjectCacheOptions.toBytes(Integer.MAX_VALUE, mib)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void shouldInstallChangedOptionsOnlyOnce() {
+        var options = new ObjectCacheOptions()
+                .setPackedGitWindowSize(8)
+                .setPackedGitLimit(10)
+                .setDeltaBaseCacheLimit(10)
+                .setStreamFileThreshold(51);
+
+        var first = new FilteredLog(StringUtils.EMPTY);
+        options.install(first);
+        var second = new FilteredLog(StringUtils.EMPTY);
+        options.install(second);
+
+        assertThat(first.getErrorMessages()).isEmpty();
+        assertThat(first.getInfoMessages()).contains(CONFIGURED
+                + ": window size 8 KiB, limit 10 MiB, delta base cache 10 MiB, stream file threshold 51 MiB");
+        assertThat(second.getInfoMessages()).noneMatch(message -> message.startsWith(CONFIGURED));
+    }
+
+    @Test
+    void shouldCreateOptionsFromConfiguration() {
+        var configuration = new GitForensicsConfiguration(mock(GlobalConfigurationFacade.class));
+        configuration.setPackedGitWindowSize(20);
+        configuration.setPackedGitLimit(256);
+        configuration.setDeltaBaseCacheLimit(64);
+        configuration.setStreamFileThreshold(-5);
+
+        var options = ObjectCacheOptions.from(configuration);
+
+        assertThat(options.getPackedGitWindowSize()).isEqualTo(16);
+        assertThat(options.getPackedGitLimit()).isEqualTo(256);
+        assertThat(options.getDeltaBaseCacheLimit()).isEqualTo(64);
+        assertThat(options.getStreamFileThreshold()).isZero();
+    }
+}
@@ -0,0 +1,107 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.jenkins.plugins.forensics.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link WorkerPool}.
+ *
+ * @author Ullrich Hafner
+ */
+class WorkerPoolTest {
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = Runtime.version().feature() >= 21;
+
+    @Test
+    void shouldBoundNumberOfWorkers() {
+        assertThat(WorkerPool.getWorkers(0, 4)).isEqualTo(1);
+        assertThat(WorkerPool.getWorkers(3, 4)).isEqualTo(3);
+        assertThat(WorkerPool.getWorkers(10, 4)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldUsePlatformThreadsIfVirtualThreadsAreDisabled() throws Exception {
+        var log = new FilteredLog(StringUtils.EMPTY);
+        try (var pool = WorkerPool.create(false, 1, log)) {
+            assertThat(pool.isVirtual()).isFalse();
+            assertThat(pool.getWorkers()).isEqualTo(1);
+            assertThat(pool.describe()).isEqualTo("1 worker threads");
+            assertThat(pool.submit(() -> 42).get()).isEqualTo(42);
+        }
+        assertThat(log.getInfoMessages()).isEmpty();
+    }
+
+    @Test
+    void shouldUseVirtualThreadsIfSupported() throws Exception {
+        var log = new FilteredLog(StringUtils.EMPTY);
+        try (var pool = WorkerPool.create(true, 1000, log)) {
+            assertThat(pool.isVirtual()).isEqualTo(VIRTUAL_THREADS_SUPPORTED);
+            assertThat(pool.submit(() -> Thread.currentThread().toString().startsWith("VirtualThread")).get())
+                    .isEqualTo(VIRTUAL_THREADS_SUPPORTED);
+            if (VIRTUAL_THREADS_SUPPORTED) {
+                assertThat(pool.getWorkers()).isGreaterThan(Runtime.getRuntime().availableProcessors());
+                assertThat(log.getInfoMessages()).isEmpty();
+            }
+            else {
+                assertThat(pool.getWorkers()).isLessThanOrEqualTo(Runtime.getRuntime().availableProcessors());
+                assertThat(log.getInfoMessages()).singleElement().asString()
+                        .startsWith("-> virtual threads are not supported");
+            }
+        }
+    }
+
+    @Test
+    void shouldCancelRunningWorkersWhenClosed() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var interrupted = new AtomicBoolean();
+
+        var pool = WorkerPool.create(true, 2, new FilteredLog(StringUtils.EMPTY));
+        try (pool) {
+            pool.submit(() -> {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                }
+                catch (InterruptedException exception) {
+                    interrupted.set(true);
+                }
+                return null;
+            });
+            started.await();
+        }
+
+        assertThat(pool.isTerminated()).isTrue();
+        assertThat(interrupted).isTrue();
+    }
+
+    @Test
+    void shouldWaitForWorkersIfInterruptedWhileClosing() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var finished = new AtomicBoolean();
+
+        var pool = WorkerPool.create(false, 1, new FilteredLog(StringUtils.EMPTY));
+        try (pool) {
+            pool.submit(() -> {
+                started.countDown();
+                long end = System.nanoTime() + 200_000_000L;
+                while (System.nanoTime() - end < 0) {
+                    Thread.onSpinWait(); // ignores the cancellation
+                }
+                finished.set(true);
+                return null;
+            });
+            started.await();
+            Thread.currentThread().interrupt();
+        }
+
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(pool.isTerminated()).isTrue();
+        assertThat(finished).isTrue();
+    }
+}